@@ -0,0 +1,81 @@
+package com.github.stefanbirkner.contarini.benchmarks;
+
+import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_IMAGE_INDEX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Realistic data for the benchmarks. The texts are read from the
+ * resources of this package.
+ */
+class Fixtures {
+    static final String CANONICAL = "https://www.example.com/en-US/help/orders/shipping-and-delivery";
+    static final String KEYWORDS = "help, orders, shipping, delivery, returns, payment";
+    static final List<String> LOCALES = readLines("locales.txt");
+    static final List<String> DESCRIPTIONS = readLines("descriptions.txt");
+    static final List<String> DESCRIPTIONS_TO_ESCAPE = readLines("descriptions-to-escape.txt");
+
+    /**
+     * Creates an info for a typical page of a translated site for each
+     * description. The benchmarks rotate through them, so that they do
+     * not measure a single text that the branch predictor learns.
+     * @param descriptions the descriptions of the pages.
+     * @param numberOfAlternates the number of alternate languages.
+     * @return a fully fledged info per description.
+     */
+    static WebCrawlerInfo[] pageInfos(List<String> descriptions, int numberOfAlternates) {
+        List<Alternate> alternates = alternates(numberOfAlternates);
+        WebCrawlerInfo[] infos = new WebCrawlerInfo[descriptions.size()];
+        for (int i = 0; i < infos.length; ++i)
+            infos[i] = new WebCrawlerInfo()
+                .withCanonical(CANONICAL)
+                .withAdvices(NO_ARCHIVE, NO_IMAGE_INDEX)
+                .withAlternates(alternates)
+                .withDescription(descriptions.get(i))
+                .withKeywords(KEYWORDS)
+                .disableGoogleFeatures(TRANSLATION);
+        return infos;
+    }
+
+    static List<Alternate> alternates(int numberOfAlternates) {
+        List<Alternate> alternates = new ArrayList<Alternate>(numberOfAlternates);
+        for (int i = 0; i < numberOfAlternates; ++i) {
+            String locale = LOCALES.get(i % LOCALES.size());
+            alternates.add(alternateLanguage(locale,
+                "https://www.example.com/" + locale + "/help/orders/shipping-and-delivery"));
+        }
+        return alternates;
+    }
+
+    private static List<String> readLines(String resource) {
+        InputStream is = Fixtures.class.getResourceAsStream(resource);
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is, UTF_8));
+            try {
+                List<String> lines = new ArrayList<String>();
+                String line;
+                while ((line = reader.readLine()) != null)
+                    if (!line.isEmpty() && !line.startsWith("#"))
+                        lines.add(line);
+                return lines;
+            } finally {
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read fixture " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.stefanbirkner.contarini.benchmarks;
+
+import com.github.stefanbirkner.contarini.WebCrawlerAdvice;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NONE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_FOLLOW;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_IMAGE_INDEX;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_SNIPPET;
+import static com.github.stefanbirkner.contarini.ImplicitWebCrawlerAdvice.implicitAdvicesAnd;
+
+/**
+ * Measures {@link com.github.stefanbirkner.contarini.ImplicitWebCrawlerAdvice#implicitAdvicesAnd(List)}
+ * for advices that are typical for the pages of a crawl audit.
+ */
+@State(Scope.Thread)
+public class ImplicitWebCrawlerAdviceBenchmark {
+    @Param({"empty", "neutral", "cancelling", "none"})
+    public String advices;
+
+    private List<WebCrawlerAdvice> adviceList;
+
+    @Setup
+    public void setUp() {
+        if ("empty".equals(advices))
+            adviceList = Collections.emptyList();
+        else if ("neutral".equals(advices))
+            adviceList = Arrays.<WebCrawlerAdvice>asList(NO_ARCHIVE, NO_SNIPPET, NO_IMAGE_INDEX);
+        else if ("cancelling".equals(advices))
+            adviceList = Arrays.<WebCrawlerAdvice>asList(NO_ARCHIVE, NO_FOLLOW);
+        else
+            adviceList = Arrays.<WebCrawlerAdvice>asList(NONE);
+    }
+
+    @Benchmark
+    public List<WebCrawlerAdvice> implicitAdvices() {
+        return implicitAdvicesAnd(adviceList);
+    }
+}
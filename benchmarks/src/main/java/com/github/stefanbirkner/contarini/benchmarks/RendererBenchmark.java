@@ -0,0 +1,55 @@
+package com.github.stefanbirkner.contarini.benchmarks;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import com.github.stefanbirkner.contarini.render.Style;
+import com.github.stefanbirkner.contarini.render.VoidElementStyle;
+import com.github.stefanbirkner.contarini.render.WebCrawlerInfoRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Measures {@link WebCrawlerInfoRenderer#writeTagsForInfoToWriter}
+ * for all {@link VoidElementStyle}s, for descriptions with and without
+ * characters that have to be escaped and for different numbers of
+ * alternates. Each invocation renders the next page of the
+ * fixtures.
+ */
+@State(Scope.Thread)
+public class RendererBenchmark {
+    @Param
+    public VoidElementStyle voidElementStyle;
+
+    @Param({"false", "true"})
+    public boolean escapeHeavyDescription;
+
+    @Param({"0", "10", "50"})
+    public int numberOfAlternates;
+
+    private WebCrawlerInfoRenderer renderer;
+    private WebCrawlerInfo[] infos;
+    private int next = 0;
+    private StringWriter writer;
+
+    @Setup
+    public void setUp() {
+        renderer = new WebCrawlerInfoRenderer(new Style().withVoidElementStyle(voidElementStyle));
+        infos = Fixtures.pageInfos(
+            escapeHeavyDescription ? Fixtures.DESCRIPTIONS_TO_ESCAPE : Fixtures.DESCRIPTIONS,
+            numberOfAlternates);
+        writer = new StringWriter(16 * 1024);
+    }
+
+    @Benchmark
+    public StringWriter writeTagsForInfoToWriter() throws IOException {
+        writer.getBuffer().setLength(0);
+        renderer.writeTagsForInfoToWriter(infos[next], writer);
+        next = (next + 1) % infos.length;
+        return writer;
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.stefanbirkner.contarini.benchmarks;
+
+import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_IMAGE_INDEX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
+
+/**
+ * Measures the construction of a {@link WebCrawlerInfo} by chained
+ * {@code with} calls like a page controller does it and by a
+ * {@link WebCrawlerInfo.Builder}. Each invocation uses the next
+ * description of the fixtures.
+ */
+@State(Scope.Thread)
+public class WebCrawlerInfoBenchmark {
+    @Param({"0", "10", "50"})
+    public int numberOfAlternates;
+
+    private List<Alternate> alternates;
+    private String[] descriptions;
+    private int next = 0;
+    private WebCrawlerInfo.Builder builder;
+
+    @Setup
+    public void setUp() {
+        alternates = Fixtures.alternates(numberOfAlternates);
+        descriptions = Fixtures.DESCRIPTIONS.toArray(new String[0]);
+        builder = new WebCrawlerInfo.Builder();
+    }
+
+    @Benchmark
+    public WebCrawlerInfo chainedWithCalls() {
+        return new WebCrawlerInfo()
+            .withCanonical(Fixtures.CANONICAL)
+            .withAdvices(NO_ARCHIVE, NO_IMAGE_INDEX)
+            .withAlternates(alternates)
+            .withDescription(nextDescription())
+            .withKeywords(Fixtures.KEYWORDS)
+            .disableGoogleFeatures(TRANSLATION);
+    }
+
+    @Benchmark
+    public WebCrawlerInfo reusedBuilder() {
+        return builder.clear()
+            .withCanonical(Fixtures.CANONICAL)
+            .withAdvices(NO_ARCHIVE, NO_IMAGE_INDEX)
+            .withAlternates(alternates)
+            .withDescription(nextDescription())
+            .withKeywords(Fixtures.KEYWORDS)
+            .disableGoogleFeatures(TRANSLATION)
+            .build();
+    }
+
+    private String nextDescription() {
+        String description = descriptions[next];
+        next = (next + 1) % descriptions.length;
+        return description;
+    }
+}
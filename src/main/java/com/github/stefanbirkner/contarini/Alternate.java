@@ -37,9 +37,11 @@ public class Alternate {
         return new Alternate(href, null, media);
     }
 
+    private static final InternPool<Alternate> POOL = new InternPool<Alternate>();
     public final String href;
     public final String language;
     public final String media;
+    private final int hashCode;
 
     /**
      * @since 1.1.0
@@ -48,6 +50,7 @@ public class Alternate {
         this.href = href;
         this.language = language;
         this.media = media;
+        this.hashCode = calculateHashCode();
     }
 
     public Alternate(String href) {
@@ -67,8 +70,26 @@ public class Alternate {
         this(href, language, null);
     }
 
+    /**
+     * Returns a canonical instance that is equal to this
+     * {@code Alternate}. Equal {@code Alternate}s that are created
+     * independently are interned to the same instance. The pool of
+     * canonical instances doesn't prevent them from being garbage
+     * collected.
+     * @return a canonical instance that is equal to this
+     * {@code Alternate}.
+     * @since 1.3.0
+     */
+    public Alternate intern() {
+        return POOL.intern(this);
+    }
+
     @Override
     public int hashCode() {
+        return hashCode;
+    }
+
+    private int calculateHashCode() {
         int prime = 2543;
         int result = prime + ((href == null) ? 0 : href.hashCode());
         result = prime * result + ((language == null) ? 0 : language.hashCode());
@@ -84,6 +105,8 @@ public class Alternate {
         if (getClass() != obj.getClass())
             return false;
         Alternate other = (Alternate) obj;
+        if (hashCode != other.hashCode)
+            return false;
         if (href == null) {
             if (other.href != null)
                 return false;
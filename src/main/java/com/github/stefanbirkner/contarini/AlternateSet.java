@@ -0,0 +1,85 @@
+package com.github.stefanbirkner.contarini;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static java.util.Arrays.asList;
+
+/**
+ * An immutable list of {@link Alternate}s that is shared by many
+ * pages. All pages of a language cluster have the same alternates.
+ * Create a single {@code AlternateSet} for the cluster and provide it
+ * to the {@link WebCrawlerInfo} of each page by
+ * {@link WebCrawlerInfo#withAlternates(AlternateSet)}.
+ * <pre>
+ * AlternateSet helpPages = AlternateSet.of(
+ *   alternateLanguage("it", "http://dummy.domain.it/aiuto"),
+ *   alternateLanguage("fi", "http://dummy.domain.fi/ohje"));
+ * WebCrawlerInfo webCrawlerInfo = new WebCrawlerInfo()
+ *   .withCanonical("http://dummy.domain.it/aiuto")
+ *   .withAlternates(helpPages);
+ * </pre>
+ * The {@code WebCrawlerInfo}s only reference the shared
+ * {@code AlternateSet}, and the
+ * {@link com.github.stefanbirkner.contarini.render.WebCrawlerInfoRenderer}
+ * renders the link tags of an {@code AlternateSet} only once for each
+ * {@link com.github.stefanbirkner.contarini.render.Style}.
+ * <p>An {@code AlternateSet} is equal to every list with the same
+ * alternates in the same order.
+ * @since 1.3.0
+ */
+public final class AlternateSet extends AbstractList<Alternate> implements RandomAccess {
+    private final List<Alternate> alternates;
+    private final int hashCode;
+
+    private AlternateSet(List<Alternate> alternates) {
+        this.alternates = alternates;
+        this.hashCode = alternates.hashCode();
+    }
+
+    /**
+     * Creates an {@code AlternateSet}.
+     * @param alternates the alternates of the pages.
+     * @return an {@code AlternateSet} with the alternates.
+     */
+    public static AlternateSet of(Alternate... alternates) {
+        return of(asList(alternates));
+    }
+
+    /**
+     * Creates an {@code AlternateSet}. The list is copied.
+     * @param alternates the alternates of the pages.
+     * @return an {@code AlternateSet} with the alternates.
+     */
+    public static AlternateSet of(List<Alternate> alternates) {
+        if (alternates instanceof AlternateSet)
+            return (AlternateSet) alternates;
+        else
+            return new AlternateSet(ImmutableArrayList.copyOf(alternates));
+    }
+
+    @Override
+    public Alternate get(int index) {
+        return alternates.get(index);
+    }
+
+    @Override
+    public int size() {
+        return alternates.size();
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj instanceof AlternateSet && hashCode != ((AlternateSet) obj).hashCode)
+            return false;
+        return super.equals(obj);
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.stefanbirkner.contarini;
+
+/**
+ * A {@link WebCrawlerAdvice} that is neither a
+ * {@link CommonWebCrawlerAdvice} nor an {@link ImplicitWebCrawlerAdvice}
+ * (e.g. {@code max-snippet:20}). It is created by parsers for advices
+ * that they don't know. Two {@code CustomWebCrawlerAdvice}s are equal
+ * if they have the same label.
+ * @since 1.3.0
+ */
+public class CustomWebCrawlerAdvice implements WebCrawlerAdvice {
+    private final String label;
+
+    /**
+     * Creates a {@code CustomWebCrawlerAdvice}.
+     * @param label the label that is used by the robots meta tag.
+     */
+    public CustomWebCrawlerAdvice(String label) {
+        if (label == null)
+            throw new NullPointerException("The label is missing.");
+        this.label = label;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public int hashCode() {
+        return label.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        CustomWebCrawlerAdvice other = (CustomWebCrawlerAdvice) obj;
+        return label.equals(other.label);
+    }
+
+    @Override
+    public String toString() {
+        return "CustomWebCrawlerAdvice [label=" + label + "]";
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.stefanbirkner.contarini;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A compact, unmodifiable list that is backed by an array. It is used
+ * for the defensive copies of the lists of the value objects.
+ * @param <E> the type of the elements.
+ */
+final class ImmutableArrayList<E> extends AbstractList<E> implements RandomAccess {
+    private final Object[] elements;
+
+    private ImmutableArrayList(Object[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Creates an unmodifiable copy of a collection. Lists that have
+     * been created by this method are not copied again.
+     * @param collection the collection.
+     * @return an unmodifiable list with the elements of the collection.
+     */
+    @SuppressWarnings("unchecked")
+    static <E> List<E> copyOf(Collection<? extends E> collection) {
+        if (collection instanceof ImmutableArrayList)
+            return (List<E>) collection;
+        else
+            return new ImmutableArrayList<E>(collection.toArray());
+    }
+
+    /**
+     * Creates an unmodifiable copy of an array.
+     * @param array the array.
+     * @return an unmodifiable list with the elements of the array.
+     */
+    static <E> List<E> copyOf(E[] array) {
+        return new ImmutableArrayList<E>(array.clone());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) elements[index];
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+}
@@ -14,9 +14,10 @@ import java.util.List;
 public enum ImplicitWebCrawlerAdvice implements WebCrawlerAdvice {
     INDEX("index", NO_INDEX, NONE), FOLLOW("follow", NO_FOLLOW, NONE);
 
+    private static final ImplicitWebCrawlerAdvice[] VALUES = values();
     private final String label;
     //The implicit advice doesn't apply if on of the cancelling advices is present.
-    private WebCrawlerAdvice[] cancellingAdvices;
+    private final WebCrawlerAdvice[] cancellingAdvices;
 
     private ImplicitWebCrawlerAdvice(String label, WebCrawlerAdvice... cancellingAdvices) {
         this.label = label;
@@ -33,42 +34,30 @@ public enum ImplicitWebCrawlerAdvice implements WebCrawlerAdvice {
         return label;
     }
 
+    WebCrawlerAdvice[] getCancellingAdvices() {
+        return cancellingAdvices;
+    }
+
     /**
      * Adds the applicable {@code ImplicitWebCrawlerAdvice} to a list
      * of advices. An advice is only added if an advice with the same
      * label is already present. This means that this function is
      * idempotent.
+     * <p>The advices are resolved by the bit operations of
+     * {@link WebCrawlerAdviceSet}.
      *
      * @param advices a list of advices.
      * @return the original advices together with the applicable
      * {@code ImplicitWebCrawlerAdvice}s.
      */
     public static List<WebCrawlerAdvice> implicitAdvicesAnd(List<WebCrawlerAdvice> advices) {
-        List<WebCrawlerAdvice> advicesIncludingImplicit = new ArrayList<WebCrawlerAdvice>(advices);
-        for (ImplicitWebCrawlerAdvice advice : values())
-            if (canAddAdviceToAdvices(advice, advicesIncludingImplicit))
+        long bits = WebCrawlerAdviceSet.bitsOf(advices);
+        List<WebCrawlerAdvice> advicesIncludingImplicit
+            = new ArrayList<WebCrawlerAdvice>(advices.size() + VALUES.length);
+        advicesIncludingImplicit.addAll(advices);
+        for (ImplicitWebCrawlerAdvice advice : VALUES)
+            if (WebCrawlerAdviceSet.implicitAdviceApplies(advice, bits))
                 advicesIncludingImplicit.add(advice);
         return advicesIncludingImplicit;
     }
-
-    private static boolean canAddAdviceToAdvices(ImplicitWebCrawlerAdvice adviceToAdd,
-            List<WebCrawlerAdvice> advices) {
-        for (WebCrawlerAdvice advice : advices)
-            if (isCancellingAdviceForImplicitAdvice(advice, adviceToAdd)
-                    || hasSameLabel(advice, adviceToAdd))
-                return false;
-        return true;
-    }
-
-    private static boolean isCancellingAdviceForImplicitAdvice(WebCrawlerAdvice adviceToTest,
-            ImplicitWebCrawlerAdvice adviceToAdd) {
-        for (WebCrawlerAdvice cancellingAdvice : adviceToAdd.cancellingAdvices)
-            if (hasSameLabel(cancellingAdvice, adviceToTest))
-                return true;
-        return false;
-    }
-
-    private static boolean hasSameLabel(WebCrawlerAdvice firstAdvice, WebCrawlerAdvice secondAdvice) {
-        return firstAdvice.getLabel().equals(secondAdvice.getLabel());
-    }
 }
@@ -0,0 +1,52 @@
+package com.github.stefanbirkner.contarini;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A pool of canonical instances of a value class. The pool references
+ * its instances weakly, so that instances that are not used anymore
+ * can be garbage collected. The pool is split into stripes that are
+ * locked independently.
+ * @param <T> the type of the values.
+ */
+class InternPool<T> {
+    private static final int NUMBER_OF_STRIPES = 16;
+    private final Stripe<T>[] stripes;
+
+    InternPool() {
+        //an array of a generic class can only be created raw
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Stripe<T>[] stripes = (Stripe<T>[]) new Stripe[NUMBER_OF_STRIPES];
+        this.stripes = stripes;
+        for (int i = 0; i < NUMBER_OF_STRIPES; ++i)
+            stripes[i] = new Stripe<T>();
+    }
+
+    /**
+     * Returns the canonical instance that is equal to the value. The
+     * value itself becomes the canonical instance if there is none.
+     * @param value the value.
+     * @return the canonical instance.
+     */
+    T intern(T value) {
+        int h = value.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (NUMBER_OF_STRIPES - 1)].intern(value);
+    }
+
+    private static class Stripe<T> {
+        final Map<T, WeakReference<T>> instances = new WeakHashMap<T, WeakReference<T>>();
+
+        synchronized T intern(T value) {
+            WeakReference<T> reference = instances.get(value);
+            T canonical = reference == null ? null : reference.get();
+            if (canonical == null) {
+                instances.put(value, new WeakReference<T>(value));
+                canonical = value;
+            }
+            return canonical;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.github.stefanbirkner.contarini;
+
+/**
+ * The web crawler info of a single page that consists of a parent
+ * {@link WebCrawlerInfo} with site-wide or section-wide defaults and a
+ * small override {@code WebCrawlerInfo}. It is not a
+ * {@code WebCrawlerInfo} itself.
+ * <pre>
+ * WebCrawlerInfo siteDefaults = new WebCrawlerInfo()
+ *   .withAdvices(NO_ARCHIVE)
+ *   .withKeywords("dummy, domain")
+ *   .disableGoogleFeatures(TRANSLATION);
+ * LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(siteDefaults,
+ *   new WebCrawlerInfo()
+ *     .withCanonical("http://dummy.domain.com/help")
+ *     .withDescription("This is the help page of dummy domain."));
+ * </pre>
+ * <p>Each property of the override replaces the parent's property if it
+ * is set, i.e. if a text is not {@code null} or a list is not empty.
+ * Otherwise the parent's property is inherited. The lists are never
+ * merged. {@link #getEffectiveInfo()} returns the result. It is created
+ * on the first call only, because rendering does not need it.
+ * <p>The {@link com.github.stefanbirkner.contarini.render.WebCrawlerInfoRenderer}
+ * renders the tags of a parent only once and reuses them for each page
+ * that inherits them. Therefore the parent should be shared by the
+ * pages.
+ * <p>{@code LayeredWebCrawlerInfo} is a value object. Two
+ * {@code LayeredWebCrawlerInfo}s are equal if their parents and their
+ * overrides are equal.
+ * @since 1.3.0
+ */
+public final class LayeredWebCrawlerInfo {
+    private final WebCrawlerInfo parent;
+    private final WebCrawlerInfo override;
+    private volatile WebCrawlerInfo effectiveInfo;
+
+    /**
+     * Creates a {@code LayeredWebCrawlerInfo}.
+     * @param parent the defaults.
+     * @param override the properties that replace the defaults.
+     */
+    public LayeredWebCrawlerInfo(WebCrawlerInfo parent, WebCrawlerInfo override) {
+        if (parent == null)
+            throw new NullPointerException("The parent is missing.");
+        if (override == null)
+            throw new NullPointerException("The override is missing.");
+        this.parent = parent;
+        this.override = override;
+    }
+
+    /**
+     * Returns the defaults.
+     * @return the defaults.
+     */
+    public WebCrawlerInfo getParent() {
+        return parent;
+    }
+
+    /**
+     * Returns the properties that replace the defaults.
+     * @return the override.
+     */
+    public WebCrawlerInfo getOverride() {
+        return override;
+    }
+
+    /**
+     * Returns the combination of the parent and the override.
+     * @return a {@code WebCrawlerInfo} with the override's properties
+     * and the parent's properties that are not overridden.
+     */
+    public WebCrawlerInfo getEffectiveInfo() {
+        WebCrawlerInfo result = effectiveInfo;
+        if (result == null) {
+            result = WebCrawlerInfo.withImmutableLists(
+                override.getCanonical() != null ? override.getCanonical() : parent.getCanonical(),
+                !override.getAdvices().isEmpty() ? override.getAdvices() : parent.getAdvices(),
+                !override.getAlternates().isEmpty() ? override.getAlternates() : parent.getAlternates(),
+                override.getDescription() != null ? override.getDescription() : parent.getDescription(),
+                !override.getDisabledGoogleFeatures().isEmpty()
+                    ? override.getDisabledGoogleFeatures() : parent.getDisabledGoogleFeatures(),
+                override.getKeywords() != null ? override.getKeywords() : parent.getKeywords());
+            //racing threads create equal objects, hence no lock is needed
+            effectiveInfo = result;
+        }
+        return result;
+    }
+
+    /**
+     * Creates a {@code LayeredWebCrawlerInfo} with the same parent and a
+     * different override.
+     * @param override the properties that replace the defaults.
+     * @return the new {@code LayeredWebCrawlerInfo}.
+     */
+    public LayeredWebCrawlerInfo withOverride(WebCrawlerInfo override) {
+        return new LayeredWebCrawlerInfo(parent, override);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * parent.hashCode() + override.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        LayeredWebCrawlerInfo other = (LayeredWebCrawlerInfo) obj;
+        return parent.equals(other.parent) && override.equals(other.override);
+    }
+
+    @Override
+    public String toString() {
+        return "LayeredWebCrawlerInfo [parent=" + parent + ", override=" + override + "]";
+    }
+}
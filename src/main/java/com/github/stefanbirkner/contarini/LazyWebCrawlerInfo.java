@@ -0,0 +1,281 @@
+package com.github.stefanbirkner.contarini;
+
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Web crawler info whose canonical URL, alternates, description and
+ * keywords may be provided by {@link ValueSupplier}s. It has the
+ * getters of a {@link WebCrawlerInfo} but is not a
+ * {@code WebCrawlerInfo} itself. A supplier is
+ * not called before its value is needed by a getter or by the
+ * {@link com.github.stefanbirkner.contarini.render.WebCrawlerInfoRenderer}.
+ * Hence nothing is computed if the tags are not rendered at all (e.g.
+ * because the response is {@code 304 Not Modified}).
+ * <pre>
+ * LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(
+ *     new WebCrawlerInfo().withAdvices(NO_ARCHIVE))
+ *   .withDescription(new ValueSupplier&lt;String&gt;() {
+ *     public String get() {
+ *       return cms.loadDescription(pageId);
+ *     }
+ *   });
+ * </pre>
+ * <p>Each supplier is called at most once, even if the
+ * {@code LazyWebCrawlerInfo} is used by several threads concurrently.
+ * The supplier is released after it has been called. If a supplier
+ * throws an exception, then the value stays unevaluated and the
+ * supplier is called again the next time the value is needed.
+ * <p>A list of alternates that is supplied is copied like the lists of
+ * a {@code WebCrawlerInfo}. A supplied {@code null} list is treated as
+ * an empty list.
+ * <p>{@link #toWebCrawlerInfo()} is the bridge to the APIs that need a
+ * {@code WebCrawlerInfo}, e.g. the
+ * {@link com.github.stefanbirkner.contarini.render.CachingWebCrawlerInfoRenderer},
+ * the {@link com.github.stefanbirkner.contarini.render.XRobotsTagRenderer},
+ * the {@link com.github.stefanbirkner.contarini.render.LinkHeaderRenderer}
+ * and the {@link com.github.stefanbirkner.contarini.render.HeadInjectingWriter}.
+ * It calls all suppliers.
+ * <p>{@code LazyWebCrawlerInfo} is a value object. Two
+ * {@code LazyWebCrawlerInfo}s are equal if their evaluated
+ * {@code WebCrawlerInfo}s are equal, therefore {@link #equals(Object)}
+ * and {@link #hashCode()} call all suppliers that have not been called
+ * yet. {@link #toString()} doesn't call any supplier.
+ * @since 1.3.0
+ */
+public final class LazyWebCrawlerInfo {
+    private static final List<Alternate> NO_ALTERNATES = emptyList();
+    private final WebCrawlerInfo info;
+    //the lazy values or null if the value of info is used
+    private final LazyValue<String> canonical;
+    private final LazyValue<List<Alternate>> alternates;
+    private final LazyValue<String> description;
+    private final LazyValue<String> keywords;
+    private volatile WebCrawlerInfo evaluatedInfo;
+
+    /**
+     * Creates a {@code LazyWebCrawlerInfo} whose values are provided by
+     * a {@code WebCrawlerInfo}. Use the {@code with} methods for
+     * replacing them with lazy values.
+     * @param info the values that are not lazy.
+     */
+    public LazyWebCrawlerInfo(WebCrawlerInfo info) {
+        this(info, null, null, null, null);
+    }
+
+    private LazyWebCrawlerInfo(WebCrawlerInfo info, LazyValue<String> canonical,
+            LazyValue<List<Alternate>> alternates, LazyValue<String> description, LazyValue<String> keywords) {
+        if (info == null)
+            throw new NullPointerException("The WebCrawlerInfo is missing.");
+        this.info = info;
+        this.canonical = canonical;
+        this.alternates = alternates;
+        this.description = description;
+        this.keywords = keywords;
+    }
+
+    /**
+     * Creates a {@code LazyWebCrawlerInfo} with a lazy canonical URL.
+     * @param canonical the supplier of the canonical URL.
+     * @return the new {@code LazyWebCrawlerInfo}.
+     */
+    public LazyWebCrawlerInfo withCanonical(ValueSupplier<String> canonical) {
+        return new LazyWebCrawlerInfo(info, new LazyValue<String>(canonical), alternates, description, keywords);
+    }
+
+    /**
+     * Creates a {@code LazyWebCrawlerInfo} with lazy alternates.
+     * @param alternates the supplier of the alternates.
+     * @return the new {@code LazyWebCrawlerInfo}.
+     */
+    public LazyWebCrawlerInfo withAlternates(final ValueSupplier<? extends List<Alternate>> alternates) {
+        if (alternates == null)
+            throw new NullPointerException("The supplier is missing.");
+        ValueSupplier<List<Alternate>> copyingSupplier = new ValueSupplier<List<Alternate>>() {
+            @Override
+            public List<Alternate> get() {
+                List<Alternate> suppliedAlternates = alternates.get();
+                if (suppliedAlternates == null || suppliedAlternates.isEmpty())
+                    return NO_ALTERNATES;
+                else
+                    return new WebCrawlerInfo().withAlternates(suppliedAlternates).getAlternates();
+            }
+        };
+        return new LazyWebCrawlerInfo(info, canonical, new LazyValue<List<Alternate>>(copyingSupplier),
+            description, keywords);
+    }
+
+    /**
+     * Creates a {@code LazyWebCrawlerInfo} with a lazy description.
+     * @param description the supplier of the description.
+     * @return the new {@code LazyWebCrawlerInfo}.
+     */
+    public LazyWebCrawlerInfo withDescription(ValueSupplier<String> description) {
+        return new LazyWebCrawlerInfo(info, canonical, alternates, new LazyValue<String>(description), keywords);
+    }
+
+    /**
+     * Creates a {@code LazyWebCrawlerInfo} with lazy keywords.
+     * @param keywords the supplier of the keywords.
+     * @return the new {@code LazyWebCrawlerInfo}.
+     */
+    public LazyWebCrawlerInfo withKeywords(ValueSupplier<String> keywords) {
+        return new LazyWebCrawlerInfo(info, canonical, alternates, description, new LazyValue<String>(keywords));
+    }
+
+    /**
+     * Returns the canonical URL. Calls its supplier if necessary.
+     * @return the canonical URL or {@code null} if it is not set.
+     */
+    public String getCanonical() {
+        return canonical == null ? info.getCanonical() : canonical.get();
+    }
+
+    /**
+     * Returns the advices for the robots meta tag.
+     * @return the advices. Never returns {@code null}.
+     */
+    public List<WebCrawlerAdvice> getAdvices() {
+        return info.getAdvices();
+    }
+
+    /**
+     * Returns the alternates. Calls their supplier if necessary.
+     * @return an unmodifiable list of the alternates. Never returns
+     * {@code null}.
+     */
+    public List<Alternate> getAlternates() {
+        return alternates == null ? info.getAlternates() : alternates.get();
+    }
+
+    /**
+     * Returns the description. Calls its supplier if necessary.
+     * @return the description or {@code null} if it is not set.
+     */
+    public String getDescription() {
+        return description == null ? info.getDescription() : description.get();
+    }
+
+    /**
+     * Returns the Google features that are disabled.
+     * @return the disabled features. Never returns {@code null}.
+     */
+    public List<GoogleFeature> getDisabledGoogleFeatures() {
+        return info.getDisabledGoogleFeatures();
+    }
+
+    /**
+     * Returns the keywords. Calls their supplier if necessary.
+     * @return the keywords or {@code null} if they are not set.
+     */
+    public String getKeywords() {
+        return keywords == null ? info.getKeywords() : keywords.get();
+    }
+
+    /**
+     * Returns a {@code WebCrawlerInfo} with the evaluated values. Calls
+     * all suppliers that have not been called yet. The
+     * {@code WebCrawlerInfo} is created only once. Use it for the APIs
+     * that don't accept a {@code LazyWebCrawlerInfo}.
+     * @return the evaluated {@code WebCrawlerInfo}.
+     */
+    public WebCrawlerInfo toWebCrawlerInfo() {
+        WebCrawlerInfo result = evaluatedInfo;
+        if (result == null) {
+            if (canonical == null && alternates == null && description == null && keywords == null)
+                result = info;
+            else
+                result = WebCrawlerInfo.withImmutableLists(getCanonical(), getAdvices(), getAlternates(),
+                    getDescription(), getDisabledGoogleFeatures(), getKeywords());
+            //racing threads create equal objects, hence no lock is needed
+            evaluatedInfo = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code true} if all suppliers have been called.
+     * @return {@code true} if no value has to be computed anymore.
+     */
+    public boolean isEvaluated() {
+        return isEvaluated(canonical) && isEvaluated(alternates) && isEvaluated(description)
+            && isEvaluated(keywords);
+    }
+
+    private static boolean isEvaluated(LazyValue<?> value) {
+        return value == null || value.isEvaluated();
+    }
+
+    @Override
+    public int hashCode() {
+        return toWebCrawlerInfo().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        LazyWebCrawlerInfo other = (LazyWebCrawlerInfo) obj;
+        return toWebCrawlerInfo().equals(other.toWebCrawlerInfo());
+    }
+
+    @Override
+    public String toString() {
+        return "LazyWebCrawlerInfo [canonical=" + describe(canonical, info.getCanonical())
+            + ", advices=" + info.getAdvices()
+            + ", alternates=" + describe(alternates, info.getAlternates())
+            + ", description=" + describe(description, info.getDescription())
+            + ", disabledGoogleFeatures=" + info.getDisabledGoogleFeatures()
+            + ", keywords=" + describe(keywords, info.getKeywords()) + "]";
+    }
+
+    private static String describe(LazyValue<?> lazyValue, Object value) {
+        if (lazyValue == null)
+            return String.valueOf(value);
+        else
+            return lazyValue.isEvaluated() ? String.valueOf(lazyValue.get()) : "<not evaluated>";
+    }
+
+    /**
+     * A value that is computed by its supplier when it is needed for
+     * the first time. It uses double-checked locking, so that reading
+     * an evaluated value needs a single volatile read only.
+     */
+    private static class LazyValue<T> {
+        private static final Object NOT_EVALUATED = new Object();
+        //is set to null after it has been called
+        private ValueSupplier<? extends T> supplier;
+        private volatile Object value = NOT_EVALUATED;
+
+        LazyValue(ValueSupplier<? extends T> supplier) {
+            if (supplier == null)
+                throw new NullPointerException("The supplier is missing.");
+            this.supplier = supplier;
+        }
+
+        @SuppressWarnings("unchecked")
+        T get() {
+            Object result = value;
+            if (result == NOT_EVALUATED) {
+                synchronized (this) {
+                    result = value;
+                    if (result == NOT_EVALUATED) {
+                        result = supplier.get();
+                        value = result;
+                        supplier = null;
+                    }
+                }
+            }
+            return (T) result;
+        }
+
+        boolean isEvaluated() {
+            return value != NOT_EVALUATED;
+        }
+    }
+}
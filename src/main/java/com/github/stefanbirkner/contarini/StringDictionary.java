@@ -0,0 +1,71 @@
+package com.github.stefanbirkner.contarini;
+
+import java.util.Arrays;
+
+/**
+ * Assigns consecutive ids to strings. It is an open addressing hash
+ * table with linear probing whose slots store ids only, therefore each
+ * distinct string costs two array elements besides the string itself.
+ * <p>The {@code HreflangValidator} has a copy without
+ * {@link #trimToSize()} because it is in another package.
+ */
+class StringDictionary {
+    private static final int INITIAL_CAPACITY = 16;
+    //a slot contains id + 1 or 0 if it is empty
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+    private String[] strings = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Returns the id of a string. The string is added if it is not
+     * present.
+     */
+    int idOf(String string) {
+        int slot = slotOf(string);
+        if (slots[slot] != 0)
+            return slots[slot] - 1;
+        if (size == strings.length)
+            //the array is empty after trimToSize() if there are no strings
+            strings = Arrays.copyOf(strings, Math.max(INITIAL_CAPACITY, 2 * size));
+        strings[size] = string;
+        slots[slot] = ++size;
+        if (2 * size > slots.length)
+            resize();
+        return size - 1;
+    }
+
+    String stringOf(int id) {
+        return strings[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Releases the unused capacity. Strings can still be added
+     * afterwards.
+     */
+    void trimToSize() {
+        strings = Arrays.copyOf(strings, size);
+    }
+
+    private int slotOf(String string) {
+        int mask = slots.length - 1;
+        int slot = spread(string.hashCode()) & mask;
+        while (slots[slot] != 0 && !strings[slots[slot] - 1].equals(string))
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void resize() {
+        slots = new int[2 * slots.length];
+        for (int id = 0; id < size; ++id)
+            slots[slotOf(strings[id])] = id + 1;
+    }
+
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,403 @@
+package com.github.stefanbirkner.contarini;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Normalizes the canonical URL and the URLs of alternates, so that the
+ * same page is always referenced by the same URL.
+ * <pre>
+ * UrlNormalizer normalizer = new UrlNormalizer()
+ *   .withDeniedQueryParameters("sessionid", "utm_*")
+ *   .withTrailingSlashRemoval(true);
+ * WebCrawlerInfo info = normalizer.normalize(new WebCrawlerInfo()
+ *   .withCanonical("HTTP://Dummy.Domain.com:80/help/?utm_source=mail"));
+ * //canonical is http://dummy.domain.com/help
+ * </pre>
+ * <p>The normalizer always
+ * <ul>
+ *   <li>converts the scheme and the host to lower case,</li>
+ *   <li>removes the default port of {@code http} and {@code https},</li>
+ *   <li>replaces an empty path with {@code /},</li>
+ *   <li>removes empty query parameters and an empty query and</li>
+ *   <li>removes the fragment.</li>
+ * </ul>
+ * Optionally it removes query parameters whose names are denied and
+ * the trailing slash of paths other than {@code /}. Relative URLs are
+ * normalized without scheme and host. Other URLs (e.g. {@code mailto:})
+ * are not modified.
+ * <p>Each URL is scanned once and written to a reusable buffer. A new
+ * {@code String} is created only if the URL is modified. The results
+ * are stored in a bounded cache, therefore normalizing an URL that has
+ * been normalized recently needs a lookup only. The cache is
+ * direct-mapped: an URL replaces the URL with the same slot.
+ * <p>{@code UrlNormalizer} is thread-safe. Its {@code with} methods
+ * create a new normalizer with an empty cache.
+ * @since 1.3.0
+ */
+public final class UrlNormalizer {
+    private static final int DEFAULT_CACHE_SIZE = 1024;
+    private static final int MAX_CACHE_SIZE = 1 << 20;
+    private static final int MAX_DIGITS_OF_PORT = 5;
+    private static final String[] NO_NAMES = new String[0];
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+    private final String[] deniedNames;
+    private final String[] deniedPrefixes;
+    private final boolean trailingSlashRemoval;
+    private final int cacheSize;
+    //entries are immutable, therefore racy reads and writes are safe
+    private final CacheEntry[] cache;
+
+    /**
+     * Creates an {@code UrlNormalizer} that keeps all query parameters
+     * and trailing slashes.
+     */
+    public UrlNormalizer() {
+        this(NO_NAMES, NO_NAMES, false, DEFAULT_CACHE_SIZE);
+    }
+
+    private UrlNormalizer(String[] deniedNames, String[] deniedPrefixes, boolean trailingSlashRemoval,
+            int cacheSize) {
+        this.deniedNames = deniedNames;
+        this.deniedPrefixes = deniedPrefixes;
+        this.trailingSlashRemoval = trailingSlashRemoval;
+        this.cacheSize = cacheSize;
+        this.cache = cacheSize == 0 ? null : new CacheEntry[cacheSize];
+    }
+
+    /**
+     * Creates a normalizer that removes query parameters with the
+     * given names. A name that ends with {@code *} denies all names
+     * that start with the text before the {@code *} (e.g.
+     * {@code utm_*}). Names are case-sensitive.
+     * @param names the names of the query parameters.
+     * @return the new normalizer.
+     */
+    public UrlNormalizer withDeniedQueryParameters(String... names) {
+        List<String> deniedNames = new ArrayList<String>();
+        List<String> deniedPrefixes = new ArrayList<String>();
+        for (String name : names) {
+            if (name == null || name.length() == 0)
+                throw new IllegalArgumentException("The name of a query parameter must not be empty.");
+            if (name.endsWith("*"))
+                deniedPrefixes.add(name.substring(0, name.length() - 1));
+            else
+                deniedNames.add(name);
+        }
+        return new UrlNormalizer(deniedNames.toArray(NO_NAMES), deniedPrefixes.toArray(NO_NAMES),
+            trailingSlashRemoval, cacheSize);
+    }
+
+    /**
+     * Creates a normalizer that removes or keeps the trailing slash of
+     * paths other than {@code /}.
+     * @param remove {@code true} if trailing slashes are removed.
+     * @return the new normalizer.
+     */
+    public UrlNormalizer withTrailingSlashRemoval(boolean remove) {
+        return new UrlNormalizer(deniedNames, deniedPrefixes, remove, cacheSize);
+    }
+
+    /**
+     * Creates a normalizer with a cache of a different size.
+     * @param entries the maximum number of cached URLs. It is rounded
+     *                up to the next power of two. {@code 0} disables
+     *                the cache.
+     * @return the new normalizer.
+     */
+    public UrlNormalizer withCacheSize(int entries) {
+        if (entries < 0 || entries > MAX_CACHE_SIZE)
+            throw new IllegalArgumentException("The cache size must be between 0 and " + MAX_CACHE_SIZE + ".");
+        int size = entries <= 1 ? entries : Integer.highestOneBit(entries - 1) << 1;
+        return new UrlNormalizer(deniedNames, deniedPrefixes, trailingSlashRemoval, size);
+    }
+
+    /**
+     * Normalizes an URL.
+     * @param url the URL.
+     * @return the normalized URL. It is the same {@code String} if the
+     * URL is already normalized. Returns {@code null} if the URL is
+     * {@code null}.
+     */
+    public String normalize(String url) {
+        if (url == null)
+            return null;
+        if (cache == null)
+            return normalizeWithoutCache(url);
+        int slot = slotOf(url);
+        CacheEntry entry = cache[slot];
+        if (entry != null && entry.url.equals(url))
+            //an unmodified URL is returned as the same String
+            return entry.normalizedUrl == entry.url ? url : entry.normalizedUrl;
+        String normalizedUrl = normalizeWithoutCache(url);
+        cache[slot] = new CacheEntry(url, normalizedUrl);
+        return normalizedUrl;
+    }
+
+    /**
+     * Normalizes the URL of an {@link Alternate}.
+     * @param alternate the {@code Alternate}.
+     * @return an {@code Alternate} with normalized URL. It is the same
+     * {@code Alternate} if the URL is already normalized.
+     */
+    public Alternate normalize(Alternate alternate) {
+        String href = normalize(alternate.href);
+        return href == alternate.href ? alternate : new Alternate(href, alternate.language, alternate.media);
+    }
+
+    /**
+     * Normalizes the canonical URL and the URLs of the alternates of a
+     * {@link WebCrawlerInfo}.
+     * @param info the {@code WebCrawlerInfo}.
+     * @return a {@code WebCrawlerInfo} with normalized URLs. It is the
+     * same {@code WebCrawlerInfo} if all URLs are already normalized.
+     */
+    public WebCrawlerInfo normalize(WebCrawlerInfo info) {
+        String canonical = normalize(info.getCanonical());
+        List<Alternate> alternates = normalizeAlternates(info.getAlternates());
+        if (canonical == info.getCanonical() && alternates == info.getAlternates())
+            return info;
+        else
+            return WebCrawlerInfo.withImmutableLists(canonical, info.getAdvices(), alternates,
+                info.getDescription(), info.getDisabledGoogleFeatures(), info.getKeywords());
+    }
+
+    private List<Alternate> normalizeAlternates(List<Alternate> alternates) {
+        List<Alternate> normalizedAlternates = null;
+        for (int i = 0; i < alternates.size(); ++i) {
+            Alternate alternate = alternates.get(i);
+            Alternate normalizedAlternate = normalize(alternate);
+            if (normalizedAlternate != alternate && normalizedAlternates == null)
+                normalizedAlternates = new ArrayList<Alternate>(alternates.subList(0, i));
+            if (normalizedAlternates != null)
+                normalizedAlternates.add(normalizedAlternate);
+        }
+        return normalizedAlternates == null ? alternates : ImmutableArrayList.copyOf(normalizedAlternates);
+    }
+
+    /**
+     * Creates an {@link Alternate} for an alternate language or region
+     * with normalized URL.
+     * @param language the alternate page's language and optionally the region.
+     * @param href the URL of the alternate page.
+     * @return an {@code Alternate} object for the specified language.
+     * @see Alternate#alternateLanguage(String, String)
+     */
+    public Alternate alternateLanguage(String language, String href) {
+        return Alternate.alternateLanguage(language, normalize(href));
+    }
+
+    /**
+     * Creates an {@link Alternate} for an alternate media with
+     * normalized URL.
+     * @param media a CSS media query string that specifies the media features
+     *              describing when Google should use the alternative URL.
+     * @param href the URL of the alternate page.
+     * @return an {@code Alternate} object for the specified media query.
+     * @see Alternate#alternateMedia(String, String)
+     */
+    public Alternate alternateMedia(String media, String href) {
+        return Alternate.alternateMedia(media, normalize(href));
+    }
+
+    private int slotOf(String url) {
+        int h = url.hashCode();
+        h ^= h >>> 16;
+        return h & (cacheSize - 1);
+    }
+
+    private String normalizeWithoutCache(String url) {
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        int length = url.length();
+        int startOfPath;
+        int endOfScheme = endOfScheme(url);
+        if (endOfScheme > 0) {
+            appendLowerCase(url, 0, endOfScheme, sb);
+            sb.append("://");
+            startOfPath = appendAuthority(url, endOfScheme + 3, defaultPort(url, endOfScheme), sb);
+        } else if (url.startsWith("//")) {
+            sb.append("//");
+            startOfPath = appendAuthority(url, 2, -1, sb);
+        } else if (url.startsWith("/")) {
+            startOfPath = 0;
+        } else {
+            return url;
+        }
+        int endOfPath = indexOfQueryOrFragment(url, startOfPath);
+        appendPath(url, startOfPath, endOfPath, sb);
+        if (endOfPath < length && url.charAt(endOfPath) == '?') {
+            int endOfQuery = url.indexOf('#', endOfPath);
+            appendQuery(url, endOfPath + 1, endOfQuery < 0 ? length : endOfQuery, sb);
+        }
+        return contentEquals(sb, url) ? url : sb.toString();
+    }
+
+    /**
+     * Returns the index of the colon of {@code scheme://} or {@code -1}
+     * if the URL doesn't start with a scheme that is followed by an
+     * authority.
+     */
+    private static int endOfScheme(String url) {
+        int length = url.length();
+        if (length == 0 || !isAsciiLetter(url.charAt(0)))
+            return -1;
+        for (int i = 1; i < length; ++i) {
+            char c = url.charAt(i);
+            if (c == ':')
+                return url.startsWith("//", i + 1) ? i : -1;
+            else if (!isAsciiLetter(c) && !(c >= '0' && c <= '9') && c != '+' && c != '-' && c != '.')
+                return -1;
+        }
+        return -1;
+    }
+
+    private static int defaultPort(String url, int endOfScheme) {
+        if (endOfScheme == 4 && url.regionMatches(true, 0, "http", 0, 4))
+            return 80;
+        else if (endOfScheme == 5 && url.regionMatches(true, 0, "https", 0, 5))
+            return 443;
+        else
+            return -1;
+    }
+
+    /**
+     * Appends user info, host and port and returns the index of the
+     * first character after the authority.
+     */
+    private static int appendAuthority(String url, int start, int defaultPort, StringBuilder sb) {
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0)
+            ++end;
+        int startOfHost = url.lastIndexOf('@', end - 1) + 1;
+        if (startOfHost <= start)
+            startOfHost = start;
+        else
+            sb.append(url, start, startOfHost);
+        int endOfHost = endOfHost(url, startOfHost, end);
+        appendLowerCase(url, startOfHost, endOfHost, sb);
+        int startOfPort = endOfHost + 1;
+        if (startOfPort < end && !isPort(url, startOfPort, end, defaultPort))
+            sb.append(url, endOfHost, end);
+        return end;
+    }
+
+    private static int endOfHost(String url, int startOfHost, int endOfAuthority) {
+        int startOfSearch = startOfHost;
+        if (startOfHost < endOfAuthority && url.charAt(startOfHost) == '[') {
+            int endOfIpv6Address = url.indexOf(']', startOfHost);
+            if (endOfIpv6Address >= 0 && endOfIpv6Address < endOfAuthority)
+                startOfSearch = endOfIpv6Address;
+        }
+        int colon = url.indexOf(':', startOfSearch);
+        return colon < 0 || colon > endOfAuthority ? endOfAuthority : colon;
+    }
+
+    private static boolean isPort(String url, int start, int end, int port) {
+        if (port < 0 || end - start > MAX_DIGITS_OF_PORT)
+            return false;
+        int value = 0;
+        for (int i = start; i < end; ++i) {
+            char c = url.charAt(i);
+            if (c < '0' || c > '9')
+                return false;
+            value = 10 * value + (c - '0');
+        }
+        return value == port;
+    }
+
+    private static int indexOfQueryOrFragment(String url, int start) {
+        for (int i = start; i < url.length(); ++i) {
+            char c = url.charAt(i);
+            if (c == '?' || c == '#')
+                return i;
+        }
+        return url.length();
+    }
+
+    private void appendPath(String url, int start, int end, StringBuilder sb) {
+        if (start == end)
+            sb.append('/');
+        else if (trailingSlashRemoval && end - start > 1 && url.charAt(end - 1) == '/')
+            sb.append(url, start, end - 1);
+        else
+            sb.append(url, start, end);
+    }
+
+    private void appendQuery(String url, int start, int end, StringBuilder sb) {
+        int startOfQuery = sb.length();
+        sb.append('?');
+        int startOfParameter = start;
+        while (startOfParameter < end) {
+            int endOfParameter = url.indexOf('&', startOfParameter);
+            if (endOfParameter < 0 || endOfParameter > end)
+                endOfParameter = end;
+            if (endOfParameter > startOfParameter && !isDenied(url, startOfParameter, endOfParameter)) {
+                if (sb.length() > startOfQuery + 1)
+                    sb.append('&');
+                sb.append(url, startOfParameter, endOfParameter);
+            }
+            startOfParameter = endOfParameter + 1;
+        }
+        if (sb.length() == startOfQuery + 1)
+            sb.setLength(startOfQuery);
+    }
+
+    private boolean isDenied(String url, int startOfParameter, int endOfParameter) {
+        int endOfName = url.indexOf('=', startOfParameter);
+        if (endOfName < 0 || endOfName > endOfParameter)
+            endOfName = endOfParameter;
+        int lengthOfName = endOfName - startOfParameter;
+        for (String name : deniedNames)
+            if (name.length() == lengthOfName && url.regionMatches(startOfParameter, name, 0, lengthOfName))
+                return true;
+        for (String prefix : deniedPrefixes)
+            if (prefix.length() <= lengthOfName && url.regionMatches(startOfParameter, prefix, 0, prefix.length()))
+                return true;
+        return false;
+    }
+
+    private static void appendLowerCase(String url, int start, int end, StringBuilder sb) {
+        for (int i = start; i < end; ++i) {
+            char c = url.charAt(i);
+            sb.append(c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c);
+        }
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean contentEquals(StringBuilder sb, String s) {
+        int length = s.length();
+        if (sb.length() != length)
+            return false;
+        for (int i = 0; i < length; ++i)
+            if (sb.charAt(i) != s.charAt(i))
+                return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "UrlNormalizer [deniedNames=" + Arrays.toString(deniedNames)
+            + ", deniedPrefixes=" + Arrays.toString(deniedPrefixes)
+            + ", trailingSlashRemoval=" + trailingSlashRemoval + ", cacheSize=" + cacheSize + "]";
+    }
+
+    private static class CacheEntry {
+        final String url;
+        final String normalizedUrl;
+
+        CacheEntry(String url, String normalizedUrl) {
+            this.url = url;
+            this.normalizedUrl = normalizedUrl;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.stefanbirkner.contarini;
+
+/**
+ * Supplies a value that is expensive to compute, e.g. a description
+ * that is loaded from a content management system.
+ * @param <T> the type of the value.
+ * @see LazyWebCrawlerInfo
+ * @since 1.3.0
+ */
+public interface ValueSupplier<T> {
+    /**
+     * Computes the value.
+     * @return the value.
+     */
+    T get();
+}
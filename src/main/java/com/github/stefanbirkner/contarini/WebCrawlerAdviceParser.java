@@ -0,0 +1,233 @@
+package com.github.stefanbirkner.contarini;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * Parses the advices of a robots meta tag or an {@code X-Robots-Tag}
+ * header (e.g. {@code "noindex, nofollow"}). It is the inverse of
+ * {@link WebCrawlerAdvice#getLabel()}.
+ * <p>The advices are separated by commas. Whitespace around an advice
+ * and empty advices are ignored. The labels of the
+ * {@link CommonWebCrawlerAdvice}s and {@link ImplicitWebCrawlerAdvice}s
+ * are matched case-insensitively. The text is read directly. Substrings
+ * are only created for unknown advices, which become
+ * {@link CustomWebCrawlerAdvice}s.
+ * <p>The user agent prefix of an {@code X-Robots-Tag} header (e.g.
+ * {@code "googlebot: noindex"}) is skipped. A leading {@code token:} is
+ * a user agent prefix unless the token is the name of an advice with a
+ * value ({@code max-snippet}, {@code max-image-preview},
+ * {@code max-video-preview} or {@code unavailable_after}). Therefore
+ * the parser reads the headers of
+ * {@link com.github.stefanbirkner.contarini.render.XRobotsTagRenderer}
+ * with a user agent, too.
+ * @since 1.3.0
+ */
+public final class WebCrawlerAdviceParser {
+    private static final List<WebCrawlerAdvice> NO_ADVICES = emptyList();
+    /**
+     * The labels of the built-in advices as lower case char arrays. A
+     * label's position in the array is the index of its advice.
+     */
+    private static final char[][] LABELS = new char[WebCrawlerAdviceSet.NUMBER_OF_BUILT_IN_ADVICES][];
+    /**
+     * The indices of the built-in advices by the length of their labels.
+     * There are at most two labels with the same length, therefore
+     * looking up a token needs at most two comparisons.
+     */
+    private static final int[][] INDICES_BY_LENGTH;
+    /**
+     * The lower case names of the advices with a value. A leading
+     * {@code name:} with one of these names is not a user agent prefix.
+     */
+    private static final char[][] NAMES_OF_ADVICES_WITH_VALUE = {
+        "max-snippet".toCharArray(), "max-image-preview".toCharArray(),
+        "max-video-preview".toCharArray(), "unavailable_after".toCharArray()};
+
+    static {
+        int maxLength = 0;
+        for (int i = 0; i < LABELS.length; ++i) {
+            LABELS[i] = WebCrawlerAdviceSet.builtInAdvice(i).getLabel().toCharArray();
+            maxLength = Math.max(maxLength, LABELS[i].length);
+        }
+        INDICES_BY_LENGTH = new int[maxLength + 1][];
+        for (int length = 0; length <= maxLength; ++length) {
+            int count = 0;
+            for (char[] label : LABELS)
+                if (label.length == length)
+                    ++count;
+            INDICES_BY_LENGTH[length] = new int[count];
+            for (int i = 0, j = 0; i < LABELS.length; ++i)
+                if (LABELS[i].length == length)
+                    INDICES_BY_LENGTH[length][j++] = i;
+        }
+    }
+
+    private WebCrawlerAdviceParser() {
+    }
+
+    /**
+     * Returns the index of the built-in advice with the given label.
+     * @param text the text that contains the label.
+     * @param start the index of the label's first char.
+     * @param end the index after the label's last char.
+     * @return the index of the built-in advice (see
+     * {@link WebCrawlerAdviceSet#indexOf(WebCrawlerAdvice)}) or {@code -1}
+     * if there is no built-in advice with this label.
+     * @throws IllegalArgumentException if {@code start > end}.
+     */
+    public static int indexOfLabel(CharSequence text, int start, int end) {
+        int length = end - start;
+        if (length < 0)
+            throw new IllegalArgumentException(
+                "The start " + start + " of the label is after its end " + end + ".");
+        if (length >= INDICES_BY_LENGTH.length)
+            return -1;
+        for (int index : INDICES_BY_LENGTH[length])
+            if (equalsIgnoreCase(text, start, LABELS[index]))
+                return index;
+        return -1;
+    }
+
+    /**
+     * Parses a comma-separated list of advices.
+     * @param text the advices.
+     * @return the set of the advices.
+     */
+    public static WebCrawlerAdviceSet parseAdviceSet(CharSequence text) {
+        return parseAdviceSet(text, 0, text.length());
+    }
+
+    /**
+     * Parses a comma-separated list of advices that is part of a text.
+     * @param text the text that contains the advices.
+     * @param start the index of the list's first char.
+     * @param end the index after the list's last char.
+     * @return the set of the advices.
+     */
+    public static WebCrawlerAdviceSet parseAdviceSet(CharSequence text, int start, int end) {
+        long bits = 0L;
+        List<WebCrawlerAdvice> customAdvices = NO_ADVICES;
+        int tokenStart = skipUserAgentPrefix(text, start, end);
+        while (tokenStart <= end) {
+            int tokenEnd = endOfToken(text, tokenStart, end);
+            int labelStart = skipWhitespace(text, tokenStart, tokenEnd);
+            int labelEnd = trimWhitespace(text, labelStart, tokenEnd);
+            if (labelStart < labelEnd) {
+                int index = indexOfLabel(text, labelStart, labelEnd);
+                if (index >= 0) {
+                    bits |= 1L << index;
+                } else {
+                    WebCrawlerAdvice advice = customAdvice(text, labelStart, labelEnd);
+                    if (customAdvices == NO_ADVICES)
+                        customAdvices = new ArrayList<WebCrawlerAdvice>();
+                    if (!customAdvices.contains(advice))
+                        customAdvices.add(advice);
+                }
+            }
+            tokenStart = tokenEnd + 1;
+        }
+        return WebCrawlerAdviceSet.of(bits, customAdvices);
+    }
+
+    /**
+     * Parses a comma-separated list of advices.
+     * @param text the advices.
+     * @return the advices in the order of the text.
+     */
+    public static List<WebCrawlerAdvice> parseAdvices(CharSequence text) {
+        return parseAdvices(text, 0, text.length());
+    }
+
+    /**
+     * Parses a comma-separated list of advices that is part of a text.
+     * @param text the text that contains the advices.
+     * @param start the index of the list's first char.
+     * @param end the index after the list's last char.
+     * @return the advices in the order of the text.
+     */
+    public static List<WebCrawlerAdvice> parseAdvices(CharSequence text, int start, int end) {
+        List<WebCrawlerAdvice> advices = new ArrayList<WebCrawlerAdvice>();
+        int tokenStart = skipUserAgentPrefix(text, start, end);
+        while (tokenStart <= end) {
+            int tokenEnd = endOfToken(text, tokenStart, end);
+            int labelStart = skipWhitespace(text, tokenStart, tokenEnd);
+            int labelEnd = trimWhitespace(text, labelStart, tokenEnd);
+            if (labelStart < labelEnd) {
+                int index = indexOfLabel(text, labelStart, labelEnd);
+                advices.add(index >= 0
+                    ? WebCrawlerAdviceSet.builtInAdvice(index)
+                    : customAdvice(text, labelStart, labelEnd));
+            }
+            tokenStart = tokenEnd + 1;
+        }
+        return advices;
+    }
+
+    private static WebCrawlerAdvice customAdvice(CharSequence text, int start, int end) {
+        return new CustomWebCrawlerAdvice(text.subSequence(start, end).toString());
+    }
+
+    /**
+     * Returns the index after the user agent prefix or {@code start} if
+     * the text has no user agent prefix.
+     */
+    private static int skipUserAgentPrefix(CharSequence text, int start, int end) {
+        int nameStart = skipWhitespace(text, start, end);
+        int p = nameStart;
+        while (p < end && text.charAt(p) != ':') {
+            char c = text.charAt(p);
+            if (c == ',' || isWhitespace(c))
+                return start;
+            ++p;
+        }
+        if (p == end || p == nameStart || isNameOfAdviceWithValue(text, nameStart, p))
+            return start;
+        return p + 1;
+    }
+
+    private static boolean isNameOfAdviceWithValue(CharSequence text, int start, int end) {
+        for (char[] name : NAMES_OF_ADVICES_WITH_VALUE)
+            if (name.length == end - start && equalsIgnoreCase(text, start, name))
+                return true;
+        return false;
+    }
+
+    private static int endOfToken(CharSequence text, int start, int end) {
+        int p = start;
+        while (p < end && text.charAt(p) != ',')
+            ++p;
+        return p;
+    }
+
+    private static int skipWhitespace(CharSequence text, int start, int end) {
+        int p = start;
+        while (p < end && isWhitespace(text.charAt(p)))
+            ++p;
+        return p;
+    }
+
+    private static int trimWhitespace(CharSequence text, int start, int end) {
+        int p = end;
+        while (p > start && isWhitespace(text.charAt(p - 1)))
+            --p;
+        return p;
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence text, int start, char[] lowerCaseLabel) {
+        for (int i = 0; i < lowerCaseLabel.length; ++i) {
+            char c = text.charAt(start + i);
+            if (c >= 'A' && c <= 'Z')
+                c += 'a' - 'A';
+            if (c != lowerCaseLabel[i])
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+}
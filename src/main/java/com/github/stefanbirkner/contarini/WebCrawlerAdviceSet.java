@@ -0,0 +1,377 @@
+package com.github.stefanbirkner.contarini;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * A compact set of {@link WebCrawlerAdvice}s. The advices of
+ * {@link CommonWebCrawlerAdvice} and {@link ImplicitWebCrawlerAdvice}
+ * are stored as bits of a single {@code long}, therefore resolving
+ * implicit advices, testing for cancelling advices and detecting
+ * duplicates need a few bit operations only. Other implementations of
+ * {@code WebCrawlerAdvice} are stored in a list.
+ * <p>Like {@link ImplicitWebCrawlerAdvice#implicitAdvicesAnd(List)}
+ * the set identifies advices by their labels. A custom advice with the
+ * label of a built-in advice is treated like the built-in advice.
+ * <p>{@code WebCrawlerAdviceSet} is a value object. Its methods never
+ * modify the set but return a new set.
+ * @since 1.3.0
+ */
+public final class WebCrawlerAdviceSet implements Iterable<WebCrawlerAdvice> {
+    /**
+     * The number of built-in advices. Their indices are
+     * {@code 0 <= index < NUMBER_OF_BUILT_IN_ADVICES}.
+     */
+    public static final int NUMBER_OF_BUILT_IN_ADVICES;
+    /**
+     * The maximum number of advices that can be represented by a
+     * sequence key.
+     * @see #sequenceKeyOf(List)
+     */
+    public static final int MAX_LENGTH_OF_SEQUENCE = 15;
+    private static final int BITS_PER_ADVICE_OF_SEQUENCE = 4;
+    private static final long MASK_OF_ADVICE_OF_SEQUENCE = (1L << BITS_PER_ADVICE_OF_SEQUENCE) - 1;
+    private static final int FIRST_INDEX_OF_IMPLICIT_ADVICES = CommonWebCrawlerAdvice.values().length;
+    private static final ImplicitWebCrawlerAdvice[] IMPLICIT_ADVICES = ImplicitWebCrawlerAdvice.values();
+    private static final WebCrawlerAdvice[] BUILT_IN_ADVICES;
+    private static final Map<String, Integer> INDEX_BY_LABEL = new HashMap<String, Integer>();
+    private static final long[] EXCLUDING_BITS_OF_IMPLICIT_ADVICES;
+    private static final List<WebCrawlerAdvice> NO_CUSTOM_ADVICES = emptyList();
+
+    static {
+        NUMBER_OF_BUILT_IN_ADVICES = FIRST_INDEX_OF_IMPLICIT_ADVICES + IMPLICIT_ADVICES.length;
+        BUILT_IN_ADVICES = new WebCrawlerAdvice[NUMBER_OF_BUILT_IN_ADVICES];
+        System.arraycopy(CommonWebCrawlerAdvice.values(), 0, BUILT_IN_ADVICES, 0, FIRST_INDEX_OF_IMPLICIT_ADVICES);
+        System.arraycopy(IMPLICIT_ADVICES, 0, BUILT_IN_ADVICES, FIRST_INDEX_OF_IMPLICIT_ADVICES,
+            IMPLICIT_ADVICES.length);
+        for (int i = 0; i < NUMBER_OF_BUILT_IN_ADVICES; ++i)
+            INDEX_BY_LABEL.put(BUILT_IN_ADVICES[i].getLabel(), i);
+        EXCLUDING_BITS_OF_IMPLICIT_ADVICES = new long[IMPLICIT_ADVICES.length];
+        for (ImplicitWebCrawlerAdvice advice : IMPLICIT_ADVICES) {
+            long bits = bitOf(advice);
+            for (WebCrawlerAdvice cancellingAdvice : advice.getCancellingAdvices())
+                bits |= bitOf(cancellingAdvice);
+            EXCLUDING_BITS_OF_IMPLICIT_ADVICES[advice.ordinal()] = bits;
+        }
+    }
+
+    /**
+     * A set without any advice.
+     */
+    public static final WebCrawlerAdviceSet EMPTY = new WebCrawlerAdviceSet(0L, NO_CUSTOM_ADVICES);
+
+    private final long bits;
+    private final List<WebCrawlerAdvice> customAdvices;
+
+    private WebCrawlerAdviceSet(long bits, List<WebCrawlerAdvice> customAdvices) {
+        this.bits = bits;
+        this.customAdvices = customAdvices;
+    }
+
+    /**
+     * Creates a set of advices.
+     * @param advices the advices. Duplicates are ignored.
+     * @return a set of the advices.
+     */
+    public static WebCrawlerAdviceSet of(WebCrawlerAdvice... advices) {
+        WebCrawlerAdviceSet set = EMPTY;
+        for (WebCrawlerAdvice advice : advices)
+            set = set.with(advice);
+        return set;
+    }
+
+    /**
+     * Creates a set of advices.
+     * @param advices the advices. Duplicates are ignored.
+     * @return a set of the advices.
+     */
+    public static WebCrawlerAdviceSet of(List<WebCrawlerAdvice> advices) {
+        long bits = 0L;
+        List<WebCrawlerAdvice> customAdvices = NO_CUSTOM_ADVICES;
+        for (WebCrawlerAdvice advice : advices) {
+            long bit = bitOf(advice);
+            if (bit != 0L)
+                bits |= bit;
+            else if (!containsAdviceWithLabel(customAdvices, advice.getLabel())) {
+                if (customAdvices == NO_CUSTOM_ADVICES)
+                    customAdvices = new ArrayList<WebCrawlerAdvice>();
+                customAdvices.add(advice);
+            }
+        }
+        return new WebCrawlerAdviceSet(bits, unmodifiableListOrEmpty(customAdvices));
+    }
+
+    /**
+     * Creates a set from bits and custom advices that have already been
+     * checked for duplicates.
+     */
+    static WebCrawlerAdviceSet of(long bits, List<WebCrawlerAdvice> customAdvices) {
+        if (customAdvices.isEmpty())
+            return bits == 0L ? EMPTY : new WebCrawlerAdviceSet(bits, NO_CUSTOM_ADVICES);
+        else
+            return new WebCrawlerAdviceSet(bits, unmodifiableList(customAdvices));
+    }
+
+    /**
+     * Returns the index of a built-in advice. The indices of the
+     * {@link CommonWebCrawlerAdvice}s are followed by the indices of
+     * the {@link ImplicitWebCrawlerAdvice}s.
+     * @param advice the advice.
+     * @return the index of the built-in advice with the same label or
+     * {@code -1} if the advice is a custom advice.
+     */
+    public static int indexOf(WebCrawlerAdvice advice) {
+        if (advice instanceof CommonWebCrawlerAdvice)
+            return ((CommonWebCrawlerAdvice) advice).ordinal();
+        else if (advice instanceof ImplicitWebCrawlerAdvice)
+            return FIRST_INDEX_OF_IMPLICIT_ADVICES + ((ImplicitWebCrawlerAdvice) advice).ordinal();
+        Integer index = INDEX_BY_LABEL.get(advice.getLabel());
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the built-in advice for an index.
+     * @param index the index of the advice.
+     * @return the built-in advice.
+     * @throws ArrayIndexOutOfBoundsException if there is no built-in
+     * advice with this index.
+     * @see #indexOf(WebCrawlerAdvice)
+     */
+    public static WebCrawlerAdvice builtInAdvice(int index) {
+        return BUILT_IN_ADVICES[index];
+    }
+
+    /**
+     * Returns the bits of the built-in advices that are present in a
+     * list. Custom advices are ignored unless they have the label of
+     * a built-in advice.
+     * @param advices the advices.
+     * @return the bits of the built-in advices.
+     */
+    public static long bitsOf(List<WebCrawlerAdvice> advices) {
+        long bits = 0L;
+        for (WebCrawlerAdvice advice : advices)
+            bits |= bitOf(advice);
+        return bits;
+    }
+
+    /**
+     * Returns a key for a list of built-in advices that preserves the
+     * order of the advices. Each advice is stored in four bits, hence
+     * a key represents up to {@value #MAX_LENGTH_OF_SEQUENCE} advices.
+     * The key of an empty list is {@code 0}.
+     * @param advices the advices.
+     * @return the key or {@code -1} if the list is too long or
+     * contains a custom advice.
+     * @see #advicesOfSequenceKey(long)
+     */
+    public static long sequenceKeyOf(List<WebCrawlerAdvice> advices) {
+        int length = advices.size();
+        if (length > MAX_LENGTH_OF_SEQUENCE)
+            return -1L;
+        long key = 0L;
+        for (int i = 0; i < length; ++i) {
+            int index = indexOf(advices.get(i));
+            if (index < 0)
+                return -1L;
+            key |= (long) (index + 1) << (BITS_PER_ADVICE_OF_SEQUENCE * i);
+        }
+        return key;
+    }
+
+    /**
+     * Returns the list of advices that is represented by a key.
+     * @param sequenceKey the key.
+     * @return the list of advices.
+     * @see #sequenceKeyOf(List)
+     */
+    public static List<WebCrawlerAdvice> advicesOfSequenceKey(long sequenceKey) {
+        List<WebCrawlerAdvice> advices = new ArrayList<WebCrawlerAdvice>();
+        for (long key = sequenceKey; key != 0L; key >>>= BITS_PER_ADVICE_OF_SEQUENCE)
+            advices.add(BUILT_IN_ADVICES[(int) (key & MASK_OF_ADVICE_OF_SEQUENCE) - 1]);
+        return advices;
+    }
+
+    private static long bitOf(WebCrawlerAdvice advice) {
+        int index = indexOf(advice);
+        return index < 0 ? 0L : 1L << index;
+    }
+
+    /**
+     * Tests whether an implicit advice applies to advices. It doesn't
+     * apply if the advice itself or one of its cancelling advices is
+     * present.
+     * @param advice the implicit advice.
+     * @param bits the bits of the present advices.
+     * @return {@code true} if the implicit advice applies.
+     */
+    static boolean implicitAdviceApplies(ImplicitWebCrawlerAdvice advice, long bits) {
+        return (bits & EXCLUDING_BITS_OF_IMPLICIT_ADVICES[advice.ordinal()]) == 0L;
+    }
+
+    /**
+     * Returns the bits of the built-in advices of this set. Bit
+     * {@code i} is set if the advice with index {@code i} is present.
+     * @return the bits of the built-in advices.
+     * @see #indexOf(WebCrawlerAdvice)
+     */
+    public long getBits() {
+        return bits;
+    }
+
+    /**
+     * Returns the advices of this set that are not built-in advices.
+     * @return the custom advices. Never returns {@code null}.
+     */
+    public List<WebCrawlerAdvice> getCustomAdvices() {
+        return customAdvices;
+    }
+
+    /**
+     * Tests whether this set contains an advice with the same label.
+     * @param advice the advice.
+     * @return {@code true} if this set contains the advice.
+     */
+    public boolean contains(WebCrawlerAdvice advice) {
+        long bit = bitOf(advice);
+        return bit != 0L ? (bits & bit) != 0L : containsAdviceWithLabel(customAdvices, advice.getLabel());
+    }
+
+    /**
+     * Returns {@code true} if this set doesn't contain any advice.
+     */
+    public boolean isEmpty() {
+        return bits == 0L && customAdvices.isEmpty();
+    }
+
+    /**
+     * Returns the number of advices in this set.
+     */
+    public int size() {
+        return Long.bitCount(bits) + customAdvices.size();
+    }
+
+    /**
+     * Creates a set with an additional advice.
+     * @param advice the additional advice.
+     * @return a set with the additional advice or this set if it
+     * already contains the advice.
+     */
+    public WebCrawlerAdviceSet with(WebCrawlerAdvice advice) {
+        if (contains(advice))
+            return this;
+        long bit = bitOf(advice);
+        if (bit != 0L)
+            return new WebCrawlerAdviceSet(bits | bit, customAdvices);
+        List<WebCrawlerAdvice> advices = new ArrayList<WebCrawlerAdvice>(customAdvices);
+        advices.add(advice);
+        return new WebCrawlerAdviceSet(bits, unmodifiableList(advices));
+    }
+
+    /**
+     * Creates a set with the applicable
+     * {@link ImplicitWebCrawlerAdvice}s. An implicit advice is
+     * applicable if none of its cancelling advices is present (e.g.
+     * {@link CommonWebCrawlerAdvice#NONE} cancels both
+     * {@link ImplicitWebCrawlerAdvice#INDEX} and
+     * {@link ImplicitWebCrawlerAdvice#FOLLOW}).
+     * @return a set with the applicable implicit advices.
+     */
+    public WebCrawlerAdviceSet withImplicitAdvices() {
+        long bitsIncludingImplicit = bits;
+        for (ImplicitWebCrawlerAdvice advice : IMPLICIT_ADVICES)
+            if (implicitAdviceApplies(advice, bits))
+                bitsIncludingImplicit |= bitOf(advice);
+        return bitsIncludingImplicit == bits ? this : new WebCrawlerAdviceSet(bitsIncludingImplicit, customAdvices);
+    }
+
+    /**
+     * Returns the advices of this set. The built-in advices are
+     * ordered by their indices and followed by the custom advices.
+     * @return a list of the advices.
+     */
+    public List<WebCrawlerAdvice> toList() {
+        List<WebCrawlerAdvice> advices = new ArrayList<WebCrawlerAdvice>(size());
+        for (WebCrawlerAdvice advice : this)
+            advices.add(advice);
+        return advices;
+    }
+
+    @Override
+    public Iterator<WebCrawlerAdvice> iterator() {
+        return new Iterator<WebCrawlerAdvice>() {
+            long remainingBits = bits;
+            final Iterator<WebCrawlerAdvice> customAdviceIterator = customAdvices.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return remainingBits != 0L || customAdviceIterator.hasNext();
+            }
+
+            @Override
+            public WebCrawlerAdvice next() {
+                if (remainingBits == 0L)
+                    return customAdviceIterator.next();
+                int index = Long.numberOfTrailingZeros(remainingBits);
+                remainingBits &= remainingBits - 1;
+                return BUILT_IN_ADVICES[index];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("WebCrawlerAdviceSet is immutable.");
+            }
+        };
+    }
+
+    private static boolean containsAdviceWithLabel(List<WebCrawlerAdvice> advices, String label) {
+        for (WebCrawlerAdvice advice : advices)
+            if (advice.getLabel().equals(label))
+                return true;
+        return false;
+    }
+
+    private static List<WebCrawlerAdvice> unmodifiableListOrEmpty(List<WebCrawlerAdvice> advices) {
+        return advices == NO_CUSTOM_ADVICES ? NO_CUSTOM_ADVICES : unmodifiableList(advices);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (int) (bits ^ (bits >>> 32)) + labelsHashCode();
+    }
+
+    private int labelsHashCode() {
+        int hashCode = 0;
+        for (WebCrawlerAdvice advice : customAdvices)
+            hashCode += advice.getLabel().hashCode();
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        WebCrawlerAdviceSet other = (WebCrawlerAdviceSet) obj;
+        if (bits != other.bits || customAdvices.size() != other.customAdvices.size())
+            return false;
+        for (WebCrawlerAdvice advice : customAdvices)
+            if (!containsAdviceWithLabel(other.customAdvices, advice.getLabel()))
+                return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "WebCrawlerAdviceSet " + toList();
+    }
+}
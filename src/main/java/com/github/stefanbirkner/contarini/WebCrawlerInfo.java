@@ -1,10 +1,10 @@
 package com.github.stefanbirkner.contarini;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.unmodifiableList;
 
 /**
  * Presentation model for web crawler tags. A {@code WebCrawlerInfo} is
@@ -24,17 +24,25 @@ import static java.util.Collections.unmodifiableList;
  * You don't have to set properties that you don't want to use. The tags
  * for the {@code WebCrawlerInfo} object are rendered by a
  * {@link com.github.stefanbirkner.contarini.render.WebCrawlerInfoRenderer}.
+ * <p>Every {@code with} method creates a new {@code WebCrawlerInfo}. A
+ * {@link WebCrawlerInfo.Builder} collects the properties first and
+ * creates a single {@code WebCrawlerInfo} at the end.
+ * <p>The lists that are provided to a {@code WebCrawlerInfo} are copied,
+ * so that later modifications of these lists don't affect the
+ * {@code WebCrawlerInfo}.
  */
 public class WebCrawlerInfo {
     private static final List<WebCrawlerAdvice> NO_ADVICES = emptyList();
     private static final List<Alternate> NO_ALTERNATES = emptyList();
     private static final List<GoogleFeature> NO_GOOGLE_FEATURES = emptyList();
+    private static final InternPool<WebCrawlerInfo> POOL = new InternPool<WebCrawlerInfo>();
     private final String canonical;
     private final List<WebCrawlerAdvice> advices;
     private final List<Alternate> alternates;
     private final String description;
     private final List<GoogleFeature> disabledGoogleFeatures;
     private final String keywords;
+    private final int hashCode;
 
     private WebCrawlerInfo(String canonical, List<WebCrawlerAdvice> advices, List<Alternate> alternates,
                            String description, List<GoogleFeature> disabledGoogleFeatures, String keywords) {
@@ -44,6 +52,17 @@ public class WebCrawlerInfo {
         this.description = description;
         this.disabledGoogleFeatures = disabledGoogleFeatures;
         this.keywords = keywords;
+        this.hashCode = calculateHashCode();
+    }
+
+    /**
+     * Creates a {@code WebCrawlerInfo} from lists that are already
+     * immutable. The lists are not copied.
+     */
+    static WebCrawlerInfo withImmutableLists(String canonical, List<WebCrawlerAdvice> advices,
+            List<Alternate> alternates, String description, List<GoogleFeature> disabledGoogleFeatures,
+            String keywords) {
+        return new WebCrawlerInfo(canonical, advices, alternates, description, disabledGoogleFeatures, keywords);
     }
 
     /**
@@ -60,6 +79,7 @@ public class WebCrawlerInfo {
         this.description = null;
         this.disabledGoogleFeatures = NO_GOOGLE_FEATURES;
         this.keywords = null;
+        this.hashCode = calculateHashCode();
     }
 
     /**
@@ -106,7 +126,8 @@ public class WebCrawlerInfo {
      * @see #withAdvices(List)
      */
     public WebCrawlerInfo withAdvices(WebCrawlerAdvice... advices) {
-        return withAdvices(asList(advices));
+        return new WebCrawlerInfo(canonical, ImmutableArrayList.copyOf(advices),
+            alternates, description, disabledGoogleFeatures, keywords);
     }
 
     /**
@@ -119,7 +140,7 @@ public class WebCrawlerInfo {
      * @see #withAdvices(WebCrawlerAdvice...)
      */
     public WebCrawlerInfo withAdvices(List<WebCrawlerAdvice> advices) {
-        return new WebCrawlerInfo(canonical, unmodifiableList(advices),
+        return new WebCrawlerInfo(canonical, ImmutableArrayList.copyOf(advices),
             alternates, description, disabledGoogleFeatures, keywords);
     }
 
@@ -147,7 +168,9 @@ public class WebCrawlerInfo {
      * @see #withAlternates(List)
      */
     public WebCrawlerInfo withAlternates(Alternate... alternates) {
-        return withAlternates(asList(alternates));
+        return new WebCrawlerInfo(canonical, advices,
+            ImmutableArrayList.copyOf(alternates), description, disabledGoogleFeatures,
+            keywords);
     }
 
     /**
@@ -161,11 +184,27 @@ public class WebCrawlerInfo {
      * @see #withAlternates(Alternate...)
      */
     public WebCrawlerInfo withAlternates(List<Alternate> alternates) {
+        if (alternates instanceof AlternateSet)
+            return withAlternates((AlternateSet) alternates);
         return new WebCrawlerInfo(canonical, advices,
-            unmodifiableList(alternates), description, disabledGoogleFeatures,
+            ImmutableArrayList.copyOf(alternates), description, disabledGoogleFeatures,
             keywords);
     }
 
+    /**
+     * Creates a new {@code WebCrawlerInfo} with alternates that are
+     * shared with other pages. The {@link AlternateSet} is not copied
+     * and {@link #getAlternates()} returns this {@code AlternateSet}.
+     * The other properties are taken from the current object.
+     * @param alternates the shared alternates.
+     * @return a new {@code WebCrawlerInfo} object.
+     * @see #getAlternates()
+     * @since 1.3.0
+     */
+    public WebCrawlerInfo withAlternates(AlternateSet alternates) {
+        return new WebCrawlerInfo(canonical, advices, alternates, description, disabledGoogleFeatures, keywords);
+    }
+
     /**
      * Returns the page description (aka the {@code content} attribute of
      * {@code <meta rel="description" content="This is the help page of dummy domain."/>}).
@@ -211,7 +250,8 @@ public class WebCrawlerInfo {
      * @see #disableGoogleFeatures(List)
      */
     public WebCrawlerInfo disableGoogleFeatures(GoogleFeature... features) {
-        return disableGoogleFeatures(asList(features));
+        return new WebCrawlerInfo(canonical, advices, alternates, description,
+            ImmutableArrayList.copyOf(features), keywords);
     }
 
     /**
@@ -225,7 +265,7 @@ public class WebCrawlerInfo {
      */
     public WebCrawlerInfo disableGoogleFeatures(List<GoogleFeature> features) {
         return new WebCrawlerInfo(canonical, advices, alternates, description,
-            unmodifiableList(features), keywords);
+            ImmutableArrayList.copyOf(features), keywords);
     }
 
     /**
@@ -249,8 +289,26 @@ public class WebCrawlerInfo {
         return new WebCrawlerInfo(canonical, advices, alternates, description, disabledGoogleFeatures, keywords);
     }
 
+    /**
+     * Returns a canonical instance that is equal to this
+     * {@code WebCrawlerInfo}. Equal {@code WebCrawlerInfo}s that are
+     * created independently (e.g. by different threads) are interned
+     * to the same instance. The pool of canonical instances doesn't
+     * prevent them from being garbage collected.
+     * @return a canonical instance that is equal to this
+     * {@code WebCrawlerInfo}.
+     * @since 1.3.0
+     */
+    public WebCrawlerInfo intern() {
+        return POOL.intern(this);
+    }
+
     @Override
     public int hashCode() {
+        return hashCode;
+    }
+
+    private int calculateHashCode() {
         final int prime = 31;
         int result = 1;
         result = prime * result + advices.hashCode();
@@ -271,6 +329,8 @@ public class WebCrawlerInfo {
         if (getClass() != obj.getClass())
             return false;
         WebCrawlerInfo other = (WebCrawlerInfo) obj;
+        if (hashCode != other.hashCode)
+            return false;
         if (canonical == null) {
             if (other.canonical != null)
                 return false;
@@ -297,4 +357,210 @@ public class WebCrawlerInfo {
                 + ", description=" + description + ", disabledGoogleFeatures=" + disabledGoogleFeatures
                 + ", keywords=" + keywords + "]";
     }
+
+    /**
+     * Collects the properties of a {@link WebCrawlerInfo} and creates
+     * a single {@code WebCrawlerInfo} by {@link #build()}. The lists
+     * are copied into compact unmodifiable lists when the
+     * {@code WebCrawlerInfo} is built, hence a {@code Builder} can be
+     * reused after calling {@link #clear()}.
+     * <pre>
+     * WebCrawlerInfo webCrawlerInfo = new WebCrawlerInfo.Builder()
+     *   .withCanonical("http://dummy.domain.com/help")
+     *   .withAdvices(NO_FOLLOW, NO_INDEX)
+     *   .addAlternate(alternateLanguage("it", "http://dummy.domain.it/aiuto"))
+     *   .withDescription("This is the help page of dummy domain.")
+     *   .build();
+     * </pre>
+     * A {@code Builder} is not thread-safe.
+     * @since 1.3.0
+     */
+    public static class Builder {
+        private String canonical;
+        private final List<WebCrawlerAdvice> advices = new ArrayList<WebCrawlerAdvice>();
+        private final List<Alternate> alternates = new ArrayList<Alternate>();
+        //the shared alternates if the alternates have not been modified since
+        private AlternateSet alternateSet;
+        private String description;
+        private final List<GoogleFeature> disabledGoogleFeatures = new ArrayList<GoogleFeature>();
+        private String keywords;
+
+        /**
+         * Creates a {@code Builder} without any properties.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Creates a {@code Builder} with the properties of an existing
+         * {@link WebCrawlerInfo}.
+         * @param info the {@code WebCrawlerInfo} whose properties are
+         *             used.
+         */
+        public Builder(WebCrawlerInfo info) {
+            canonical = info.canonical;
+            advices.addAll(info.advices);
+            alternates.addAll(info.alternates);
+            if (info.alternates instanceof AlternateSet)
+                alternateSet = (AlternateSet) info.alternates;
+            description = info.description;
+            disabledGoogleFeatures.addAll(info.disabledGoogleFeatures);
+            keywords = info.keywords;
+        }
+
+        /**
+         * Sets the canonical URL.
+         * @param canonical the canonical URL.
+         * @return this {@code Builder}.
+         * @see WebCrawlerInfo#withCanonical(String)
+         */
+        public Builder withCanonical(String canonical) {
+            this.canonical = canonical;
+            return this;
+        }
+
+        /**
+         * Replaces the advices for the robots meta tag.
+         * @param advices the advices.
+         * @return this {@code Builder}.
+         * @see WebCrawlerInfo#withAdvices(WebCrawlerAdvice...)
+         */
+        public Builder withAdvices(WebCrawlerAdvice... advices) {
+            return withAdvices(asList(advices));
+        }
+
+        /**
+         * Replaces the advices for the robots meta tag.
+         * @param advices the advices.
+         * @return this {@code Builder}.
+         * @see WebCrawlerInfo#withAdvices(List)
+         */
+        public Builder withAdvices(List<WebCrawlerAdvice> advices) {
+            this.advices.clear();
+            this.advices.addAll(advices);
+            return this;
+        }
+
+        /**
+         * Adds an advice for the robots meta tag.
+         * @param advice the advice.
+         * @return this {@code Builder}.
+         */
+        public Builder addAdvice(WebCrawlerAdvice advice) {
+            advices.add(advice);
+            return this;
+        }
+
+        /**
+         * Replaces the alternates.
+         * @param alternates the alternates.
+         * @return this {@code Builder}.
+         * @see WebCrawlerInfo#withAlternates(Alternate...)
+         */
+        public Builder withAlternates(Alternate... alternates) {
+            return withAlternates(asList(alternates));
+        }
+
+        /**
+         * Replaces the alternates. An {@link AlternateSet} is shared by
+         * the built {@code WebCrawlerInfo} unless further alternates are
+         * added.
+         * @param alternates the alternates.
+         * @return this {@code Builder}.
+         * @see WebCrawlerInfo#withAlternates(List)
+         */
+        public Builder withAlternates(List<Alternate> alternates) {
+            this.alternates.clear();
+            this.alternates.addAll(alternates);
+            alternateSet = alternates instanceof AlternateSet ? (AlternateSet) alternates : null;
+            return this;
+        }
+
+        /**
+         * Adds an alternate.
+         * @param alternate the alternate.
+         * @return this {@code Builder}.
+         */
+        public Builder addAlternate(Alternate alternate) {
+            alternates.add(alternate);
+            alternateSet = null;
+            return this;
+        }
+
+        /**
+         * Sets the page description.
+         * @param description the page description.
+         * @return this {@code Builder}.
+         * @see WebCrawlerInfo#withDescription(String)
+         */
+        public Builder withDescription(String description) {
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * Replaces the Google features that should be disabled.
+         * @param features the Google features that should be disabled.
+         * @return this {@code Builder}.
+         * @see WebCrawlerInfo#disableGoogleFeatures(GoogleFeature...)
+         */
+        public Builder disableGoogleFeatures(GoogleFeature... features) {
+            return disableGoogleFeatures(asList(features));
+        }
+
+        /**
+         * Replaces the Google features that should be disabled.
+         * @param features the Google features that should be disabled.
+         * @return this {@code Builder}.
+         * @see WebCrawlerInfo#disableGoogleFeatures(List)
+         */
+        public Builder disableGoogleFeatures(List<GoogleFeature> features) {
+            disabledGoogleFeatures.clear();
+            disabledGoogleFeatures.addAll(features);
+            return this;
+        }
+
+        /**
+         * Sets the keywords.
+         * @param keywords the keywords.
+         * @return this {@code Builder}.
+         * @see WebCrawlerInfo#withKeywords(String)
+         */
+        public Builder withKeywords(String keywords) {
+            this.keywords = keywords;
+            return this;
+        }
+
+        /**
+         * Removes all properties, so that the {@code Builder} can be
+         * reused for another {@link WebCrawlerInfo}.
+         * @return this {@code Builder}.
+         */
+        public Builder clear() {
+            canonical = null;
+            advices.clear();
+            alternates.clear();
+            alternateSet = null;
+            description = null;
+            disabledGoogleFeatures.clear();
+            keywords = null;
+            return this;
+        }
+
+        /**
+         * Creates a {@link WebCrawlerInfo} with the collected
+         * properties.
+         * @return a new {@code WebCrawlerInfo}.
+         */
+        public WebCrawlerInfo build() {
+            return new WebCrawlerInfo(canonical, copyOrEmpty(advices, NO_ADVICES),
+                alternateSet != null ? alternateSet : copyOrEmpty(alternates, NO_ALTERNATES), description,
+                copyOrEmpty(disabledGoogleFeatures, NO_GOOGLE_FEATURES), keywords);
+        }
+
+        private static <T> List<T> copyOrEmpty(List<T> list, List<T> empty) {
+            return list.isEmpty() ? empty : ImmutableArrayList.copyOf(list);
+        }
+    }
+
 }
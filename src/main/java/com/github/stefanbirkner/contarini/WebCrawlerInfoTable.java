@@ -0,0 +1,424 @@
+package com.github.stefanbirkner.contarini;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+
+/**
+ * A compact in-memory store for a large number of
+ * {@link WebCrawlerInfo}s. The properties are stored in columns of
+ * primitive arrays instead of an object graph for each
+ * {@code WebCrawlerInfo}.
+ * <ul>
+ *   <li>All texts (canonical URL, description, keywords and the
+ *   language, media and URL of each alternate) are replaced by ids of
+ *   a dictionary, therefore each distinct text is stored only
+ *   once.</li>
+ *   <li>The advices and the disabled Google features of a row are
+ *   stored in a single {@code long}. The advices are encoded by
+ *   {@link WebCrawlerAdviceSet#sequenceKeyOf(List)}.</li>
+ *   <li>The alternates of all rows are stored in a shared pool of
+ *   {@code int}s. A row references a range of this pool. Rows with
+ *   the same {@link AlternateSet} and consecutive rows with equal
+ *   alternates share the range.</li>
+ * </ul>
+ * <pre>
+ * WebCrawlerInfoTable table = new WebCrawlerInfoTable();
+ * int index = table.add(info);
+ * ...
+ * renderer.writeTagsForInfoToWriter(table.row(index), writer);
+ * </pre>
+ * <p>{@link #row(int)} returns a lightweight {@link Row} that reads its
+ * properties from the columns. The
+ * {@link com.github.stefanbirkner.contarini.render.WebCrawlerInfoRenderer}
+ * renders a {@code Row} without creating a {@code WebCrawlerInfo}.
+ * <p>Rows whose advices cannot be encoded (e.g. custom advices) or
+ * that disable a Google feature more than once are stored, too. Their
+ * advices and features are kept in a map.
+ * <p>A {@code WebCrawlerInfoTable} is not thread-safe while rows are
+ * added. It can be read by several threads concurrently once it has
+ * been safely published and no more rows are added.
+ * @since 1.3.0
+ */
+public final class WebCrawlerInfoTable {
+    private static final int NO_STRING = -1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INTS_PER_ALTERNATE = 3;
+    private static final int FIRST_BIT_OF_FEATURES = 4 * WebCrawlerAdviceSet.MAX_LENGTH_OF_SEQUENCE;
+    private static final int BITS_PER_FEATURE = 2;
+    private static final int MAX_NUMBER_OF_FEATURES = (64 - FIRST_BIT_OF_FEATURES) / BITS_PER_FEATURE;
+    private static final long MASK_OF_ADVICES = (1L << FIRST_BIT_OF_FEATURES) - 1;
+    private static final long MASK_OF_FEATURE = (1L << BITS_PER_FEATURE) - 1;
+    //no valid encoding because no advice has the index 14
+    private static final long IRREGULAR = -1L;
+    private static final GoogleFeature[] FEATURES = GoogleFeature.values();
+    private static final List<Alternate> NO_ALTERNATES = emptyList();
+
+    private final StringDictionary dictionary = new StringDictionary();
+    private int size = 0;
+    private int[] canonicalIds = new int[INITIAL_CAPACITY];
+    private int[] descriptionIds = new int[INITIAL_CAPACITY];
+    private int[] keywordsIds = new int[INITIAL_CAPACITY];
+    private long[] advicesAndFeatures = new long[INITIAL_CAPACITY];
+    private int[] startsOfAlternates = new int[INITIAL_CAPACITY];
+    private int[] numbersOfAlternates = new int[INITIAL_CAPACITY];
+    private int[] alternatePool = new int[INTS_PER_ALTERNATE * INITIAL_CAPACITY];
+    private int sizeOfAlternatePool = 0;
+    private final Map<AlternateSet, Integer> startsOfAlternateSets = new HashMap<AlternateSet, Integer>();
+    private List<Alternate> alternatesOfPreviousRow = NO_ALTERNATES;
+    private final Map<Integer, WebCrawlerInfo> irregularRows = new HashMap<Integer, WebCrawlerInfo>();
+
+    static {
+        if (FEATURES.length >= (1 << BITS_PER_FEATURE))
+            throw new IllegalStateException("There are too many Google features for the encoding.");
+    }
+
+    /**
+     * Adds a row for a {@link WebCrawlerInfo}.
+     * @param info the {@code WebCrawlerInfo}.
+     * @return the index of the new row.
+     */
+    public int add(WebCrawlerInfo info) {
+        if (info == null)
+            throw new NullPointerException("The WebCrawlerInfo is missing.");
+        ensureCapacity(size + 1);
+        int index = size;
+        canonicalIds[index] = idOf(info.getCanonical());
+        descriptionIds[index] = idOf(info.getDescription());
+        keywordsIds[index] = idOf(info.getKeywords());
+        long encodedAdvicesAndFeatures = encode(info.getAdvices(), info.getDisabledGoogleFeatures());
+        advicesAndFeatures[index] = encodedAdvicesAndFeatures;
+        if (encodedAdvicesAndFeatures == IRREGULAR)
+            irregularRows.put(index, info);
+        addAlternates(index, info.getAlternates());
+        ++size;
+        return index;
+    }
+
+    private int idOf(String string) {
+        return string == null ? NO_STRING : dictionary.idOf(string);
+    }
+
+    private static long encode(List<WebCrawlerAdvice> advices, List<GoogleFeature> features) {
+        long sequenceKey = WebCrawlerAdviceSet.sequenceKeyOf(advices);
+        if (sequenceKey < 0 || features.size() > MAX_NUMBER_OF_FEATURES)
+            return IRREGULAR;
+        long encoded = sequenceKey;
+        for (int i = 0; i < features.size(); ++i)
+            encoded |= (long) (features.get(i).ordinal() + 1) << (FIRST_BIT_OF_FEATURES + BITS_PER_FEATURE * i);
+        return encoded;
+    }
+
+    private void addAlternates(int index, List<Alternate> alternates) {
+        numbersOfAlternates[index] = alternates.size();
+        if (alternates.isEmpty()) {
+            //the range of an older row must not be reused for the next row
+            alternatesOfPreviousRow = NO_ALTERNATES;
+            return;
+        }
+        if (index > 0 && alternates.equals(alternatesOfPreviousRow)) {
+            startsOfAlternates[index] = startsOfAlternates[index - 1];
+            return;
+        }
+        Integer startOfAlternateSet = alternates instanceof AlternateSet
+            ? startsOfAlternateSets.get(alternates) : null;
+        if (startOfAlternateSet == null) {
+            startsOfAlternates[index] = sizeOfAlternatePool;
+            for (Alternate alternate : alternates)
+                addAlternateToPool(alternate);
+            if (alternates instanceof AlternateSet)
+                startsOfAlternateSets.put((AlternateSet) alternates, startsOfAlternates[index]);
+        } else {
+            startsOfAlternates[index] = startOfAlternateSet;
+        }
+        alternatesOfPreviousRow = alternates;
+    }
+
+    private void addAlternateToPool(Alternate alternate) {
+        if (sizeOfAlternatePool + INTS_PER_ALTERNATE > alternatePool.length)
+            alternatePool = Arrays.copyOf(alternatePool,
+                Math.max(INTS_PER_ALTERNATE * INITIAL_CAPACITY, 2 * alternatePool.length));
+        alternatePool[sizeOfAlternatePool++] = idOf(alternate.language);
+        alternatePool[sizeOfAlternatePool++] = idOf(alternate.media);
+        alternatePool[sizeOfAlternatePool++] = idOf(alternate.href);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > canonicalIds.length)
+            resize(Math.max(capacity, 2 * canonicalIds.length));
+    }
+
+    private void resize(int capacity) {
+        canonicalIds = Arrays.copyOf(canonicalIds, capacity);
+        descriptionIds = Arrays.copyOf(descriptionIds, capacity);
+        keywordsIds = Arrays.copyOf(keywordsIds, capacity);
+        advicesAndFeatures = Arrays.copyOf(advicesAndFeatures, capacity);
+        startsOfAlternates = Arrays.copyOf(startsOfAlternates, capacity);
+        numbersOfAlternates = Arrays.copyOf(numbersOfAlternates, capacity);
+    }
+
+    /**
+     * Releases the unused capacity of the columns. Call it after the
+     * last row has been added. Rows can still be added afterwards, but
+     * the columns grow again.
+     */
+    public void trimToSize() {
+        resize(size);
+        alternatePool = Arrays.copyOf(alternatePool, sizeOfAlternatePool);
+        dictionary.trimToSize();
+        alternatesOfPreviousRow = NO_ALTERNATES;
+    }
+
+    /**
+     * Returns the number of rows.
+     * @return the number of rows.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of distinct texts that are stored by this
+     * table.
+     * @return the number of distinct texts.
+     */
+    public int getNumberOfDistinctTexts() {
+        return dictionary.size();
+    }
+
+    /**
+     * Returns a view of a row.
+     * @param index the index of the row.
+     * @return a {@link Row} that reads the properties of the row from
+     * this table.
+     * @throws IndexOutOfBoundsException if there is no row with this
+     * index.
+     */
+    public Row row(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("There is no row " + index + ".");
+        return new Row(this, index);
+    }
+
+    /**
+     * Creates a {@link WebCrawlerInfo} with the properties of a row.
+     * @param index the index of the row.
+     * @return a new {@code WebCrawlerInfo} that is equal to the
+     * {@code WebCrawlerInfo} that has been added.
+     * @throws IndexOutOfBoundsException if there is no row with this
+     * index.
+     */
+    public WebCrawlerInfo get(int index) {
+        return row(index).toWebCrawlerInfo();
+    }
+
+    private String stringOf(int id) {
+        return id == NO_STRING ? null : dictionary.stringOf(id);
+    }
+
+    @Override
+    public String toString() {
+        return "WebCrawlerInfoTable [size=" + size + ", distinctTexts=" + dictionary.size()
+            + ", alternatesInPool=" + sizeOfAlternatePool / INTS_PER_ALTERNATE + "]";
+    }
+
+    /**
+     * A view of a row of a {@link WebCrawlerInfoTable}. It has the
+     * getters of {@link WebCrawlerInfo} and additional methods that
+     * provide the properties without creating lists.
+     */
+    public static final class Row {
+        private final WebCrawlerInfoTable table;
+        private final int index;
+
+        private Row(WebCrawlerInfoTable table, int index) {
+            this.table = table;
+            this.index = index;
+        }
+
+        /**
+         * Returns the index of this row.
+         * @return the index of this row.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Returns the canonical URL.
+         * @return the canonical URL or {@code null} if it is not set.
+         * @see WebCrawlerInfo#getCanonical()
+         */
+        public String getCanonical() {
+            return table.stringOf(table.canonicalIds[index]);
+        }
+
+        /**
+         * Returns the advices for the robots meta tag.
+         * @return a new unmodifiable list of the advices.
+         * @see WebCrawlerInfo#getAdvices()
+         */
+        public List<WebCrawlerAdvice> getAdvices() {
+            long sequenceKey = getAdvicesSequenceKey();
+            if (sequenceKey < 0)
+                return table.irregularRows.get(index).getAdvices();
+            else
+                return ImmutableArrayList.copyOf(WebCrawlerAdviceSet.advicesOfSequenceKey(sequenceKey));
+        }
+
+        /**
+         * Returns the key of the advices.
+         * @return the key or {@code -1} if the advices cannot be
+         * represented by a key.
+         * @see WebCrawlerAdviceSet#sequenceKeyOf(List)
+         */
+        public long getAdvicesSequenceKey() {
+            long encoded = table.advicesAndFeatures[index];
+            return encoded == IRREGULAR ? -1L : encoded & MASK_OF_ADVICES;
+        }
+
+        /**
+         * Returns the alternates.
+         * @return a new unmodifiable list of the alternates.
+         * @see WebCrawlerInfo#getAlternates()
+         */
+        public List<Alternate> getAlternates() {
+            int numberOfAlternates = getNumberOfAlternates();
+            if (numberOfAlternates == 0)
+                return NO_ALTERNATES;
+            Alternate[] alternates = new Alternate[numberOfAlternates];
+            for (int i = 0; i < numberOfAlternates; ++i)
+                alternates[i] = new Alternate(getAlternateHref(i), getAlternateLanguage(i), getAlternateMedia(i));
+            return ImmutableArrayList.copyOf(alternates);
+        }
+
+        /**
+         * Returns the number of alternates.
+         * @return the number of alternates.
+         */
+        public int getNumberOfAlternates() {
+            return table.numbersOfAlternates[index];
+        }
+
+        /**
+         * Returns the language of an alternate.
+         * @param alternate the index of the alternate.
+         * @return the language or {@code null}.
+         * @see Alternate#language
+         */
+        public String getAlternateLanguage(int alternate) {
+            return stringOfAlternate(alternate, 0);
+        }
+
+        /**
+         * Returns the media query of an alternate.
+         * @param alternate the index of the alternate.
+         * @return the media query or {@code null}.
+         * @see Alternate#media
+         */
+        public String getAlternateMedia(int alternate) {
+            return stringOfAlternate(alternate, 1);
+        }
+
+        /**
+         * Returns the URL of an alternate.
+         * @param alternate the index of the alternate.
+         * @return the URL.
+         * @see Alternate#href
+         */
+        public String getAlternateHref(int alternate) {
+            return stringOfAlternate(alternate, 2);
+        }
+
+        private String stringOfAlternate(int alternate, int offset) {
+            if (alternate < 0 || alternate >= getNumberOfAlternates())
+                throw new IndexOutOfBoundsException("There is no alternate " + alternate + ".");
+            int start = table.startsOfAlternates[index];
+            return table.stringOf(table.alternatePool[start + INTS_PER_ALTERNATE * alternate + offset]);
+        }
+
+        /**
+         * Returns the description.
+         * @return the description or {@code null} if it is not set.
+         * @see WebCrawlerInfo#getDescription()
+         */
+        public String getDescription() {
+            return table.stringOf(table.descriptionIds[index]);
+        }
+
+        /**
+         * Returns the Google features that are disabled.
+         * @return a new unmodifiable list of the features.
+         * @see WebCrawlerInfo#getDisabledGoogleFeatures()
+         */
+        public List<GoogleFeature> getDisabledGoogleFeatures() {
+            int numberOfFeatures = getNumberOfDisabledGoogleFeatures();
+            List<GoogleFeature> features = new ArrayList<GoogleFeature>(numberOfFeatures);
+            for (int i = 0; i < numberOfFeatures; ++i)
+                features.add(getDisabledGoogleFeature(i));
+            return ImmutableArrayList.copyOf(features);
+        }
+
+        /**
+         * Returns the number of Google features that are disabled.
+         * @return the number of disabled features.
+         */
+        public int getNumberOfDisabledGoogleFeatures() {
+            long encoded = table.advicesAndFeatures[index];
+            if (encoded == IRREGULAR)
+                return table.irregularRows.get(index).getDisabledGoogleFeatures().size();
+            int numberOfFeatures = 0;
+            for (long features = encoded >>> FIRST_BIT_OF_FEATURES; features != 0L; features >>>= BITS_PER_FEATURE)
+                ++numberOfFeatures;
+            return numberOfFeatures;
+        }
+
+        /**
+         * Returns a Google feature that is disabled.
+         * @param feature the index of the feature in the list of
+         *                disabled features.
+         * @return the disabled feature.
+         */
+        public GoogleFeature getDisabledGoogleFeature(int feature) {
+            long encoded = table.advicesAndFeatures[index];
+            if (encoded == IRREGULAR)
+                return table.irregularRows.get(index).getDisabledGoogleFeatures().get(feature);
+            int code = feature < 0 || feature >= MAX_NUMBER_OF_FEATURES ? 0
+                : (int) ((encoded >>> (FIRST_BIT_OF_FEATURES + BITS_PER_FEATURE * feature)) & MASK_OF_FEATURE);
+            if (code == 0)
+                throw new IndexOutOfBoundsException("There is no disabled feature " + feature + ".");
+            return FEATURES[code - 1];
+        }
+
+        /**
+         * Returns the keywords.
+         * @return the keywords or {@code null} if they are not set.
+         * @see WebCrawlerInfo#getKeywords()
+         */
+        public String getKeywords() {
+            return table.stringOf(table.keywordsIds[index]);
+        }
+
+        /**
+         * Creates a {@link WebCrawlerInfo} with the properties of this
+         * row.
+         * @return a new {@code WebCrawlerInfo}.
+         */
+        public WebCrawlerInfo toWebCrawlerInfo() {
+            return WebCrawlerInfo.withImmutableLists(getCanonical(), getAdvices(), getAlternates(),
+                getDescription(), getDisabledGoogleFeatures(), getKeywords());
+        }
+
+        @Override
+        public String toString() {
+            return "WebCrawlerInfoTable.Row [index=" + index + ", canonical=" + getCanonical()
+                + ", advices=" + getAdvices() + ", alternates=" + getAlternates()
+                + ", description=" + getDescription() + ", disabledGoogleFeatures=" + getDisabledGoogleFeatures()
+                + ", keywords=" + getKeywords() + "]";
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.stefanbirkner.contarini.parse;
+
+/**
+ * A {@link Source} that reads a {@link CharSequence} (e.g. a
+ * {@code String} or a {@link java.nio.CharBuffer}).
+ */
+class CharSequenceSource extends Source {
+    private final CharSequence chars;
+
+    CharSequenceSource(CharSequence chars) {
+        this.chars = chars;
+    }
+
+    @Override
+    int length() {
+        return chars.length();
+    }
+
+    @Override
+    int at(int position) {
+        return chars.charAt(position);
+    }
+
+    @Override
+    void appendText(int start, int end, StringBuilder sb) {
+        sb.append(chars, start, end);
+    }
+}
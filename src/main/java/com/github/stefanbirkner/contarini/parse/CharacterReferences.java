@@ -0,0 +1,90 @@
+package com.github.stefanbirkner.contarini.parse;
+
+/**
+ * Decodes the character references that are used for escaping
+ * attribute values: the named references {@code &amp;}, {@code &lt;},
+ * {@code &gt;}, {@code &quot;} and {@code &apos;} and all numeric
+ * references. Other named references are kept as they are.
+ */
+class CharacterReferences {
+    private static final String[] NAMES = {"amp", "lt", "gt", "quot", "apos"};
+    private static final char[] CHARACTERS = {'&', '<', '>', '"', '\''};
+    private static final int MAX_DIGITS = 8;
+    //the longest reference between '&' and ';' is "#x" followed by the digits
+    private static final int MAX_LENGTH_OF_REFERENCE = 2 + MAX_DIGITS;
+
+    private CharacterReferences() {
+    }
+
+    static String decode(StringBuilder text) {
+        int firstAmpersand = text.indexOf("&");
+        if (firstAmpersand < 0)
+            return text.toString();
+        StringBuilder sb = new StringBuilder(text.length());
+        sb.append(text, 0, firstAmpersand);
+        int i = firstAmpersand;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            int semicolon = c == '&' ? indexOfSemicolon(text, i + 1) : -1;
+            if (semicolon < 0 || !appendReference(text, i + 1, semicolon, sb)) {
+                sb.append(c);
+                ++i;
+            } else {
+                i = semicolon + 1;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the index of the semicolon that ends a reference. Only
+     * the chars that can be part of a reference are searched, hence
+     * decoding a text is linear in its length.
+     */
+    private static int indexOfSemicolon(StringBuilder text, int start) {
+        int end = Math.min(text.length(), start + MAX_LENGTH_OF_REFERENCE + 1);
+        for (int i = start; i < end; ++i)
+            if (text.charAt(i) == ';')
+                return i;
+        return -1;
+    }
+
+    private static boolean appendReference(StringBuilder text, int start, int end, StringBuilder sb) {
+        if (start < end && text.charAt(start) == '#')
+            return appendNumericReference(text, start + 1, end, sb);
+        for (int i = 0; i < NAMES.length; ++i)
+            if (NAMES[i].length() == end - start && regionEquals(text, start, NAMES[i])) {
+                sb.append(CHARACTERS[i]);
+                return true;
+            }
+        return false;
+    }
+
+    private static boolean regionEquals(StringBuilder text, int start, String name) {
+        for (int i = 0; i < name.length(); ++i)
+            if (text.charAt(start + i) != name.charAt(i))
+                return false;
+        return true;
+    }
+
+    private static boolean appendNumericReference(StringBuilder text, int start, int end, StringBuilder sb) {
+        int radix = 10;
+        if (start < end && (text.charAt(start) == 'x' || text.charAt(start) == 'X')) {
+            radix = 16;
+            ++start;
+        }
+        if (start == end || end - start > MAX_DIGITS)
+            return false;
+        int codePoint = 0;
+        for (int i = start; i < end; ++i) {
+            int digit = Character.digit(text.charAt(i), radix);
+            if (digit < 0)
+                return false;
+            codePoint = codePoint * radix + digit;
+        }
+        if (!Character.isValidCodePoint(codePoint))
+            return false;
+        sb.appendCodePoint(codePoint);
+        return true;
+    }
+}
@@ -0,0 +1,356 @@
+package com.github.stefanbirkner.contarini.parse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+/**
+ * Extracts the {@link com.github.stefanbirkner.contarini.WebCrawlerInfo}
+ * of every document of a large corpus of UTF-8 encoded HTML documents.
+ * The corpus is either a directory of HTML files or a file of
+ * concatenated WARC records.
+ * <p>The files are memory-mapped and split into chunks that are aligned
+ * with the documents. The chunks are scanned in parallel by the
+ * {@link Executor} of the scanner, and the result of each document is
+ * sent to a {@link CorpusSink} immediately. The number of chunks that
+ * are scanned or wait for being scanned is bounded. Therefore the memory
+ * that is used by the scanner does not depend on the size of the corpus.
+ * <pre>
+ * ExecutorService executor = Executors.newFixedThreadPool(8);
+ * try {
+ *     new CorpusScanner(executor).scanWarcFile(file, sink);
+ * } finally {
+ *     executor.shutdown();
+ * }
+ * </pre>
+ * <p>A {@code CorpusScanner} can be used for multiple scans at the same
+ * time.
+ * @since 1.3.0
+ */
+public class CorpusScanner {
+    /**
+     * The default number of bytes of a chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+    private static final int INITIAL_HEADER_BUFFER_SIZE = 1024;
+    private static final int MAX_HEADER_LENGTH = 64 * 1024;
+    /**
+     * A record that starts less than this number of bytes before the end
+     * of the header buffer is read again, so that its header is not
+     * mistaken for a truncated one.
+     */
+    private static final int MIN_HEADER_LENGTH = 64;
+
+    private final WebCrawlerInfoParser parser = new WebCrawlerInfoParser();
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+
+    /**
+     * Creates a {@code CorpusScanner} with chunks of
+     * {@link #DEFAULT_CHUNK_SIZE} bytes that allows four chunks per
+     * available processor to be in flight.
+     * @param executor the executor that scans the chunks.
+     */
+    public CorpusScanner(Executor executor) {
+        this(executor, DEFAULT_CHUNK_SIZE, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a {@code CorpusScanner}.
+     * @param executor the executor that scans the chunks.
+     * @param chunkSize the minimum number of bytes of a chunk. A chunk
+     *                  only ends at the end of a document. Therefore it
+     *                  may be larger.
+     * @param maxChunksInFlight the maximum number of chunks that are
+     *                          scanned or wait for being scanned.
+     */
+    public CorpusScanner(Executor executor, int chunkSize, int maxChunksInFlight) {
+        if (executor == null)
+            throw new NullPointerException("The executor is missing.");
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("The chunk size must be positive, but is " + chunkSize + ".");
+        if (maxChunksInFlight <= 0)
+            throw new IllegalArgumentException(
+                "The maximum number of chunks in flight must be positive, but is " + maxChunksInFlight + ".");
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    /**
+     * Scans every file of a directory and its subdirectories. Each file
+     * is treated as a single HTML document.
+     * @param directory the directory of the corpus.
+     * @param sink receives the result of each document.
+     * @throws IOException if a file cannot be read.
+     * @throws InterruptedException if the current thread is interrupted
+     * while waiting for the chunks.
+     */
+    public void scanDirectory(File directory, CorpusSink sink) throws IOException, InterruptedException {
+        if (!directory.isDirectory())
+            throw new IOException(directory + " is not a directory.");
+        Scan scan = new Scan(sink);
+        try {
+            FileBatch batch = new FileBatch(scan);
+            submitFilesOfDirectory(directory, batch, scan);
+            if (!batch.files.isEmpty())
+                scan.submit(batch);
+        } finally {
+            scan.awaitChunks();
+        }
+        scan.rethrowFailure();
+    }
+
+    private void submitFilesOfDirectory(File directory, FileBatch batch, Scan scan)
+            throws IOException, InterruptedException {
+        File[] files = directory.listFiles();
+        if (files == null)
+            throw new IOException("Cannot list the files of " + directory + ".");
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isDirectory()) {
+                submitFilesOfDirectory(file, batch, scan);
+            } else if (file.isFile()) {
+                batch.files.add(file);
+                batch.size += file.length();
+                if (batch.size >= chunkSize) {
+                    scan.submit(new FileBatch(batch));
+                    batch.files.clear();
+                    batch.size = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Scans a file of concatenated WARC records. The documents of
+     * {@code response} and {@code resource} records are scanned. The
+     * HTTP headers of a response are skipped.
+     * @param file the WARC file. It must not be compressed.
+     * @param sink receives the result of each document.
+     * @throws IOException if the file cannot be read or is not a WARC
+     * file.
+     * @throws InterruptedException if the current thread is interrupted
+     * while waiting for the chunks.
+     */
+    public void scanWarcFile(File file, CorpusSink sink) throws IOException, InterruptedException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            Scan scan = new Scan(sink);
+            try {
+                submitChunksOfWarcFile(file, randomAccessFile.getChannel(), scan);
+            } finally {
+                scan.awaitChunks();
+            }
+            scan.rethrowFailure();
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * Reads the headers of the records in order to find the boundaries
+     * of the chunks. The blocks of the records are not read. Most
+     * headers are short, therefore only a small block is read for each
+     * header. It grows if a header does not fit.
+     */
+    private void submitChunksOfWarcFile(File file, FileChannel channel, Scan scan)
+            throws IOException, InterruptedException {
+        long size = channel.size();
+        ByteBuffer headerBuffer = ByteBuffer.allocate(INITIAL_HEADER_BUFFER_SIZE);
+        long chunkStart = 0;
+        long position = 0;
+        while (position < size && !scan.hasFailed()) {
+            readFully(channel, headerBuffer, position);
+            boolean endOfFile = headerBuffer.limit() < headerBuffer.capacity();
+            int start = WarcRecordHeader.skipLineBreaks(headerBuffer, 0);
+            if (start == headerBuffer.limit() || (!endOfFile && start > headerBuffer.limit() - MIN_HEADER_LENGTH)) {
+                position += start;
+                continue;
+            }
+            WarcRecordHeader header = WarcRecordHeader.parse(headerBuffer, start);
+            if (header == null) {
+                if (endOfFile || (start == 0 && headerBuffer.capacity() == MAX_HEADER_LENGTH))
+                    throw new IOException("The header of the WARC record at position "
+                        + (position + start) + " of " + file + " is too long or truncated.");
+                if (start == 0)
+                    headerBuffer = ByteBuffer.allocate(Math.min(2 * headerBuffer.capacity(), MAX_HEADER_LENGTH));
+                //read the header again, starting at the record
+                position += start;
+                continue;
+            }
+            long recordStart = position + start;
+            long recordEnd = position + header.blockStart + header.contentLength;
+            if (recordEnd - recordStart > MAX_CHUNK_SIZE)
+                throw new IOException("The WARC record at position " + recordStart
+                    + " of " + file + " is too large.");
+            if (recordStart > chunkStart
+                    && (recordStart - chunkStart >= chunkSize || recordEnd - chunkStart > MAX_CHUNK_SIZE)) {
+                scan.submit(new WarcChunk(scan, file, channel, chunkStart, recordStart));
+                chunkStart = recordStart;
+            }
+            position = recordEnd;
+        }
+        long end = Math.min(position, size);
+        if (end > chunkStart && !scan.hasFailed())
+            scan.submit(new WarcChunk(scan, file, channel, chunkStart, end));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            int bytesRead = channel.read(buffer, position + buffer.position());
+            if (bytesRead < 0)
+                break;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * The state of a single call of {@code scanDirectory} or
+     * {@code scanWarcFile}. The permits of the semaphore are the chunks
+     * that may be in flight.
+     */
+    private class Scan {
+        final CorpusSink sink;
+        final Semaphore permits = new Semaphore(maxChunksInFlight);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        Scan(CorpusSink sink) {
+            this.sink = sink;
+        }
+
+        void submit(final Chunk chunk) throws InterruptedException {
+            permits.acquire();
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            if (!hasFailed())
+                                chunk.scan();
+                        } catch (Throwable t) {
+                            failure.compareAndSet(null, t);
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        boolean hasFailed() {
+            return failure.get() != null;
+        }
+
+        void awaitChunks() throws InterruptedException {
+            permits.acquire(maxChunksInFlight);
+            permits.release(maxChunksInFlight);
+        }
+
+        void rethrowFailure() throws IOException {
+            Throwable t = failure.get();
+            if (t instanceof IOException)
+                throw (IOException) t;
+            else if (t instanceof RuntimeException)
+                throw (RuntimeException) t;
+            else if (t instanceof Error)
+                throw (Error) t;
+            else if (t != null)
+                throw new IOException(t);
+        }
+    }
+
+    private interface Chunk {
+        void scan() throws IOException;
+    }
+
+    private class FileBatch implements Chunk {
+        final Scan scan;
+        final List<File> files;
+        long size = 0;
+
+        FileBatch(Scan scan) {
+            this.scan = scan;
+            this.files = new ArrayList<File>();
+        }
+
+        FileBatch(FileBatch other) {
+            this.scan = other.scan;
+            this.files = new ArrayList<File>(other.files);
+            this.size = other.size;
+        }
+
+        @Override
+        public void scan() throws IOException {
+            for (File file : files)
+                scanFile(file);
+        }
+
+        private void scanFile(File file) throws IOException {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                FileChannel channel = randomAccessFile.getChannel();
+                long length = Math.min(channel.size(), MAX_CHUNK_SIZE);
+                MappedByteBuffer document = channel.map(READ_ONLY, 0, length);
+                scan.sink.accept(new DocumentLocation(file, 0, length, null), parser.parseHead(document));
+            } finally {
+                randomAccessFile.close();
+            }
+        }
+    }
+
+    private class WarcChunk implements Chunk {
+        final Scan scan;
+        final File file;
+        final FileChannel channel;
+        final long start;
+        final long end;
+
+        WarcChunk(Scan scan, File file, FileChannel channel, long start, long end) {
+            this.scan = scan;
+            this.file = file;
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public void scan() throws IOException {
+            MappedByteBuffer chunk = channel.map(READ_ONLY, start, end - start);
+            int p = 0;
+            while ((p = WarcRecordHeader.skipLineBreaks(chunk, p)) < chunk.limit()) {
+                WarcRecordHeader header = WarcRecordHeader.parse(chunk, p);
+                if (header == null)
+                    throw new IOException("The WARC record at position " + (start + p)
+                        + " of " + file + " is truncated.");
+                int blockEnd = (int) Math.min(chunk.limit(), header.blockStart + header.contentLength);
+                if (header.hasDocument()) {
+                    ByteBuffer document = chunk.duplicate();
+                    document.limit(blockEnd);
+                    document.position(WarcRecordHeader.startOfDocument(chunk, header.blockStart, blockEnd));
+                    scan.sink.accept(new DocumentLocation(file, start + p, blockEnd - p, header.targetUri),
+                        parser.parseHead(document));
+                }
+                p = blockEnd;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.stefanbirkner.contarini.parse;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * Receives the {@link WebCrawlerInfo} of each document that is found by
+ * a {@link CorpusScanner}. The scanner calls the sink from multiple
+ * threads at the same time. Therefore a sink must be thread-safe.
+ * @since 1.3.0
+ */
+public interface CorpusSink {
+    /**
+     * Receives the {@code WebCrawlerInfo} of a single document.
+     * @param location the location of the document within the corpus.
+     * @param info the {@code WebCrawlerInfo} of the document.
+     */
+    void accept(DocumentLocation location, WebCrawlerInfo info);
+}
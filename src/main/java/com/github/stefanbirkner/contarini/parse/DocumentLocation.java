@@ -0,0 +1,85 @@
+package com.github.stefanbirkner.contarini.parse;
+
+import java.io.File;
+
+/**
+ * The location of a document within a corpus that is read by a
+ * {@link CorpusScanner}.
+ * @since 1.3.0
+ */
+public class DocumentLocation {
+    private final File file;
+    private final long offset;
+    private final long length;
+    private final String targetUri;
+
+    public DocumentLocation(File file, long offset, long length, String targetUri) {
+        this.file = file;
+        this.offset = offset;
+        this.length = length;
+        this.targetUri = targetUri;
+    }
+
+    /**
+     * Returns the file that contains the document.
+     * @return the file that contains the document.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the position of the document (or its WARC record) within
+     * the file.
+     * @return the position of the document within the file.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the number of bytes of the document (or its WARC record).
+     * @return the number of bytes of the document.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the URI of the document as specified by the
+     * {@code WARC-Target-URI} header.
+     * @return the URI of the document or {@code null} if the document is
+     * not part of a WARC file.
+     */
+    public String getTargetUri() {
+        return targetUri;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        else if (other == null || getClass() != other.getClass())
+            return false;
+        DocumentLocation that = (DocumentLocation) other;
+        return offset == that.offset
+            && length == that.length
+            && file.equals(that.file)
+            && (targetUri == null ? that.targetUri == null : targetUri.equals(that.targetUri));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = file.hashCode();
+        result = 31 * result + (int) (offset ^ (offset >>> 32));
+        result = 31 * result + (int) (length ^ (length >>> 32));
+        result = 31 * result + (targetUri == null ? 0 : targetUri.hashCode());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentLocation[file=" + file + ", offset=" + offset
+            + ", length=" + length + ", targetUri=" + targetUri + "]";
+    }
+}
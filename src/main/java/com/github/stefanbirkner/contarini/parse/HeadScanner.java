@@ -0,0 +1,327 @@
+package com.github.stefanbirkner.contarini.parse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.GoogleFeature;
+import com.github.stefanbirkner.contarini.WebCrawlerAdvice;
+import com.github.stefanbirkner.contarini.WebCrawlerAdviceParser;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * Scans a single document for the {@link WebCrawlerInfoParser}. The
+ * attributes of a tag are stored as positions within the
+ * {@link Source}. Their values are only decoded if the tag is relevant.
+ */
+class HeadScanner {
+    private static final int NOT_PRESENT = -1;
+    private static final String[] RAW_TEXT_ELEMENTS = {"script", "style", "title", "textarea"};
+
+    private final Source source;
+    private final int length;
+    private int position = 0;
+    private final WebCrawlerInfo.Builder builder = new WebCrawlerInfo.Builder();
+    private boolean hasCanonical = false;
+    private final List<GoogleFeature> disabledGoogleFeatures = new ArrayList<GoogleFeature>();
+    //start and end of the relevant attributes of the current tag
+    private int relStart, relEnd;
+    private int hrefStart, hrefEnd;
+    private int hreflangStart, hreflangEnd;
+    private int mediaStart, mediaEnd;
+    private int nameStart, nameEnd;
+    private int contentStart, contentEnd;
+    private boolean hasType;
+
+    HeadScanner(Source source) {
+        this.source = source;
+        this.length = source.length();
+    }
+
+    WebCrawlerInfo scan() {
+        while (scanNextTag()) {
+            //continue until the end of the head
+        }
+        return builder.disableGoogleFeatures(disabledGoogleFeatures).build();
+    }
+
+    private boolean scanNextTag() {
+        int lessThan = indexOf('<', position);
+        if (lessThan < 0)
+            return false;
+        position = lessThan + 1;
+        if (startsWith("!--", position))
+            return skipComment();
+        else if (position < length && source.at(position) == '/')
+            return scanEndTag();
+        else if (position < length && isAsciiLetter(source.at(position)))
+            return scanStartTag();
+        else
+            return true;
+    }
+
+    private boolean skipComment() {
+        int end = indexOf("-->", position + 3);
+        position = end < 0 ? length : end + 3;
+        return end >= 0;
+    }
+
+    private boolean scanEndTag() {
+        int start = position + 1;
+        int end = endOfName(start);
+        if (equalsIgnoreCase(start, end, "head"))
+            return false;
+        int greaterThan = indexOf('>', end);
+        position = greaterThan < 0 ? length : greaterThan + 1;
+        return greaterThan >= 0;
+    }
+
+    private boolean scanStartTag() {
+        int start = position;
+        int end = endOfName(start);
+        if (equalsIgnoreCase(start, end, "body"))
+            return false;
+        scanAttributes(end);
+        if (equalsIgnoreCase(start, end, "link"))
+            handleLink();
+        else if (equalsIgnoreCase(start, end, "meta"))
+            handleMeta();
+        else if (isRawTextElement(start, end))
+            skipRawText(start, end);
+        return position < length;
+    }
+
+    private void scanAttributes(int start) {
+        relStart = hrefStart = hreflangStart = mediaStart = nameStart = contentStart = NOT_PRESENT;
+        hasType = false;
+        int p = start;
+        while (p < length) {
+            int c = source.at(p);
+            if (c == '>') {
+                position = p + 1;
+                return;
+            } else if (isWhitespace(c) || c == '/') {
+                ++p;
+                continue;
+            }
+            int attributeNameStart = p;
+            while (p < length && !isWhitespace(c = source.at(p)) && c != '=' && c != '>' && c != '/')
+                ++p;
+            int attributeNameEnd = p;
+            p = skipWhitespace(p);
+            int valueStart = NOT_PRESENT;
+            int valueEnd = NOT_PRESENT;
+            if (p < length && source.at(p) == '=') {
+                p = skipWhitespace(p + 1);
+                if (p < length && ((c = source.at(p)) == '"' || c == '\'')) {
+                    valueStart = p + 1;
+                    valueEnd = indexOf((char) c, valueStart);
+                    if (valueEnd < 0)
+                        valueEnd = length;
+                    p = valueEnd + 1;
+                } else {
+                    valueStart = p;
+                    while (p < length && !isWhitespace(c = source.at(p)) && c != '>')
+                        ++p;
+                    valueEnd = p;
+                }
+            }
+            storeAttribute(attributeNameStart, attributeNameEnd, valueStart, valueEnd);
+        }
+        position = length;
+    }
+
+    private void storeAttribute(int start, int end, int valueStart, int valueEnd) {
+        if (equalsIgnoreCase(start, end, "type")) {
+            hasType = true;
+        } else if (valueStart == NOT_PRESENT) {
+            return;
+        } else if (equalsIgnoreCase(start, end, "rel")) {
+            relStart = valueStart;
+            relEnd = valueEnd;
+        } else if (equalsIgnoreCase(start, end, "href")) {
+            hrefStart = valueStart;
+            hrefEnd = valueEnd;
+        } else if (equalsIgnoreCase(start, end, "hreflang")) {
+            hreflangStart = valueStart;
+            hreflangEnd = valueEnd;
+        } else if (equalsIgnoreCase(start, end, "media")) {
+            mediaStart = valueStart;
+            mediaEnd = valueEnd;
+        } else if (equalsIgnoreCase(start, end, "name")) {
+            nameStart = valueStart;
+            nameEnd = valueEnd;
+        } else if (equalsIgnoreCase(start, end, "content")) {
+            contentStart = valueStart;
+            contentEnd = valueEnd;
+        }
+    }
+
+    private void handleLink() {
+        if (relStart == NOT_PRESENT || hrefStart == NOT_PRESENT)
+            return;
+        if (!hasCanonical && containsToken(relStart, relEnd, "canonical")) {
+            builder.withCanonical(source.text(hrefStart, hrefEnd));
+            hasCanonical = true;
+        } else if (!hasType && containsToken(relStart, relEnd, "alternate")) {
+            builder.addAlternate(new Alternate(source.text(hrefStart, hrefEnd),
+                textOrNull(hreflangStart, hreflangEnd), textOrNull(mediaStart, mediaEnd)));
+        }
+    }
+
+    private void handleMeta() {
+        if (nameStart == NOT_PRESENT || contentStart == NOT_PRESENT)
+            return;
+        if (equalsIgnoreCase(nameStart, nameEnd, "robots"))
+            addAdvices(source.text(contentStart, contentEnd));
+        else if (equalsIgnoreCase(nameStart, nameEnd, "description"))
+            builder.withDescription(source.text(contentStart, contentEnd));
+        else if (equalsIgnoreCase(nameStart, nameEnd, "keywords"))
+            builder.withKeywords(source.text(contentStart, contentEnd));
+        else if (equalsIgnoreCase(nameStart, nameEnd, "google"))
+            addDisabledGoogleFeatures(source.text(contentStart, contentEnd));
+    }
+
+    private void addAdvices(String content) {
+        for (WebCrawlerAdvice advice : WebCrawlerAdviceParser.parseAdvices(content))
+            builder.addAdvice(advice);
+    }
+
+    private void addDisabledGoogleFeatures(String content) {
+        int end = content.length();
+        int tokenStart = 0;
+        while (tokenStart <= end) {
+            int tokenEnd = content.indexOf(',', tokenStart);
+            if (tokenEnd < 0)
+                tokenEnd = end;
+            int labelStart = tokenStart;
+            while (labelStart < tokenEnd && isWhitespace(content.charAt(labelStart)))
+                ++labelStart;
+            int labelEnd = tokenEnd;
+            while (labelEnd > labelStart && isWhitespace(content.charAt(labelEnd - 1)))
+                --labelEnd;
+            addDisabledGoogleFeature(content, labelStart, labelEnd);
+            tokenStart = tokenEnd + 1;
+        }
+    }
+
+    private void addDisabledGoogleFeature(String content, int start, int end) {
+        for (GoogleFeature feature : GoogleFeature.values()) {
+            String label = feature.getLabelForDisabling();
+            if (label.length() == end - start && content.regionMatches(true, start, label, 0, label.length()))
+                disabledGoogleFeatures.add(feature);
+        }
+    }
+
+    private String textOrNull(int start, int end) {
+        return start == NOT_PRESENT ? null : source.text(start, end);
+    }
+
+    private boolean isRawTextElement(int start, int end) {
+        for (String element : RAW_TEXT_ELEMENTS)
+            if (equalsIgnoreCase(start, end, element))
+                return true;
+        return false;
+    }
+
+    private void skipRawText(int nameStart, int nameEnd) {
+        int p = position;
+        while ((p = indexOf('<', p)) >= 0) {
+            ++p;
+            if (p < length && source.at(p) == '/') {
+                int end = endOfName(p + 1);
+                if (end - (p + 1) == nameEnd - nameStart && regionEqualsIgnoreCase(p + 1, nameStart, nameEnd)) {
+                    position = p - 1;
+                    return;
+                }
+            }
+        }
+        position = length;
+    }
+
+    private boolean containsToken(int start, int end, String token) {
+        int p = start;
+        while (p < end) {
+            while (p < end && isWhitespace(source.at(p)))
+                ++p;
+            int tokenStart = p;
+            while (p < end && !isWhitespace(source.at(p)))
+                ++p;
+            if (equalsIgnoreCase(tokenStart, p, token))
+                return true;
+        }
+        return false;
+    }
+
+    private int endOfName(int start) {
+        int p = start;
+        int c;
+        while (p < length && !isWhitespace(c = source.at(p)) && c != '>' && c != '/')
+            ++p;
+        return p;
+    }
+
+    private int skipWhitespace(int start) {
+        int p = start;
+        while (p < length && isWhitespace(source.at(p)))
+            ++p;
+        return p;
+    }
+
+    private int indexOf(char c, int start) {
+        for (int p = start; p < length; ++p)
+            if (source.at(p) == c)
+                return p;
+        return -1;
+    }
+
+    private int indexOf(String text, int start) {
+        int p = start;
+        while ((p = indexOf(text.charAt(0), p)) >= 0) {
+            if (startsWith(text, p))
+                return p;
+            ++p;
+        }
+        return -1;
+    }
+
+    private boolean startsWith(String text, int start) {
+        if (start + text.length() > length)
+            return false;
+        for (int i = 0; i < text.length(); ++i)
+            if (source.at(start + i) != text.charAt(i))
+                return false;
+        return true;
+    }
+
+    /**
+     * Compares the source with a lower case ASCII text.
+     */
+    private boolean equalsIgnoreCase(int start, int end, String lowerCaseText) {
+        if (end - start != lowerCaseText.length())
+            return false;
+        for (int i = 0; i < lowerCaseText.length(); ++i)
+            if (toLowerCase(source.at(start + i)) != lowerCaseText.charAt(i))
+                return false;
+        return true;
+    }
+
+    private boolean regionEqualsIgnoreCase(int start, int otherStart, int otherEnd) {
+        for (int i = 0; i < otherEnd - otherStart; ++i)
+            if (toLowerCase(source.at(start + i)) != toLowerCase(source.at(otherStart + i)))
+                return false;
+        return true;
+    }
+
+    private static int toLowerCase(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    private static boolean isAsciiLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.stefanbirkner.contarini.parse;
+
+/**
+ * The input of the {@link WebCrawlerInfoParser}. The parser scans the
+ * input by {@link #at(int)} and only creates strings for the values
+ * that it needs.
+ */
+abstract class Source {
+    /**
+     * Returns the number of characters or bytes.
+     */
+    abstract int length();
+
+    /**
+     * Returns the character or the byte at a position. Bytes are
+     * returned as values between {@code 0} and {@code 255}. The
+     * parser only compares them with ASCII characters, which are
+     * encoded as single bytes in UTF-8.
+     */
+    abstract int at(int position);
+
+    /**
+     * Appends the decoded text between two positions.
+     * @param start the position of the first character or byte.
+     * @param end the position after the last character or byte.
+     * @param sb the {@code StringBuilder} that receives the text.
+     */
+    abstract void appendText(int start, int end, StringBuilder sb);
+
+    /**
+     * Returns the text between two positions with decoded character
+     * references.
+     * @param start the position of the first character or byte.
+     * @param end the position after the last character or byte.
+     * @return the text.
+     */
+    String text(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        appendText(start, end, sb);
+        return CharacterReferences.decode(sb);
+    }
+}
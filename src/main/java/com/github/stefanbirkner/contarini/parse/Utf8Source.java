@@ -0,0 +1,69 @@
+package com.github.stefanbirkner.contarini.parse;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Source} that reads the UTF-8 encoded bytes of a
+ * {@link ByteBuffer} between its position and its limit. It uses
+ * absolute reads and therefore doesn't modify the buffer. Only the
+ * texts that are needed by the parser are decoded.
+ */
+class Utf8Source extends Source {
+    private static final char REPLACEMENT_CHARACTER = '\ufffd';
+    private final ByteBuffer buffer;
+    private final int offset;
+
+    Utf8Source(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.offset = buffer.position();
+    }
+
+    @Override
+    int length() {
+        return buffer.limit() - offset;
+    }
+
+    @Override
+    int at(int position) {
+        return buffer.get(offset + position) & 0xff;
+    }
+
+    @Override
+    void appendText(int start, int end, StringBuilder sb) {
+        int i = start;
+        while (i < end) {
+            int b = at(i++);
+            if (b < 0x80) {
+                sb.append((char) b);
+                continue;
+            }
+            int numberOfContinuationBytes;
+            int codePoint;
+            if ((b & 0xe0) == 0xc0) {
+                numberOfContinuationBytes = 1;
+                codePoint = b & 0x1f;
+            } else if ((b & 0xf0) == 0xe0) {
+                numberOfContinuationBytes = 2;
+                codePoint = b & 0x0f;
+            } else if ((b & 0xf8) == 0xf0) {
+                numberOfContinuationBytes = 3;
+                codePoint = b & 0x07;
+            } else {
+                sb.append(REPLACEMENT_CHARACTER);
+                continue;
+            }
+            boolean malformed = false;
+            for (int j = 0; j < numberOfContinuationBytes; ++j) {
+                if (i >= end || (at(i) & 0xc0) != 0x80) {
+                    malformed = true;
+                    break;
+                }
+                codePoint = (codePoint << 6) | (at(i++) & 0x3f);
+            }
+            if (malformed || !Character.isValidCodePoint(codePoint))
+                sb.append(REPLACEMENT_CHARACTER);
+            else
+                sb.appendCodePoint(codePoint);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.stefanbirkner.contarini.parse;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * The header of a WARC record. Only the fields that are needed by the
+ * {@link CorpusScanner} are read. All offsets are absolute positions
+ * within the buffer that has been parsed.
+ */
+class WarcRecordHeader {
+    private static final byte[] VERSION_PREFIX = ascii("WARC/");
+    private static final byte[] HTTP_PREFIX = ascii("HTTP/");
+
+    final int blockStart;
+    final long contentLength;
+    final String type;
+    final String targetUri;
+
+    private WarcRecordHeader(int blockStart, long contentLength, String type, String targetUri) {
+        this.blockStart = blockStart;
+        this.contentLength = contentLength;
+        this.type = type;
+        this.targetUri = targetUri;
+    }
+
+    /**
+     * Returns {@code true} if the record's block is an HTML document or an
+     * HTTP response that may contain an HTML document.
+     */
+    boolean hasDocument() {
+        return "response".equals(type) || "resource".equals(type);
+    }
+
+    /**
+     * Skips the line breaks between two records.
+     * @return the position of the first byte that is not a line break or
+     * the buffer's limit.
+     */
+    static int skipLineBreaks(ByteBuffer buffer, int start) {
+        int p = start;
+        while (p < buffer.limit() && (buffer.get(p) == '\r' || buffer.get(p) == '\n'))
+            ++p;
+        return p;
+    }
+
+    /**
+     * Parses the header of the record that starts at {@code start}.
+     * @return the header or {@code null} if the header does not end
+     * before the buffer's limit.
+     * @throws IOException if there is no WARC record at {@code start} or
+     * it has no valid {@code Content-Length}.
+     */
+    static WarcRecordHeader parse(ByteBuffer buffer, int start) throws IOException {
+        if (!startsWith(buffer, start, VERSION_PREFIX))
+            throw new IOException("There is no WARC record at position " + start + ".");
+        long contentLength = -1;
+        String type = null;
+        String targetUri = null;
+        int lineStart = endOfLine(buffer, start);
+        while (lineStart >= 0) {
+            int lineEnd = lineStart;
+            while (lineEnd < buffer.limit() && buffer.get(lineEnd) != '\n')
+                ++lineEnd;
+            if (lineEnd == buffer.limit())
+                return null;
+            int contentEnd = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd == lineStart) {
+                if (contentLength < 0)
+                    throw new IOException("The WARC record at position " + start + " has no Content-Length.");
+                return new WarcRecordHeader(lineEnd + 1, contentLength, type, targetUri);
+            }
+            int colon = lineStart;
+            while (colon < contentEnd && buffer.get(colon) != ':')
+                ++colon;
+            String name = ascii(buffer, lineStart, colon).trim();
+            String value = colon < contentEnd ? ascii(buffer, colon + 1, contentEnd).trim() : "";
+            if ("Content-Length".equalsIgnoreCase(name))
+                contentLength = parseContentLength(value, start);
+            else if ("WARC-Type".equalsIgnoreCase(name))
+                type = value;
+            else if ("WARC-Target-URI".equalsIgnoreCase(name))
+                targetUri = value;
+            lineStart = lineEnd + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the start of the HTTP body if the block is an HTTP response
+     * or the start of the block otherwise.
+     */
+    static int startOfDocument(ByteBuffer buffer, int blockStart, int blockEnd) {
+        if (!startsWith(buffer, blockStart, HTTP_PREFIX))
+            return blockStart;
+        for (int p = blockStart; p < blockEnd - 1; ++p)
+            if (buffer.get(p) == '\n'
+                    && (buffer.get(p + 1) == '\n'
+                        || (buffer.get(p + 1) == '\r' && p + 2 < blockEnd && buffer.get(p + 2) == '\n')))
+                return buffer.get(p + 1) == '\n' ? p + 2 : p + 3;
+        return blockEnd;
+    }
+
+    private static int endOfLine(ByteBuffer buffer, int start) {
+        for (int p = start; p < buffer.limit(); ++p)
+            if (buffer.get(p) == '\n')
+                return p + 1;
+        return -1;
+    }
+
+    private static long parseContentLength(String value, int start) throws IOException {
+        try {
+            long length = Long.parseLong(value);
+            if (length >= 0)
+                return length;
+        } catch (NumberFormatException e) {
+            //handled below
+        }
+        throw new IOException("The WARC record at position " + start
+            + " has an invalid Content-Length: " + value);
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int start, byte[] prefix) {
+        if (start + prefix.length > buffer.limit())
+            return false;
+        for (int i = 0; i < prefix.length; ++i)
+            if (buffer.get(start + i) != prefix[i])
+                return false;
+        return true;
+    }
+
+    private static String ascii(ByteBuffer buffer, int start, int end) {
+        char[] chars = new char[end - start];
+        for (int i = 0; i < chars.length; ++i)
+            chars[i] = (char) (buffer.get(start + i) & 0xff);
+        return new String(chars);
+    }
+
+    private static byte[] ascii(String text) {
+        byte[] bytes = new byte[text.length()];
+        for (int i = 0; i < bytes.length; ++i)
+            bytes[i] = (byte) text.charAt(i);
+        return bytes;
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.stefanbirkner.contarini.parse;
+
+import java.nio.ByteBuffer;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * Extracts a {@link WebCrawlerInfo} from the head of an HTML document.
+ * It is the counterpart of the
+ * {@link com.github.stefanbirkner.contarini.render.WebCrawlerInfoRenderer}.
+ * <table>
+ *     <caption>Tags read by WebCrawlerInfoParser</caption>
+ *     <tr>
+ *         <th>Tag</th>
+ *         <th>WebCrawlerInfo property</th>
+ *     </tr>
+ *     <tr>
+ *         <td><code>&lt;link rel="canonical" href="..."&gt;</code></td>
+ *         <td>getCanonical()</td>
+ *     </tr>
+ *     <tr>
+ *         <td><code>&lt;meta name="robots" content="..."&gt;</code></td>
+ *         <td>getAdvices()</td>
+ *     </tr>
+ *     <tr>
+ *         <td><code>&lt;link rel="alternate" hreflang="..." media="..." href="..."&gt;</code></td>
+ *         <td>getAlternates()</td>
+ *     </tr>
+ *     <tr>
+ *         <td><code>&lt;meta name="description" content="..."&gt;</code></td>
+ *         <td>getDescription()</td>
+ *     </tr>
+ *     <tr>
+ *         <td><code>&lt;meta name="keywords" content="..."&gt;</code></td>
+ *         <td>getKeywords()</td>
+ *     </tr>
+ *     <tr>
+ *         <td><code>&lt;meta name="google" content="..."&gt;</code></td>
+ *         <td>getDisabledGoogleFeatures()</td>
+ *     </tr>
+ * </table>
+ * <p>The parser is a forward-only scanner. It stops at {@code </head>}
+ * or at the start of the body. It doesn't build a DOM and it only
+ * creates strings for the values of the tags above. Comments and the
+ * contents of {@code script}, {@code style}, {@code title} and
+ * {@code textarea} elements are skipped. Alternate links with a
+ * {@code type} attribute (e.g. feeds) are ignored, because they are not
+ * alternate pages. Names of tags and attributes and the advices are
+ * case-insensitive.
+ * <p>A {@code WebCrawlerInfoParser} can be shared by multiple threads.
+ * @since 1.3.0
+ */
+public class WebCrawlerInfoParser {
+    /**
+     * Extracts a {@link WebCrawlerInfo} from an HTML document.
+     * @param html the document or its beginning. A
+     *             {@link java.nio.CharBuffer} can be used, too.
+     * @return the {@code WebCrawlerInfo} of the document.
+     */
+    public WebCrawlerInfo parseHead(CharSequence html) {
+        return new HeadScanner(new CharSequenceSource(html)).scan();
+    }
+
+    /**
+     * Extracts a {@link WebCrawlerInfo} from a UTF-8 encoded HTML
+     * document. The document is read between the buffer's position and
+     * its limit. The buffer is not modified. It may be a heap or a
+     * direct buffer.
+     * @param utf8Html the document or its beginning.
+     * @return the {@code WebCrawlerInfo} of the document.
+     */
+    public WebCrawlerInfo parseHead(ByteBuffer utf8Html) {
+        return new HeadScanner(new Utf8Source(utf8Html)).scan();
+    }
+}
@@ -0,0 +1,115 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * Renders the tags of {@link WebCrawlerInfo}s into pooled
+ * {@link ByteBuffer}s for non-blocking I/O. The tags are written
+ * directly into the buffer as UTF-8. Tags that don't fit into a buffer
+ * of the pool are written into a buffer of their exact size, which is
+ * not pooled.
+ * <pre>
+ * PooledByteBuffer tags = asyncRenderer.renderTagsForInfo(info);
+ * try {
+ *     channel.write(tags.buffer());
+ * } finally {
+ *     tags.release();
+ * }
+ * </pre>
+ * <p>Rendering does not block, therefore it can be done on an event
+ * loop thread. Alternatively it can be moved to an {@link Executor} by
+ * the methods that return a {@link Future} or call a
+ * {@link RenderCallback}.
+ * <p>An {@code AsyncWebCrawlerInfoRenderer} can be shared by multiple
+ * threads.
+ * @since 1.3.0
+ */
+public class AsyncWebCrawlerInfoRenderer {
+    private final WebCrawlerInfoRenderer renderer;
+    private final ByteBufferPool pool;
+    private final Executor executor;
+
+    /**
+     * Creates an {@code AsyncWebCrawlerInfoRenderer}.
+     * @param renderer the renderer that writes the tags.
+     * @param pool the pool of the buffers.
+     * @param executor the executor that renders the tags for the
+     *                 methods that return a {@code Future} or call a
+     *                 callback.
+     */
+    public AsyncWebCrawlerInfoRenderer(WebCrawlerInfoRenderer renderer, ByteBufferPool pool, Executor executor) {
+        this.renderer = renderer;
+        this.pool = pool;
+        this.executor = executor;
+    }
+
+    /**
+     * Renders the tags for a {@link WebCrawlerInfo} in the current
+     * thread.
+     * @param info the info.
+     * @return the UTF-8 encoded tags. The buffer is ready for reading
+     * and must be released after use.
+     */
+    public PooledByteBuffer renderTagsForInfo(WebCrawlerInfo info) {
+        PooledByteBuffer tags = pool.acquire();
+        ByteBuffer buffer = tags.buffer();
+        try {
+            renderer.writeTagsForInfoToBuffer(info, buffer);
+            buffer.flip();
+            return tags;
+        } catch (BufferOverflowException e) {
+            tags.release();
+            return new PooledByteBuffer(ByteBuffer.wrap(renderer.renderTagsForInfoToBytes(info)), null);
+        } catch (RuntimeException e) {
+            tags.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Renders the tags for a {@link WebCrawlerInfo} with the executor.
+     * @param info the info.
+     * @return the future UTF-8 encoded tags. The buffer is ready for
+     * reading and must be released after use.
+     */
+    public Future<PooledByteBuffer> renderTagsForInfoAsync(final WebCrawlerInfo info) {
+        FutureTask<PooledByteBuffer> task = new FutureTask<PooledByteBuffer>(new Callable<PooledByteBuffer>() {
+            @Override
+            public PooledByteBuffer call() {
+                return renderTagsForInfo(info);
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Renders the tags for a {@link WebCrawlerInfo} with the executor
+     * and sends them to a callback.
+     * @param info the info.
+     * @param callback receives the tags, which must be released by the
+     *                 callback, or the exception that prevented rendering.
+     */
+    public void renderTagsForInfo(final WebCrawlerInfo info, final RenderCallback callback) {
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                PooledByteBuffer tags;
+                try {
+                    tags = renderTagsForInfo(info);
+                } catch (Throwable t) {
+                    callback.failed(t);
+                    return;
+                }
+                callback.rendered(tags);
+            }
+        });
+    }
+}
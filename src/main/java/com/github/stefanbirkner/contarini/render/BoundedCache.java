@@ -0,0 +1,145 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrent cache that is bounded by the number of entries and by
+ * the total weight of its values. The entries are distributed to
+ * segments that are locked independently. Each segment evicts its
+ * least recently used entries when one of its limits is exceeded.
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+class BoundedCache<K, V> {
+    private static final int MAX_NUMBER_OF_SEGMENTS = 16;
+    private static final int MIN_ENTRIES_PER_SEGMENT = 64;
+    private final Segment[] segments;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Weigher<V> weigher;
+
+    /**
+     * Determines the weight of a value.
+     * @param <V> the type of the values.
+     */
+    interface Weigher<V> {
+        long weigh(V value);
+    }
+
+    BoundedCache(int maxEntries, long maxWeight, Weigher<V> weigher) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("The cache must be able to store at least one entry.");
+        if (maxWeight < 1)
+            throw new IllegalArgumentException("The maximum weight must be positive.");
+        this.weigher = weigher;
+        int numberOfSegments = numberOfSegments(maxEntries);
+        //an array of the generic inner class can only be created raw
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Segment[] segments = (Segment[]) new BoundedCache.Segment[numberOfSegments];
+        this.segments = segments;
+        for (int i = 0; i < numberOfSegments; ++i)
+            segments[i] = new Segment(maxEntries / numberOfSegments, maxWeight / numberOfSegments);
+    }
+
+    private static int numberOfSegments(int maxEntries) {
+        int numberOfSegments = 1;
+        while (numberOfSegments < MAX_NUMBER_OF_SEGMENTS
+                && 2 * numberOfSegments * MIN_ENTRIES_PER_SEGMENT <= maxEntries)
+            numberOfSegments *= 2;
+        return numberOfSegments;
+    }
+
+    /**
+     * Returns the cached value for the key.
+     * @param key the key.
+     * @return the cached value or {@code null} if there is no value
+     * for the key.
+     */
+    V get(K key) {
+        V value = segmentFor(key).get(key);
+        if (value == null)
+            misses.incrementAndGet();
+        else
+            hits.incrementAndGet();
+        return value;
+    }
+
+    /**
+     * Stores a value for the key. Values that are heavier than a
+     * whole segment are not stored at all.
+     * @param key the key.
+     * @param value the value.
+     */
+    void put(K key, V value) {
+        segmentFor(key).put(key, value, weigher.weigh(value));
+    }
+
+    long getHitCount() {
+        return hits.get();
+    }
+
+    long getMissCount() {
+        return misses.get();
+    }
+
+    long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private Segment segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[h & (segments.length - 1)];
+    }
+
+    private class Segment {
+        final Map<Object, WeighedValue<V>> entries
+            = new LinkedHashMap<Object, WeighedValue<V>>(16, 0.75f, true);
+        final int maxEntries;
+        final long maxWeight;
+        long weight = 0;
+
+        Segment(int maxEntries, long maxWeight) {
+            this.maxEntries = maxEntries;
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized V get(Object key) {
+            WeighedValue<V> entry = entries.get(key);
+            return entry == null ? null : entry.value;
+        }
+
+        synchronized void put(Object key, V value, long weightOfValue) {
+            if (weightOfValue > maxWeight)
+                return;
+            WeighedValue<V> previous = entries.put(key, new WeighedValue<V>(value, weightOfValue));
+            if (previous != null)
+                weight -= previous.weight;
+            weight += weightOfValue;
+            evictEldestEntriesWhileLimitsAreExceeded();
+        }
+
+        private void evictEldestEntriesWhileLimitsAreExceeded() {
+            Iterator<WeighedValue<V>> eldestFirst = entries.values().iterator();
+            while (entries.size() > maxEntries || weight > maxWeight) {
+                weight -= eldestFirst.next().weight;
+                eldestFirst.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private static class WeighedValue<V> {
+        final V value;
+        final long weight;
+
+        WeighedValue(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of {@link ByteBuffer}s with the same capacity. Buffers are
+ * taken with {@link #acquire()} and returned with
+ * {@link PooledByteBuffer#release()}.
+ * <p>The free buffers are kept in a lock-free queue. The pool uses
+ * neither locks nor thread-local state, therefore it can be shared by
+ * many threads (including virtual threads that are not bound to a
+ * single carrier thread). If the pool is empty a new buffer is
+ * allocated. At most {@code maxPooledBuffers} free buffers are kept,
+ * the others are left to the garbage collector.
+ * @since 1.3.0
+ */
+public class ByteBufferPool {
+    private final Queue<ByteBuffer> freeBuffers = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final AtomicInteger numberOfFreeBuffers = new AtomicInteger();
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+    private final boolean direct;
+
+    /**
+     * Creates a {@code ByteBufferPool}.
+     * @param bufferSize the capacity of the buffers.
+     * @param maxPooledBuffers the maximum number of free buffers that
+     *                         are kept by the pool.
+     * @param direct {@code true} for direct buffers and {@code false}
+     *               for heap buffers.
+     */
+    public ByteBufferPool(int bufferSize, int maxPooledBuffers, boolean direct) {
+        if (bufferSize <= 0)
+            throw new IllegalArgumentException("The buffer size must be positive, but is " + bufferSize + ".");
+        if (maxPooledBuffers < 0)
+            throw new IllegalArgumentException(
+                "The maximum number of pooled buffers must not be negative, but is " + maxPooledBuffers + ".");
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = maxPooledBuffers;
+        this.direct = direct;
+    }
+
+    /**
+     * Returns the capacity of the pool's buffers.
+     * @return the capacity of the pool's buffers.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the number of free buffers that are kept by the pool.
+     * @return the number of free buffers.
+     */
+    public int getNumberOfFreeBuffers() {
+        return numberOfFreeBuffers.get();
+    }
+
+    /**
+     * Takes a cleared buffer from the pool or allocates a new one.
+     * @return a buffer that must be released after use.
+     */
+    public PooledByteBuffer acquire() {
+        ByteBuffer buffer = freeBuffers.poll();
+        if (buffer == null)
+            buffer = direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+        else
+            numberOfFreeBuffers.decrementAndGet();
+        return new PooledByteBuffer(buffer, this);
+    }
+
+    void release(ByteBuffer buffer) {
+        if (numberOfFreeBuffers.incrementAndGet() <= maxPooledBuffers) {
+            buffer.clear();
+            freeBuffers.offer(buffer);
+        } else {
+            numberOfFreeBuffers.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Utf8Sink} that writes to a {@link ByteBuffer} that is
+ * provided by the caller. It cannot drain the buffer and therefore
+ * fails if the buffer is too small.
+ */
+class ByteBufferSink extends Utf8Sink {
+    ByteBufferSink(ByteBuffer buffer) {
+        super(buffer);
+    }
+
+    @Override
+    void drain() {
+        throw new BufferOverflowException();
+    }
+}
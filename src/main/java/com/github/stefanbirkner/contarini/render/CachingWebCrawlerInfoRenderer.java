@@ -0,0 +1,140 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * A {@link WebCrawlerInfoRenderer} that memoizes the rendered tags.
+ * The tags for a {@link WebCrawlerInfo} are rendered once and stored
+ * as text and as UTF-8 encoded bytes. Each renderer has its own cache
+ * and renders with a single {@link Style}, therefore the cache is
+ * keyed by the {@code WebCrawlerInfo} only. Writing the tags of a
+ * cached {@code WebCrawlerInfo} needs a single lookup and a single
+ * bulk write.
+ * <p>The cache is bounded by the number of {@code WebCrawlerInfo}s
+ * and by the memory that is used by the rendered tags. Least recently
+ * used entries are evicted if one of the limits is exceeded. The
+ * renderer can be shared by multiple threads.
+ * @since 1.3.0
+ */
+public class CachingWebCrawlerInfoRenderer extends WebCrawlerInfoRenderer {
+    private static final BoundedCache.Weigher<Fragment> BYTES_OF_RENDERED_TAGS
+        = new BoundedCache.Weigher<Fragment>() {
+            @Override
+            public long weigh(Fragment tags) {
+                return 2L * tags.chars.length() + tags.utf8.length;
+            }
+        };
+    private final BoundedCache<WebCrawlerInfo, Fragment> cache;
+
+    /**
+     * Creates a {@code CachingWebCrawlerInfoRenderer} that renders
+     * HTML tags with the default {@link Style}.
+     * @param maxEntries the maximum number of {@code WebCrawlerInfo}s
+     *                   whose tags are cached.
+     * @param maxBytes the approximate maximum number of bytes that are
+     *                 used by the cached tags.
+     */
+    public CachingWebCrawlerInfoRenderer(int maxEntries, long maxBytes) {
+        this(new Style(), maxEntries, maxBytes);
+    }
+
+    /**
+     * Creates a {@code CachingWebCrawlerInfoRenderer} that renders
+     * HTML tags with the specified {@link Style}.
+     * @param style the {@link Style} that specifies the format of the
+     *              generated HTML.
+     * @param maxEntries the maximum number of {@code WebCrawlerInfo}s
+     *                   whose tags are cached.
+     * @param maxBytes the approximate maximum number of bytes that are
+     *                 used by the cached tags.
+     */
+    public CachingWebCrawlerInfoRenderer(Style style, int maxEntries, long maxBytes) {
+        super(style);
+        cache = new BoundedCache<WebCrawlerInfo, Fragment>(maxEntries, maxBytes, BYTES_OF_RENDERED_TAGS);
+    }
+
+    @Override
+    public void writeTagsForInfoToWriter(WebCrawlerInfo info, Writer w) throws IOException {
+        w.write(renderedTagsForInfo(info).chars);
+    }
+
+    @Override
+    public void writeTagsForInfoToStream(WebCrawlerInfo info, OutputStream os) throws IOException {
+        os.write(renderedTagsForInfo(info).utf8);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>The buffer is not modified if there is insufficient space.
+     */
+    @Override
+    public void writeTagsForInfoToBuffer(WebCrawlerInfo info, ByteBuffer buffer) {
+        buffer.put(renderedTagsForInfo(info).utf8);
+    }
+
+    @Override
+    public void writeTagsForInfoToChannel(WebCrawlerInfo info, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(renderedTagsForInfo(info).utf8);
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    @Override
+    public int lengthOfTagsForInfo(WebCrawlerInfo info) {
+        return renderedTagsForInfo(info).chars.length();
+    }
+
+    @Override
+    public int utf8LengthOfTagsForInfo(WebCrawlerInfo info) {
+        return renderedTagsForInfo(info).utf8.length;
+    }
+
+    @Override
+    public String renderTagsForInfoToString(WebCrawlerInfo info) {
+        return renderedTagsForInfo(info).chars;
+    }
+
+    @Override
+    public byte[] renderTagsForInfoToBytes(WebCrawlerInfo info) {
+        return renderedTagsForInfo(info).utf8.clone();
+    }
+
+    /**
+     * Returns the number of times that the tags have been taken from
+     * the cache.
+     */
+    public long getHitCount() {
+        return cache.getHitCount();
+    }
+
+    /**
+     * Returns the number of times that the tags had to be rendered
+     * because they were not cached.
+     */
+    public long getMissCount() {
+        return cache.getMissCount();
+    }
+
+    /**
+     * Returns the number of rendered tags that have been removed from
+     * the cache in order to stay within its limits.
+     */
+    public long getEvictionCount() {
+        return cache.getEvictionCount();
+    }
+
+    private Fragment renderedTagsForInfo(WebCrawlerInfo info) {
+        Fragment tags = cache.get(info);
+        if (tags == null) {
+            tags = new Fragment(super.renderTagsForInfoToString(info));
+            cache.put(info, tags);
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A {@link Utf8Sink} that collects the bytes in a buffer and writes
+ * them to a {@link WritableByteChannel} whenever the buffer is full.
+ * {@link #flush()} has to be called after the last tag.
+ */
+class ChannelSink extends Utf8Sink {
+    private static final int BUFFER_SIZE = 2048;
+    private final WritableByteChannel channel;
+
+    ChannelSink(WritableByteChannel channel) {
+        super(ByteBuffer.allocate(BUFFER_SIZE));
+        this.channel = channel;
+    }
+
+    @Override
+    void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    void flush() throws IOException {
+        if (buffer.position() > 0)
+            drain();
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.stefanbirkner.contarini.render;
+
+/**
+ * A {@link TagSink} that writes the characters to an array whose size
+ * has been calculated by a {@link LengthSink} before.
+ */
+class CharArraySink extends TagSink {
+    final char[] chars;
+    private int position = 0;
+
+    CharArraySink(int length) {
+        chars = new char[length];
+    }
+
+    @Override
+    void write(Fragment fragment) {
+        writeChars(fragment.chars);
+    }
+
+    @Override
+    void writeEscaped(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; ++i) {
+            char c = text.charAt(i);
+            String escapeSequence = HtmlEscaper.escapeSequenceFor(c);
+            if (escapeSequence == null)
+                chars[position++] = c;
+            else
+                writeChars(escapeSequence);
+        }
+    }
+
+    private void writeChars(String text) {
+        text.getChars(0, text.length(), chars, position);
+        position += text.length();
+    }
+}
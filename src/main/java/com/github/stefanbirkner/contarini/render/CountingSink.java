@@ -0,0 +1,71 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.IOException;
+
+/**
+ * A {@link TagSink} that passes the output to another {@code TagSink}
+ * and measures it with a {@link LengthSink}. It counts the tags per
+ * kind, too. It is only used if the renderer has a
+ * {@link RenderListener}.
+ */
+class CountingSink extends TagSink implements RenderedTags {
+    private final LengthSink length = new LengthSink();
+    private final int[] tags = new int[NUMBER_OF_KINDS_OF_TAGS];
+    private final TagSink sink;
+
+    CountingSink(TagSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    void write(Fragment fragment) throws IOException {
+        length.write(fragment);
+        sink.write(fragment);
+    }
+
+    @Override
+    void writeEscaped(String text) throws IOException {
+        length.writeEscaped(text);
+        sink.writeEscaped(text);
+    }
+
+    @Override
+    void tagsWritten(int kind, int numberOfTags) {
+        tags[kind] += numberOfTags;
+    }
+
+    @Override
+    public int getCanonicalTags() {
+        return tags[CANONICAL_TAGS];
+    }
+
+    @Override
+    public int getRobotsTags() {
+        return tags[ROBOTS_TAGS];
+    }
+
+    @Override
+    public int getAlternateTags() {
+        return tags[ALTERNATE_TAGS];
+    }
+
+    @Override
+    public int getMetaTags() {
+        return tags[META_TAGS];
+    }
+
+    @Override
+    public int getChars() {
+        return length.chars;
+    }
+
+    @Override
+    public int getUtf8Bytes() {
+        return length.utf8Bytes;
+    }
+
+    @Override
+    public int getEscapedChars() {
+        return length.escapedChars;
+    }
+}
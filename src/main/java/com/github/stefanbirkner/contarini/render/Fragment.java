@@ -0,0 +1,28 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.nio.charset.Charset;
+
+/**
+ * A constant part of the output. It provides the text as well as its
+ * UTF-8 representation so that neither has to be created while
+ * rendering.
+ */
+class Fragment {
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+    final String chars;
+    final byte[] utf8;
+
+    Fragment(String chars) {
+        this(chars, chars.getBytes(UTF_8));
+    }
+
+    Fragment(String chars, byte[] utf8) {
+        this.chars = chars;
+        this.utf8 = utf8;
+    }
+
+    @Override
+    public String toString() {
+        return chars;
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * An {@link OutputStream} that inserts the tags of a
+ * {@link WebCrawlerInfo} into an HTML document that is streamed through
+ * it. It works like the {@link HeadInjectingWriter} but for bytes. The
+ * document must have an ASCII-compatible encoding (e.g. UTF-8 or
+ * ISO-8859-1). The tags are written as UTF-8.
+ * <pre>
+ * OutputStream stream = new HeadInjectingOutputStream(response.getOutputStream(), renderer, info);
+ * </pre>
+ * <p>The document is not buffered. Only bytes that may be the beginning
+ * of the marker are held back until the next bytes arrive.
+ * {@link #flush()} does not write the bytes that are held back, but
+ * {@link #close()} does.
+ * @since 1.3.0
+ */
+public class HeadInjectingOutputStream extends FilterOutputStream {
+    private final WebCrawlerInfoRenderer renderer;
+    private final WebCrawlerInfo info;
+    private final MarkerMatcher matcher;
+    private final byte[] pending;
+    private final byte[] singleByte = new byte[1];
+    private boolean injected = false;
+
+    /**
+     * Creates a {@code HeadInjectingOutputStream} that inserts the tags
+     * before {@code </head>}.
+     * @param out the stream of the document.
+     * @param renderer the renderer that writes the tags.
+     * @param info the info whose tags are inserted.
+     */
+    public HeadInjectingOutputStream(OutputStream out, WebCrawlerInfoRenderer renderer, WebCrawlerInfo info) {
+        this(out, renderer, info, HeadInjectingWriter.END_OF_HEAD);
+    }
+
+    /**
+     * Creates a {@code HeadInjectingOutputStream} that inserts the tags
+     * before a marker.
+     * @param out the stream of the document.
+     * @param renderer the renderer that writes the tags.
+     * @param info the info whose tags are inserted.
+     * @param marker the text that the tags are inserted before. It must
+     *               be ASCII.
+     */
+    public HeadInjectingOutputStream(OutputStream out, WebCrawlerInfoRenderer renderer, WebCrawlerInfo info,
+            String marker) {
+        super(out);
+        this.renderer = renderer;
+        this.info = info;
+        this.matcher = new MarkerMatcher(marker);
+        if (!matcher.isAscii())
+            throw new IllegalArgumentException("The marker " + marker + " is not ASCII.");
+        this.pending = new byte[marker.length()];
+    }
+
+    /**
+     * Returns whether the tags have been inserted.
+     * @return {@code true} if the marker has been found.
+     */
+    public boolean isInjected() {
+        return injected;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        singleByte[0] = (byte) b;
+        write(singleByte, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (injected) {
+            out.write(b, off, len);
+            return;
+        }
+        int pendingBefore = matcher.matched();
+        int end = off + len;
+        int afterMarker = matcher.find(b, off, end);
+        if (afterMarker < 0)
+            holdBackEnd(b, off, end, pendingBefore);
+        else
+            injectBeforeMarker(b, off, end, pendingBefore, afterMarker);
+    }
+
+    /**
+     * Writes the pending bytes and the bytes of the chunk that are
+     * not part of the marker's beginning and holds back the others.
+     */
+    private void holdBackEnd(byte[] b, int off, int end, int pendingBefore) throws IOException {
+        int stillMatched = matcher.matched();
+        int releasedFromPending = Math.min(pendingBefore, pendingBefore + end - off - stillMatched);
+        out.write(pending, 0, releasedFromPending);
+        int keptFromPending = pendingBefore - releasedFromPending;
+        System.arraycopy(pending, releasedFromPending, pending, 0, keptFromPending);
+        int keptFromChunk = stillMatched - keptFromPending;
+        out.write(b, off, end - off - keptFromChunk);
+        System.arraycopy(b, end - keptFromChunk, pending, keptFromPending, keptFromChunk);
+    }
+
+    /**
+     * Writes everything before the marker, the tags, the marker and the
+     * rest of the chunk. The marker's beginning may be pending.
+     */
+    private void injectBeforeMarker(byte[] b, int off, int end, int pendingBefore, int afterMarker)
+            throws IOException {
+        int markerInChunk = Math.min(matcher.length(), afterMarker - off);
+        int markerInPending = matcher.length() - markerInChunk;
+        int startOfMarker = afterMarker - markerInChunk;
+        out.write(pending, 0, pendingBefore - markerInPending);
+        out.write(b, off, startOfMarker - off);
+        renderer.writeTagsForInfoToStream(info, out);
+        injected = true;
+        out.write(pending, pendingBefore - markerInPending, markerInPending);
+        out.write(b, startOfMarker, end - startOfMarker);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!injected)
+            out.write(pending, 0, matcher.matched());
+        super.close();
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * A {@link Writer} that inserts the tags of a {@link WebCrawlerInfo}
+ * into an HTML document that is streamed through it. The tags are
+ * written directly before the first {@code </head>} (or another
+ * marker). The marker is matched case-insensitively.
+ * <pre>
+ * Writer writer = new HeadInjectingWriter(response.getWriter(), renderer, info);
+ * </pre>
+ * <p>The document is not buffered. Only chars that may be the beginning
+ * of the marker are held back until the next chars arrive. Therefore a
+ * marker that is split across multiple writes is found, too. Nothing is
+ * inserted if the document has no marker. {@link #flush()} does not
+ * write the chars that are held back, but {@link #close()} does.
+ * @see HeadInjectingOutputStream
+ * @since 1.3.0
+ */
+public class HeadInjectingWriter extends FilterWriter {
+    /**
+     * The default marker. The tags are inserted before it.
+     */
+    public static final String END_OF_HEAD = "</head>";
+    private static final int BUFFER_SIZE = 1024;
+    private final WebCrawlerInfoRenderer renderer;
+    private final WebCrawlerInfo info;
+    private final MarkerMatcher matcher;
+    private final char[] pending;
+    //reused for copying the chars of single chars and strings
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private boolean injected = false;
+
+    /**
+     * Creates a {@code HeadInjectingWriter} that inserts the tags before
+     * {@code </head>}.
+     * @param out the writer of the document.
+     * @param renderer the renderer that writes the tags.
+     * @param info the info whose tags are inserted.
+     */
+    public HeadInjectingWriter(Writer out, WebCrawlerInfoRenderer renderer, WebCrawlerInfo info) {
+        this(out, renderer, info, END_OF_HEAD);
+    }
+
+    /**
+     * Creates a {@code HeadInjectingWriter} that inserts the tags before
+     * a marker.
+     * @param out the writer of the document.
+     * @param renderer the renderer that writes the tags.
+     * @param info the info whose tags are inserted.
+     * @param marker the text that the tags are inserted before.
+     */
+    public HeadInjectingWriter(Writer out, WebCrawlerInfoRenderer renderer, WebCrawlerInfo info, String marker) {
+        super(out);
+        this.renderer = renderer;
+        this.info = info;
+        this.matcher = new MarkerMatcher(marker);
+        this.pending = new char[marker.length()];
+    }
+
+    /**
+     * Returns whether the tags have been inserted.
+     * @return {@code true} if the marker has been found.
+     */
+    public boolean isInjected() {
+        return injected;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        buffer[0] = (char) c;
+        write(buffer, 0, 1);
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        int end = off + len;
+        int start = off;
+        while (start < end && !injected) {
+            int chunkEnd = Math.min(end, start + BUFFER_SIZE);
+            str.getChars(start, chunkEnd, buffer, 0);
+            write(buffer, 0, chunkEnd - start);
+            start = chunkEnd;
+        }
+        if (start < end)
+            out.write(str, start, end - start);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (injected) {
+            out.write(cbuf, off, len);
+            return;
+        }
+        int pendingBefore = matcher.matched();
+        int end = off + len;
+        int afterMarker = matcher.find(cbuf, off, end);
+        if (afterMarker < 0)
+            holdBackEnd(cbuf, off, end, pendingBefore);
+        else
+            injectBeforeMarker(cbuf, off, end, pendingBefore, afterMarker);
+    }
+
+    /**
+     * Writes the pending chars and the chars of the chunk that are
+     * not part of the marker's beginning and holds back the others.
+     */
+    private void holdBackEnd(char[] cbuf, int off, int end, int pendingBefore) throws IOException {
+        int stillMatched = matcher.matched();
+        int releasedFromPending = Math.min(pendingBefore, pendingBefore + end - off - stillMatched);
+        out.write(pending, 0, releasedFromPending);
+        int keptFromPending = pendingBefore - releasedFromPending;
+        System.arraycopy(pending, releasedFromPending, pending, 0, keptFromPending);
+        int keptFromChunk = stillMatched - keptFromPending;
+        out.write(cbuf, off, end - off - keptFromChunk);
+        System.arraycopy(cbuf, end - keptFromChunk, pending, keptFromPending, keptFromChunk);
+    }
+
+    /**
+     * Writes everything before the marker, the tags, the marker and the
+     * rest of the chunk. The marker's beginning may be pending.
+     */
+    private void injectBeforeMarker(char[] cbuf, int off, int end, int pendingBefore, int afterMarker)
+            throws IOException {
+        int markerInChunk = Math.min(matcher.length(), afterMarker - off);
+        int markerInPending = matcher.length() - markerInChunk;
+        int startOfMarker = afterMarker - markerInChunk;
+        out.write(pending, 0, pendingBefore - markerInPending);
+        out.write(cbuf, off, startOfMarker - off);
+        renderer.writeTagsForInfoToWriter(info, out);
+        injected = true;
+        out.write(pending, pendingBefore - markerInPending, markerInPending);
+        out.write(cbuf, startOfMarker, end - startOfMarker);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!injected)
+            out.write(pending, 0, matcher.matched());
+        super.close();
+    }
+}
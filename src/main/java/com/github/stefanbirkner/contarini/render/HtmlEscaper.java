@@ -0,0 +1,75 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escapes texts for the usage in HTML attribute values. The text is
+ * scanned only once. Runs of characters that don't have to be escaped
+ * are written to the {@link Writer} as they are, the other characters
+ * are replaced by their escape sequences. Nothing is allocated if the
+ * text doesn't contain characters that have to be escaped.
+ */
+class HtmlEscaper {
+    private static final String[] ESCAPE_SEQUENCES = new String['>' + 1];
+    private static final byte[][] UTF8_ESCAPE_SEQUENCES = new byte[ESCAPE_SEQUENCES.length][];
+
+    static {
+        ESCAPE_SEQUENCES['&'] = "&amp;";
+        ESCAPE_SEQUENCES['<'] = "&lt;";
+        ESCAPE_SEQUENCES['>'] = "&gt;";
+        ESCAPE_SEQUENCES['"'] = "&quot;";
+        ESCAPE_SEQUENCES['\''] = "&apos;";
+        for (int i = 0; i < ESCAPE_SEQUENCES.length; ++i)
+            if (ESCAPE_SEQUENCES[i] != null)
+                UTF8_ESCAPE_SEQUENCES[i] = ESCAPE_SEQUENCES[i].getBytes(Fragment.UTF_8);
+    }
+
+    private HtmlEscaper() {
+    }
+
+    /**
+     * Writes the escaped text to the writer.
+     * @param text the text that has to be escaped.
+     * @param w the {@link Writer}.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void escape(String text, Writer w) throws IOException {
+        int length = text.length();
+        int startOfRun = 0;
+        for (int i = 0; i < length; ++i) {
+            String escapeSequence = escapeSequenceFor(text.charAt(i));
+            if (escapeSequence != null) {
+                writeRun(text, startOfRun, i, w);
+                w.write(escapeSequence);
+                startOfRun = i + 1;
+            }
+        }
+        writeRun(text, startOfRun, length, w);
+    }
+
+    /**
+     * Returns the escape sequence for a character.
+     * @param c the character.
+     * @return the escape sequence or {@code null} if the character
+     * doesn't have to be escaped.
+     */
+    static String escapeSequenceFor(char c) {
+        return c < ESCAPE_SEQUENCES.length ? ESCAPE_SEQUENCES[c] : null;
+    }
+
+    /**
+     * Returns the UTF-8 encoded escape sequence for a character.
+     * @param c the character.
+     * @return the escape sequence or {@code null} if the character
+     * doesn't have to be escaped.
+     */
+    static byte[] utf8EscapeSequenceFor(char c) {
+        return c < UTF8_ESCAPE_SEQUENCES.length ? UTF8_ESCAPE_SEQUENCES[c] : null;
+    }
+
+    private static void writeRun(String text, int start, int end, Writer w) throws IOException {
+        if (start < end)
+            w.write(text, start, end - start);
+    }
+}
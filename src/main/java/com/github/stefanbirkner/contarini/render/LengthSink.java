@@ -0,0 +1,48 @@
+package com.github.stefanbirkner.contarini.render;
+
+/**
+ * A {@link TagSink} that doesn't write anything but counts the
+ * characters and the UTF-8 encoded bytes of the output including the
+ * expansion by escape sequences. It counts the escaped characters,
+ * too.
+ */
+class LengthSink extends TagSink {
+    int chars = 0;
+    int utf8Bytes = 0;
+    int escapedChars = 0;
+
+    @Override
+    void write(Fragment fragment) {
+        chars += fragment.chars.length();
+        utf8Bytes += fragment.utf8.length;
+    }
+
+    @Override
+    void writeEscaped(String text) {
+        int length = text.length();
+        for (int i = 0; i < length; ++i) {
+            char c = text.charAt(i);
+            String escapeSequence = HtmlEscaper.escapeSequenceFor(c);
+            if (escapeSequence != null) {
+                ++escapedChars;
+                chars += escapeSequence.length();
+                utf8Bytes += escapeSequence.length();
+            } else {
+                ++chars;
+                if (c < 0x80)
+                    utf8Bytes += 1;
+                else if (c < 0x800)
+                    utf8Bytes += 2;
+                else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    ++chars;
+                    ++i;
+                    utf8Bytes += 4;
+                } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE)
+                    utf8Bytes += 1;
+                else
+                    utf8Bytes += 3;
+            }
+        }
+    }
+}
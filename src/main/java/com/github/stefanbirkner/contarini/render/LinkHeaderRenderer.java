@@ -0,0 +1,146 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * Creates the value of an HTTP {@code Link} header (RFC 8288) for the
+ * canonical URL and the alternates of a {@link WebCrawlerInfo}.
+ * <pre>
+ * &lt;http://example.com/&gt;; rel="canonical", &lt;http://example.com/de&gt;; rel="alternate"; hreflang="de"
+ * </pre>
+ * <p>The header is the counterpart of the link tags for documents that
+ * are not HTML. It can be sent in a {@code 103 Early Hints} response,
+ * too, so that clients know the relations before the body arrives. The
+ * same value can be used for the early hints and the final response.
+ * <p>Characters of URLs that are not allowed in a header (spaces,
+ * {@code <}, {@code >}, control and non-ASCII characters) are
+ * percent-encoded as UTF-8. Quotes and backslashes of the
+ * {@code hreflang} and {@code media} parameters are escaped.
+ * <p>A renderer that is created with limits caches the values by their
+ * {@code WebCrawlerInfo}s like the
+ * {@link CachingWebCrawlerInfoRenderer}. A {@code LinkHeaderRenderer}
+ * can be shared by multiple threads.
+ * @since 1.3.0
+ */
+public class LinkHeaderRenderer {
+    /**
+     * The name of the HTTP header.
+     */
+    public static final String HEADER_NAME = "Link";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final BoundedCache.Weigher<String> CHARS_OF_VALUE = new BoundedCache.Weigher<String>() {
+        @Override
+        public long weigh(String value) {
+            return value.length();
+        }
+    };
+    private final BoundedCache<WebCrawlerInfo, String> cache;
+
+    /**
+     * Creates a renderer without a cache.
+     */
+    public LinkHeaderRenderer() {
+        this.cache = null;
+    }
+
+    /**
+     * Creates a renderer that caches the header values.
+     * @param maxEntries the maximum number of {@code WebCrawlerInfo}s
+     *                   whose header values are cached.
+     * @param maxChars the maximum number of chars of the cached values.
+     */
+    public LinkHeaderRenderer(int maxEntries, long maxChars) {
+        this.cache = new BoundedCache<WebCrawlerInfo, String>(maxEntries, maxChars, CHARS_OF_VALUE);
+    }
+
+    /**
+     * Returns the value of the {@code Link} header for a
+     * {@link WebCrawlerInfo}. Only the canonical URL and the alternates
+     * are used.
+     * @param info the info.
+     * @return the value of the header or {@code null} if the info has
+     * neither a canonical URL nor alternates.
+     * @throws IllegalArgumentException if the hreflang or media of an
+     * alternate contains a control character.
+     */
+    public String headerValueForInfo(WebCrawlerInfo info) {
+        if (info.getCanonical() == null && info.getAlternates().isEmpty())
+            return null;
+        else if (cache == null)
+            return buildValue(info);
+        String value = cache.get(info);
+        if (value == null) {
+            value = buildValue(info);
+            cache.put(info, value);
+        }
+        return value;
+    }
+
+    private String buildValue(WebCrawlerInfo info) {
+        StringBuilder sb = new StringBuilder();
+        if (info.getCanonical() != null)
+            appendLink(sb, info.getCanonical()).append("; rel=\"canonical\"");
+        List<Alternate> alternates = info.getAlternates();
+        for (int i = 0; i < alternates.size(); ++i) {
+            Alternate alternate = alternates.get(i);
+            if (sb.length() > 0)
+                sb.append(", ");
+            appendLink(sb, alternate.href).append("; rel=\"alternate\"");
+            if (alternate.language != null)
+                appendParameter(sb, "hreflang", alternate.language);
+            if (alternate.media != null)
+                appendParameter(sb, "media", alternate.media);
+        }
+        return sb.toString();
+    }
+
+    private static StringBuilder appendLink(StringBuilder sb, String url) {
+        sb.append('<');
+        for (int i = 0; i < url.length(); ++i) {
+            char c = url.charAt(i);
+            if (c > ' ' && c < 0x7f && c != '<' && c != '>')
+                sb.append(c);
+            else
+                appendPercentEncoded(sb, url, i);
+        }
+        return sb.append('>');
+    }
+
+    private static void appendPercentEncoded(StringBuilder sb, String url, int index) {
+        char c = url.charAt(index);
+        if (c < 0x80) {
+            appendPercentEncodedByte(sb, c);
+        } else if (Character.isHighSurrogate(c) && index + 1 < url.length()
+                && Character.isLowSurrogate(url.charAt(index + 1))) {
+            //the low surrogate is encoded together with the high surrogate
+            for (byte b : url.substring(index, index + 2).getBytes(UTF_8))
+                appendPercentEncodedByte(sb, b);
+        } else if (!Character.isLowSurrogate(c) || index == 0 || !Character.isHighSurrogate(url.charAt(index - 1))) {
+            for (byte b : String.valueOf(c).getBytes(UTF_8))
+                appendPercentEncodedByte(sb, b);
+        }
+    }
+
+    private static void appendPercentEncodedByte(StringBuilder sb, int b) {
+        sb.append('%').append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+    }
+
+    private static void appendParameter(StringBuilder sb, String name, String value) {
+        sb.append("; ").append(name).append("=\"");
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c < ' ' || c == 0x7f)
+                throw new IllegalArgumentException("The " + name + " \"" + value
+                    + "\" contains a control character and cannot be used in an HTTP header.");
+            if (c == '"' || c == '\\')
+                sb.append('\\');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
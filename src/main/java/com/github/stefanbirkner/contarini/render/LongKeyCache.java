@@ -0,0 +1,74 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A cache with {@code long} keys that is read without boxing the key
+ * and without a lock. It is an open addressing hash table with linear
+ * probing and a fixed capacity. Entries are never removed. A value is
+ * not stored if the slots that may hold its key are already occupied,
+ * therefore the cache never grows beyond its capacity.
+ * @param <V> the type of the values.
+ */
+class LongKeyCache<V> {
+    private static final int MAX_PROBES = 8;
+    private final AtomicReferenceArray<Entry<V>> slots;
+    private final int shift;
+
+    /**
+     * @param numberOfSlots a power of two.
+     */
+    LongKeyCache(int numberOfSlots) {
+        slots = new AtomicReferenceArray<Entry<V>>(numberOfSlots);
+        shift = 64 - Integer.numberOfTrailingZeros(numberOfSlots);
+    }
+
+    /**
+     * Returns the value of a key.
+     * @return the value or {@code null} if it is not stored.
+     */
+    V get(long key) {
+        int mask = slots.length() - 1;
+        int slot = firstSlotOf(key);
+        for (int probe = 0; probe < MAX_PROBES; ++probe) {
+            Entry<V> entry = slots.get(slot);
+            if (entry == null)
+                return null;
+            if (entry.key == key)
+                return entry.value;
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Stores the value of a key if there is a free slot for it.
+     */
+    void put(long key, V value) {
+        int mask = slots.length() - 1;
+        int slot = firstSlotOf(key);
+        Entry<V> newEntry = new Entry<V>(key, value);
+        for (int probe = 0; probe < MAX_PROBES; ++probe) {
+            //a slot is never cleared, hence get() stops at the same free slot
+            if (slots.compareAndSet(slot, null, newEntry))
+                return;
+            if (slots.get(slot).key == key)
+                return;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int firstSlotOf(long key) {
+        return (int) ((key * 0x9e3779b97f4a7c15L) >>> shift);
+    }
+
+    private static class Entry<V> {
+        final long key;
+        final V value;
+
+        Entry(long key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.stefanbirkner.contarini.render;
+
+/**
+ * Finds a marker (e.g. {@code </head>}) in a stream of chars or bytes
+ * that arrives in chunks. The marker is matched case-insensitively for
+ * ASCII letters. Like the Knuth-Morris-Pratt algorithm it never reads a
+ * char twice: after a mismatch it falls back to the longest prefix of the
+ * marker that is still matched.
+ * <p>The matcher remembers the number of chars at the end of the
+ * previous chunks that match the beginning of the marker. The
+ * {@link HeadInjectingWriter} and the {@link HeadInjectingOutputStream}
+ * hold back exactly these chars.
+ */
+class MarkerMatcher {
+    private final char[] marker;
+    /**
+     * {@code fallback[i]} is the length of the longest proper prefix of
+     * the marker that is a suffix of the marker's first {@code i + 1}
+     * chars.
+     */
+    private final int[] fallback;
+    private int matched = 0;
+
+    MarkerMatcher(String marker) {
+        if (marker.length() == 0)
+            throw new IllegalArgumentException("The marker is empty.");
+        this.marker = new char[marker.length()];
+        for (int i = 0; i < marker.length(); ++i)
+            this.marker[i] = (char) toLowerCase(marker.charAt(i));
+        this.fallback = new int[marker.length()];
+        for (int i = 1, length = 0; i < marker.length(); ++i) {
+            while (length > 0 && this.marker[i] != this.marker[length])
+                length = fallback[length - 1];
+            if (this.marker[i] == this.marker[length])
+                ++length;
+            fallback[i] = length;
+        }
+    }
+
+    int length() {
+        return marker.length;
+    }
+
+    /**
+     * Returns the number of chars at the end of the chars that have
+     * been scanned so far that match the beginning of the marker.
+     */
+    int matched() {
+        return matched;
+    }
+
+    /**
+     * Scans the next chunk of chars.
+     * @return the index after the marker's last char or {@code -1} if
+     * the marker does not end within the chunk.
+     */
+    int find(char[] chars, int start, int end) {
+        for (int i = start; i < end; ++i)
+            if (advance(chars[i]))
+                return i + 1;
+        return -1;
+    }
+
+    /**
+     * Scans the next chunk of ASCII-compatible bytes.
+     * @return the index after the marker's last byte or {@code -1} if
+     * the marker does not end within the chunk.
+     */
+    int find(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; ++i)
+            if (advance(bytes[i] & 0xff))
+                return i + 1;
+        return -1;
+    }
+
+    /**
+     * Returns {@code true} if the char completes the marker.
+     */
+    private boolean advance(int c) {
+        int lowerCaseChar = toLowerCase(c);
+        int m = matched;
+        while (m > 0 && lowerCaseChar != marker[m])
+            m = fallback[m - 1];
+        if (lowerCaseChar == marker[m])
+            ++m;
+        matched = m;
+        return m == marker.length;
+    }
+
+    boolean isAscii() {
+        for (char c : marker)
+            if (c > 0x7f)
+                return false;
+        return true;
+    }
+
+    private static int toLowerCase(int c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+}
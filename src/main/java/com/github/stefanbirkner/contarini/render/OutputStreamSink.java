@@ -0,0 +1,31 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link Utf8Sink} that collects the bytes in a small buffer and
+ * writes them to an {@link OutputStream} whenever the buffer is full.
+ * {@link #flush()} has to be called after the last tag.
+ */
+class OutputStreamSink extends Utf8Sink {
+    private static final int BUFFER_SIZE = 512;
+    private final OutputStream os;
+
+    OutputStreamSink(OutputStream os) {
+        super(ByteBuffer.allocate(BUFFER_SIZE));
+        this.os = os;
+    }
+
+    @Override
+    void drain() throws IOException {
+        os.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+
+    void flush() throws IOException {
+        if (buffer.position() > 0)
+            drain();
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link ByteBuffer} that has been taken from a {@link ByteBufferPool}
+ * (or has been allocated for a single use). It must be released after
+ * use, e.g. after its content has been written to a channel. Releasing
+ * it more than once has no effect.
+ * @since 1.3.0
+ */
+public class PooledByteBuffer {
+    private final ByteBuffer buffer;
+    private final ByteBufferPool pool;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    PooledByteBuffer(ByteBuffer buffer, ByteBufferPool pool) {
+        this.buffer = buffer;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the buffer.
+     * @return the buffer.
+     * @throws IllegalStateException if the buffer has been released.
+     */
+    public ByteBuffer buffer() {
+        if (released.get())
+            throw new IllegalStateException("The buffer has been released.");
+        return buffer;
+    }
+
+    /**
+     * Returns the buffer to its pool. The buffer must not be used
+     * afterwards.
+     */
+    public void release() {
+        if (released.compareAndSet(false, true) && pool != null)
+            pool.release(buffer);
+    }
+}
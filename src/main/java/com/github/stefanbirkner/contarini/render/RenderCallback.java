@@ -0,0 +1,22 @@
+package com.github.stefanbirkner.contarini.render;
+
+/**
+ * Receives the result of
+ * {@link AsyncWebCrawlerInfoRenderer#renderTagsForInfo(com.github.stefanbirkner.contarini.WebCrawlerInfo, RenderCallback)}.
+ * Exactly one of its methods is called.
+ * @since 1.3.0
+ */
+public interface RenderCallback {
+    /**
+     * Receives the rendered tags.
+     * @param tags the UTF-8 encoded tags. The buffer is ready for
+     *             reading and must be released by the callback.
+     */
+    void rendered(PooledByteBuffer tags);
+
+    /**
+     * Receives the exception that prevented rendering.
+     * @param cause the exception.
+     */
+    void failed(Throwable cause);
+}
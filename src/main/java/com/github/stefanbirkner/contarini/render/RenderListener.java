@@ -0,0 +1,26 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * Is notified whenever a {@link WebCrawlerInfoRenderer} has written the
+ * tags for a {@link WebCrawlerInfo}, a
+ * {@link com.github.stefanbirkner.contarini.LayeredWebCrawlerInfo} or a
+ * row of a {@link com.github.stefanbirkner.contarini.WebCrawlerInfoTable}.
+ * The listener receives the counts of the tags and of the output, but
+ * not the info, because creating it would cost as much as rendering for
+ * layered infos and rows. The listener is called by the
+ * thread that renders the tags, therefore it should be fast and must be
+ * thread-safe. A renderer without a listener does not measure anything.
+ * @see RenderMetrics
+ * @since 1.3.0
+ */
+public interface RenderListener {
+    /**
+     * Is called after the tags have been written.
+     * @param tags the tags that have been written. The object must not
+     *             be used after this method returned.
+     * @param nanos the time that has been needed for writing the tags.
+     */
+    void tagsRendered(RenderedTags tags, long nanos);
+}
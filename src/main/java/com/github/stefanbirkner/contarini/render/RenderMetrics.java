@@ -0,0 +1,136 @@
+package com.github.stefanbirkner.contarini.render;
+
+/**
+ * A {@link RenderListener} that counts the renderings, the output and
+ * the tags per kind and that records the latency in a histogram with
+ * buckets of powers of two.
+ * <pre>
+ * RenderMetrics metrics = new RenderMetrics();
+ * WebCrawlerInfoRenderer renderer = new WebCrawlerInfoRenderer(style, metrics);
+ * ManagementFactory.getPlatformMBeanServer().registerMBean(metrics,
+ *     new ObjectName("com.github.stefanbirkner.contarini:type=RenderMetrics"));
+ * </pre>
+ * <p>The counters are striped (see {@code LongAdder}), therefore many
+ * threads can record their renderings with little contention. Reading
+ * the metrics sums the stripes and is slower than recording. The values
+ * that are read while renderings are recorded may be slightly
+ * inconsistent with each other.
+ * @since 1.3.0
+ */
+public class RenderMetrics implements RenderListener, RenderMetricsMBean {
+    private static final int RENDERS = 0;
+    private static final int CHARS = 1;
+    private static final int UTF8_BYTES = 2;
+    private static final int ESCAPED_CHARS = 3;
+    private static final int NANOS = 4;
+    private static final int CANONICAL_TAGS = 5;
+    private static final int ROBOTS_TAGS = 6;
+    private static final int ALTERNATE_TAGS = 7;
+    private static final int META_TAGS = 8;
+    private static final int FIRST_LATENCY_BUCKET = 9;
+    private static final int NUMBER_OF_LATENCY_BUCKETS = 64;
+    private final StripedCounters counters
+        = new StripedCounters(FIRST_LATENCY_BUCKET + NUMBER_OF_LATENCY_BUCKETS);
+
+    @Override
+    public void tagsRendered(RenderedTags tags, long nanos) {
+        int stripe = counters.stripe();
+        counters.add(stripe, RENDERS, 1);
+        counters.add(stripe, CHARS, tags.getChars());
+        counters.add(stripe, UTF8_BYTES, tags.getUtf8Bytes());
+        addIfNotZero(stripe, ESCAPED_CHARS, tags.getEscapedChars());
+        counters.add(stripe, NANOS, nanos);
+        addIfNotZero(stripe, CANONICAL_TAGS, tags.getCanonicalTags());
+        addIfNotZero(stripe, ROBOTS_TAGS, tags.getRobotsTags());
+        addIfNotZero(stripe, ALTERNATE_TAGS, tags.getAlternateTags());
+        addIfNotZero(stripe, META_TAGS, tags.getMetaTags());
+        counters.add(stripe, FIRST_LATENCY_BUCKET + latencyBucket(nanos), 1);
+    }
+
+    private void addIfNotZero(int stripe, int counter, long value) {
+        if (value != 0)
+            counters.add(stripe, counter, value);
+    }
+
+    private static int latencyBucket(long nanos) {
+        return nanos <= 0 ? 0 : Math.min(NUMBER_OF_LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos));
+    }
+
+    @Override
+    public long getRenderCount() {
+        return counters.sum(RENDERS);
+    }
+
+    @Override
+    public long getChars() {
+        return counters.sum(CHARS);
+    }
+
+    @Override
+    public long getUtf8Bytes() {
+        return counters.sum(UTF8_BYTES);
+    }
+
+    @Override
+    public long getEscapedChars() {
+        return counters.sum(ESCAPED_CHARS);
+    }
+
+    @Override
+    public long getCanonicalTags() {
+        return counters.sum(CANONICAL_TAGS);
+    }
+
+    @Override
+    public long getRobotsTags() {
+        return counters.sum(ROBOTS_TAGS);
+    }
+
+    @Override
+    public long getAlternateTags() {
+        return counters.sum(ALTERNATE_TAGS);
+    }
+
+    @Override
+    public long getMetaTags() {
+        return counters.sum(META_TAGS);
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return counters.sum(NANOS);
+    }
+
+    @Override
+    public double getMeanNanos() {
+        long renderCount = getRenderCount();
+        return renderCount == 0 ? 0.0 : (double) getTotalNanos() / renderCount;
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        long[] histogram = new long[NUMBER_OF_LATENCY_BUCKETS];
+        for (int bucket = 0; bucket < NUMBER_OF_LATENCY_BUCKETS; ++bucket)
+            histogram[bucket] = counters.sum(FIRST_LATENCY_BUCKET + bucket);
+        return histogram;
+    }
+
+    @Override
+    public long getLatencyPercentileNanos(double percentile) {
+        if (percentile < 0.0 || percentile > 100.0)
+            throw new IllegalArgumentException("The percentile must be between 0 and 100, but is "
+                + percentile + ".");
+        long[] histogram = getLatencyHistogram();
+        long total = 0;
+        for (long count : histogram)
+            total += count;
+        long threshold = (long) Math.ceil(total * percentile / 100.0);
+        long count = 0;
+        for (int bucket = 0; bucket < NUMBER_OF_LATENCY_BUCKETS; ++bucket) {
+            count += histogram[bucket];
+            if (count >= threshold && count > 0)
+                return bucket == 0 ? 0 : bucket >= 63 ? Long.MAX_VALUE : 1L << bucket;
+        }
+        return 0;
+    }
+}
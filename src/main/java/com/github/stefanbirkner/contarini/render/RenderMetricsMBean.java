@@ -0,0 +1,84 @@
+package com.github.stefanbirkner.contarini.render;
+
+/**
+ * The JMX view of {@link RenderMetrics}.
+ * @since 1.3.0
+ */
+public interface RenderMetricsMBean {
+    /**
+     * Returns the number of times tags have been rendered.
+     * @return the number of renderings.
+     */
+    long getRenderCount();
+
+    /**
+     * Returns the number of characters of all rendered tags.
+     * @return the number of characters.
+     */
+    long getChars();
+
+    /**
+     * Returns the number of bytes of all UTF-8 encoded tags.
+     * @return the number of bytes.
+     */
+    long getUtf8Bytes();
+
+    /**
+     * Returns the number of characters that have been replaced by escape
+     * sequences.
+     * @return the number of escaped characters.
+     */
+    long getEscapedChars();
+
+    /**
+     * Returns the number of canonical link tags.
+     * @return the number of canonical link tags.
+     */
+    long getCanonicalTags();
+
+    /**
+     * Returns the number of robots meta tags.
+     * @return the number of robots meta tags.
+     */
+    long getRobotsTags();
+
+    /**
+     * Returns the number of alternate link tags.
+     * @return the number of alternate link tags.
+     */
+    long getAlternateTags();
+
+    /**
+     * Returns the number of description, keywords and google meta tags.
+     * @return the number of these meta tags.
+     */
+    long getMetaTags();
+
+    /**
+     * Returns the total time of all renderings.
+     * @return the total time in nanoseconds.
+     */
+    long getTotalNanos();
+
+    /**
+     * Returns the mean time of a rendering.
+     * @return the mean time in nanoseconds.
+     */
+    double getMeanNanos();
+
+    /**
+     * Returns the number of renderings per latency bucket. Bucket
+     * {@code i > 0} counts renderings that took at least
+     * {@code 2^(i-1)} and less than {@code 2^i} nanoseconds.
+     * @return the number of renderings per bucket.
+     */
+    long[] getLatencyHistogram();
+
+    /**
+     * Returns an upper bound of a latency percentile. Because of the
+     * histogram's buckets, it is at most twice the exact percentile.
+     * @param percentile the percentile (e.g. {@code 99.0}).
+     * @return the upper bound of the percentile in nanoseconds.
+     */
+    long getLatencyPercentileNanos(double percentile);
+}
@@ -0,0 +1,54 @@
+package com.github.stefanbirkner.contarini.render;
+
+/**
+ * The tags that a {@link WebCrawlerInfoRenderer} has written for a
+ * single info. The tags are counted while they are written, therefore
+ * the info itself is not needed. It is passed to a
+ * {@link RenderListener} and must not be used after the listener
+ * returned.
+ * @since 1.3.0
+ */
+public interface RenderedTags {
+    /**
+     * Returns the number of canonical link tags.
+     * @return {@code 0} or {@code 1}.
+     */
+    int getCanonicalTags();
+
+    /**
+     * Returns the number of robots meta tags.
+     * @return {@code 0} or {@code 1}.
+     */
+    int getRobotsTags();
+
+    /**
+     * Returns the number of alternate link tags.
+     * @return the number of alternates.
+     */
+    int getAlternateTags();
+
+    /**
+     * Returns the number of description, keywords and google meta tags.
+     * @return the number of the other meta tags.
+     */
+    int getMetaTags();
+
+    /**
+     * Returns the number of characters of the tags.
+     * @return the number of characters.
+     */
+    int getChars();
+
+    /**
+     * Returns the number of bytes of the UTF-8 encoded tags.
+     * @return the number of bytes.
+     */
+    int getUtf8Bytes();
+
+    /**
+     * Returns the number of characters of the info's values that have
+     * been replaced by escape sequences.
+     * @return the number of escaped characters.
+     */
+    int getEscapedChars();
+}
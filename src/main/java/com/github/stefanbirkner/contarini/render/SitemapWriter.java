@@ -0,0 +1,396 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * Writes an XML sitemap for the canonical URLs and the alternates of
+ * {@link WebCrawlerInfo}s. Each info becomes an {@code <url>} entry with
+ * an {@code <xhtml:link rel="alternate">} child for each alternate.
+ * <pre>
+ * SitemapWriter writer = new SitemapWriter(directory, "sitemap", "http://example.com/", executor);
+ * try {
+ *     for (WebCrawlerInfo info : infos)
+ *         writer.write(info);
+ * } finally {
+ *     writer.close();
+ * }
+ * </pre>
+ * <p>The entries are written to shards {@code sitemap-1.xml.gz},
+ * {@code sitemap-2.xml.gz}, ... A shard has at most
+ * {@value #MAX_URLS_PER_SHARD} URLs and
+ * {@value #MAX_BYTES_PER_SHARD} bytes before compression. Each shard is
+ * written to a file channel and compressed by the executor as soon as it
+ * is full, so that compression runs in parallel with writing the next
+ * shards. {@link #close()} waits for the compression and writes the
+ * sitemap index {@code sitemap-index.xml}.
+ * <p>The writer only keeps the current entry and a write buffer in
+ * memory. It does not depend on the number of URLs. A
+ * {@code SitemapWriter} must not be used by multiple threads.
+ * @since 1.3.0
+ */
+public class SitemapWriter implements Closeable {
+    /**
+     * The maximum number of URLs of a sitemap.
+     */
+    public static final int MAX_URLS_PER_SHARD = 50000;
+    /**
+     * The maximum number of bytes of an uncompressed sitemap.
+     */
+    public static final int MAX_BYTES_PER_SHARD = 50 * 1024 * 1024;
+    private static final int MAX_SHARDS_IN_FLIGHT = 4;
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_ENTRY_BUFFER_SIZE = 4 * 1024;
+    private static final Fragment URLSET_START = new Fragment("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\""
+        + " xmlns:xhtml=\"http://www.w3.org/1999/xhtml\">\n");
+    private static final Fragment URLSET_END = new Fragment("</urlset>\n");
+    private static final Fragment URL_START = new Fragment("<url><loc>");
+    private static final Fragment LOC_END = new Fragment("</loc>");
+    private static final Fragment URL_END = new Fragment("</url>\n");
+    private static final Fragment LINK_START = new Fragment("<xhtml:link rel=\"alternate\"");
+    private static final Fragment HREFLANG_START = new Fragment(" hreflang=\"");
+    private static final Fragment MEDIA_START = new Fragment(" media=\"");
+    private static final Fragment HREF_START = new Fragment(" href=\"");
+    private static final Fragment ATTRIBUTE_END = new Fragment("\"");
+    private static final Fragment LINK_END = new Fragment("/>");
+    private static final Fragment SITEMAPINDEX_START = new Fragment("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+        + "<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+    private static final Fragment SITEMAPINDEX_END = new Fragment("</sitemapindex>\n");
+    private static final Fragment SITEMAP_START = new Fragment("<sitemap><loc>");
+    private static final Fragment SITEMAP_END = new Fragment("</loc></sitemap>\n");
+
+    private final File directory;
+    private final String baseName;
+    private final String baseUrl;
+    private final Executor executor;
+    private final int maxUrlsPerShard;
+    private final int maxBytesPerShard;
+    private final Semaphore permits = new Semaphore(MAX_SHARDS_IN_FLIGHT);
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    private final ByteBuffer output = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+    private ByteBuffer entry = ByteBuffer.allocate(INITIAL_ENTRY_BUFFER_SIZE);
+    private int numberOfShards = 0;
+    private FileOutputStream shard;
+    private int urlsOfShard;
+    private long bytesOfShard;
+    private boolean closed = false;
+
+    /**
+     * Creates a {@code SitemapWriter}.
+     * @param directory the directory of the sitemaps.
+     * @param baseName the first part of the names of the sitemaps'
+     *                 files (e.g. {@code sitemap}).
+     * @param baseUrl the URL of the directory. It is used for the links of
+     *                the sitemap index and must end with a slash.
+     * @param executor the executor that compresses the shards.
+     */
+    public SitemapWriter(File directory, String baseName, String baseUrl, Executor executor) {
+        this(directory, baseName, baseUrl, executor, MAX_URLS_PER_SHARD, MAX_BYTES_PER_SHARD);
+    }
+
+    SitemapWriter(File directory, String baseName, String baseUrl, Executor executor,
+            int maxUrlsPerShard, int maxBytesPerShard) {
+        if (executor == null)
+            throw new NullPointerException("The executor is missing.");
+        this.directory = directory;
+        this.baseName = baseName;
+        this.baseUrl = baseUrl;
+        this.executor = executor;
+        this.maxUrlsPerShard = maxUrlsPerShard;
+        this.maxBytesPerShard = maxBytesPerShard;
+    }
+
+    /**
+     * Writes the entry for a {@link WebCrawlerInfo}.
+     * @param info the info. It must have a canonical URL.
+     * @throws IOException if the entry cannot be written or the
+     * compression of a previous shard failed.
+     * @throws InterruptedIOException if the thread is interrupted while
+     * waiting for the compression of previous shards.
+     * @throws IllegalArgumentException if the info has no canonical URL.
+     */
+    public void write(WebCrawlerInfo info) throws IOException {
+        if (closed)
+            throw new IllegalStateException("The SitemapWriter has been closed.");
+        if (info.getCanonical() == null)
+            throw new IllegalArgumentException("The info " + info + " has no canonical URL.");
+        rethrowFailure();
+        renderEntry(info);
+        if (shard != null && (urlsOfShard == maxUrlsPerShard
+                || bytesOfShard + entry.remaining() + URLSET_END.utf8.length > maxBytesPerShard))
+            finishShard();
+        if (shard == null)
+            startShard();
+        writeToShard(entry);
+        ++urlsOfShard;
+    }
+
+    /**
+     * Renders the entry into the entry buffer. The buffer grows if the
+     * entry is too large.
+     */
+    private void renderEntry(WebCrawlerInfo info) throws IOException {
+        while (true) {
+            entry.clear();
+            try {
+                writeEntryToSink(info, new ByteBufferSink(entry));
+                entry.flip();
+                return;
+            } catch (BufferOverflowException e) {
+                entry = ByteBuffer.allocate(2 * entry.capacity());
+            }
+        }
+    }
+
+    private void writeEntryToSink(WebCrawlerInfo info, TagSink sink) throws IOException {
+        sink.write(URL_START);
+        sink.writeEscaped(info.getCanonical());
+        sink.write(LOC_END);
+        List<Alternate> alternates = info.getAlternates();
+        for (int i = 0; i < alternates.size(); ++i) {
+            Alternate alternate = alternates.get(i);
+            sink.write(LINK_START);
+            if (alternate.language != null) {
+                sink.write(HREFLANG_START);
+                sink.writeEscaped(alternate.language);
+                sink.write(ATTRIBUTE_END);
+            }
+            if (alternate.media != null) {
+                sink.write(MEDIA_START);
+                sink.writeEscaped(alternate.media);
+                sink.write(ATTRIBUTE_END);
+            }
+            sink.write(HREF_START);
+            sink.writeEscaped(alternate.href);
+            sink.write(ATTRIBUTE_END);
+            sink.write(LINK_END);
+        }
+        sink.write(URL_END);
+    }
+
+    private void startShard() throws IOException {
+        ++numberOfShards;
+        shard = new FileOutputStream(uncompressedShard(numberOfShards));
+        urlsOfShard = 0;
+        bytesOfShard = 0;
+        writeToShard(ByteBuffer.wrap(URLSET_START.utf8));
+    }
+
+    private void writeToShard(ByteBuffer bytes) throws IOException {
+        bytesOfShard += bytes.remaining();
+        if (bytes.remaining() > output.remaining())
+            flushOutput(shard.getChannel());
+        if (bytes.remaining() > output.remaining())
+            writeFully(shard.getChannel(), bytes);
+        else
+            output.put(bytes);
+    }
+
+    private void finishShard() throws IOException {
+        try {
+            writeToShard(ByteBuffer.wrap(URLSET_END.utf8));
+            flushOutput(shard.getChannel());
+        } finally {
+            shard.close();
+            shard = null;
+        }
+        compress(numberOfShards);
+    }
+
+    private void flushOutput(FileChannel channel) throws IOException {
+        output.flip();
+        writeFully(channel, output);
+        output.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining())
+            channel.write(bytes);
+    }
+
+    private void compress(final int shardNumber) throws IOException {
+        acquirePermits(1);
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (failure.get() == null)
+                            compressShard(shardNumber);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        permits.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void compressShard(int shardNumber) throws IOException {
+        File uncompressedShard = uncompressedShard(shardNumber);
+        File compressedShard = new File(directory, shardName(shardNumber));
+        boolean compressed = false;
+        try {
+            writeCompressed(uncompressedShard, compressedShard);
+            compressed = true;
+        } finally {
+            if (!compressed) {
+                //a partial shard must not be mistaken for a complete one
+                compressedShard.delete();
+                uncompressedShard.delete();
+            }
+        }
+        if (!uncompressedShard.delete())
+            throw new IOException("Cannot delete " + uncompressedShard + ".");
+    }
+
+    private static void writeCompressed(File source, File target) throws IOException {
+        FileInputStream in = new FileInputStream(source);
+        try {
+            FileOutputStream out = new FileOutputStream(target);
+            try {
+                ShardCompressor gzip = new ShardCompressor(Channels.newOutputStream(out.getChannel()));
+                try {
+                    FileChannel channel = in.getChannel();
+                    ByteBuffer buffer = ByteBuffer.allocate(OUTPUT_BUFFER_SIZE);
+                    while (channel.read(buffer) >= 0) {
+                        gzip.write(buffer.array(), 0, buffer.position());
+                        buffer.clear();
+                    }
+                    gzip.close();
+                } finally {
+                    gzip.releaseDeflater();
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Finishes the last shard, waits until all shards are compressed and
+     * writes the sitemap index. The executor is not shut down.
+     * @throws IOException if the last shard or the index cannot be
+     * written or the compression of a shard failed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        if (shard != null)
+            finishShard();
+        acquirePermits(MAX_SHARDS_IN_FLIGHT);
+        permits.release(MAX_SHARDS_IN_FLIGHT);
+        rethrowFailure();
+        writeIndex();
+    }
+
+    private void writeIndex() throws IOException {
+        FileOutputStream index = new FileOutputStream(new File(directory, indexName()));
+        try {
+            ChannelSink sink = new ChannelSink(index.getChannel());
+            sink.write(SITEMAPINDEX_START);
+            for (int i = 1; i <= numberOfShards; ++i) {
+                sink.write(SITEMAP_START);
+                sink.writeEscaped(baseUrl + shardName(i));
+                sink.write(SITEMAP_END);
+            }
+            sink.write(SITEMAPINDEX_END);
+            sink.flush();
+        } finally {
+            index.close();
+        }
+    }
+
+    /**
+     * Returns the number of shards that have been started.
+     * @return the number of shards.
+     */
+    public int getNumberOfShards() {
+        return numberOfShards;
+    }
+
+    /**
+     * Returns the name of the sitemap index's file.
+     * @return the name of the sitemap index's file.
+     */
+    public String indexName() {
+        return baseName + "-index.xml";
+    }
+
+    /**
+     * Returns the name of a compressed shard's file.
+     * @param shardNumber the number of the shard. The first shard has
+     *                    number 1.
+     * @return the name of the shard's file.
+     */
+    public String shardName(int shardNumber) {
+        return baseName + "-" + shardNumber + ".xml.gz";
+    }
+
+    private File uncompressedShard(int shardNumber) {
+        return new File(directory, baseName + "-" + shardNumber + ".xml");
+    }
+
+    private void acquirePermits(int numberOfPermits) throws IOException {
+        try {
+            permits.acquire(numberOfPermits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the compression of shards.");
+        }
+    }
+
+    private void rethrowFailure() throws IOException {
+        Throwable t = failure.get();
+        if (t instanceof IOException)
+            throw (IOException) t;
+        else if (t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        else if (t instanceof Error)
+            throw (Error) t;
+        else if (t != null)
+            throw new IOException(t);
+    }
+
+    /**
+     * A {@code GZIPOutputStream} whose {@code Deflater} can be released
+     * if the stream fails. {@code close()} does not release it if
+     * finishing the stream fails.
+     */
+    private static class ShardCompressor extends GZIPOutputStream {
+        ShardCompressor(OutputStream out) throws IOException {
+            super(out, OUTPUT_BUFFER_SIZE);
+        }
+
+        void releaseDeflater() {
+            def.end();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed number of counters that can be incremented by many threads
+ * with little contention. Each counter is split into stripes. A thread
+ * always adds to the stripe that is selected by its id, and reading a
+ * counter sums all its stripes. The stripes are padded so that threads
+ * with different stripes don't share cache lines.
+ * <p>This is the idea of Java 8's {@code LongAdder} for a library that
+ * supports Java 6.
+ */
+class StripedCounters {
+    private static final int LONGS_PER_CACHE_LINE = 8;
+    private static final int MAX_NUMBER_OF_STRIPES = 64;
+    private final int stripeMask;
+    private final int stride;
+    private final AtomicLongArray values;
+
+    StripedCounters(int numberOfCounters) {
+        int numberOfStripes = Math.min(MAX_NUMBER_OF_STRIPES,
+            Integer.highestOneBit(2 * Runtime.getRuntime().availableProcessors() - 1) << 1);
+        this.stripeMask = numberOfStripes - 1;
+        this.stride = (numberOfCounters + LONGS_PER_CACHE_LINE - 1)
+            / LONGS_PER_CACHE_LINE * LONGS_PER_CACHE_LINE + LONGS_PER_CACHE_LINE;
+        this.values = new AtomicLongArray(numberOfStripes * stride);
+    }
+
+    /**
+     * Returns the offset of the current thread's stripe.
+     */
+    int stripe() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9e3779b9;
+        return ((h ^ (h >>> 16)) & stripeMask) * stride;
+    }
+
+    void add(int stripe, int counter, long delta) {
+        values.getAndAdd(stripe + counter, delta);
+    }
+
+    long sum(int counter) {
+        long sum = 0;
+        for (int stripe = 0; stripe < values.length(); stripe += stride)
+            sum += values.get(stripe + counter);
+        return sum;
+    }
+}
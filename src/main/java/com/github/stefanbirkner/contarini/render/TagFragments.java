@@ -0,0 +1,184 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.github.stefanbirkner.contarini.AlternateSet;
+import com.github.stefanbirkner.contarini.GoogleFeature;
+import com.github.stefanbirkner.contarini.WebCrawlerAdvice;
+import com.github.stefanbirkner.contarini.WebCrawlerAdviceSet;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * The constant parts of the tags for a single {@link Style}. They are
+ * built and encoded once so that rendering a tag only needs the
+ * constant parts and the escaped values. The fragments are shared by
+ * all renderers with the same {@code Style}.
+ * <p>The robots tags for lists of built-in advices are built lazily
+ * and stored by the lists' sequence keys (see
+ * {@link WebCrawlerAdviceSet#sequenceKeyOf(List)}). Tags for up to two
+ * advices are stored in an array, tags for longer lists in a
+ * {@link LongKeyCache} with a limited size. Neither boxes the key.
+ * <p>The link tags of shared {@link AlternateSet}s are stored, too.
+ * They are referenced weakly and disappear together with their
+ * {@code AlternateSet}. The same applies to the tags of the parents of
+ * {@link com.github.stefanbirkner.contarini.LayeredWebCrawlerInfo}s.
+ * Both are read for every page without a lock (see
+ * {@link WeakSlotTable}).
+ */
+class TagFragments {
+    private static final ConcurrentMap<Style, TagFragments> FRAGMENTS_BY_STYLE
+        = new ConcurrentHashMap<Style, TagFragments>();
+    private static final int NUMBER_OF_SHORT_SEQUENCE_KEYS = 1 << 8;
+    private static final int NUMBER_OF_LONG_SEQUENCE_SLOTS = 1 << 11;
+    private static final int NUMBER_OF_ALTERNATE_SET_SLOTS = 1 << 10;
+    private static final int NUMBER_OF_PARENT_SLOTS = 1 << 8;
+    final Fragment canonicalStart;
+    final Fragment robotsStart;
+    final Fragment adviceSeparator;
+    final Fragment alternateWithLanguageStart;
+    final Fragment alternateWithMediaStart;
+    final Fragment alternateWithHrefOnlyStart;
+    final Fragment mediaAfterLanguage;
+    final Fragment hrefAfterLanguageOrMedia;
+    final Fragment descriptionStart;
+    final Fragment keywordsStart;
+    final Fragment endOfTag;
+    private final Fragment[] googleFeatureTags;
+    private final Fragment[] robotsTagsForShortSequences = new Fragment[NUMBER_OF_SHORT_SEQUENCE_KEYS];
+    private final LongKeyCache<Fragment> robotsTagsForLongSequences
+        = new LongKeyCache<Fragment>(NUMBER_OF_LONG_SEQUENCE_SLOTS);
+    private final WeakSlotTable<AlternateSet, Fragment> alternateTags
+        = new WeakSlotTable<AlternateSet, Fragment>(NUMBER_OF_ALTERNATE_SET_SLOTS);
+    private final WeakSlotTable<WebCrawlerInfo, Fragment[]> parentSections
+        = new WeakSlotTable<WebCrawlerInfo, Fragment[]>(NUMBER_OF_PARENT_SLOTS);
+
+    /**
+     * Returns the fragments for a {@link Style}. They are built only
+     * once for each {@code Style}.
+     */
+    static TagFragments forStyle(Style style) {
+        TagFragments fragments = FRAGMENTS_BY_STYLE.get(style);
+        if (fragments == null) {
+            fragments = new TagFragments(style);
+            TagFragments existingFragments = FRAGMENTS_BY_STYLE.putIfAbsent(style, fragments);
+            if (existingFragments != null)
+                fragments = existingFragments;
+        }
+        return fragments;
+    }
+
+    private TagFragments(Style style) {
+        String closingSuffix = style.getVoidElementStyle().closingSuffix;
+        canonicalStart = new Fragment("<link rel=\"canonical\" href=\"");
+        robotsStart = new Fragment(metaTagStart("robots"));
+        adviceSeparator = new Fragment(", ");
+        alternateWithLanguageStart = new Fragment("<link rel=\"alternate\" hreflang=\"");
+        alternateWithMediaStart = new Fragment("<link rel=\"alternate\" media=\"");
+        alternateWithHrefOnlyStart = new Fragment("<link rel=\"alternate\" href=\"");
+        mediaAfterLanguage = new Fragment("\" media=\"");
+        hrefAfterLanguageOrMedia = new Fragment("\" href=\"");
+        descriptionStart = new Fragment(metaTagStart("description"));
+        keywordsStart = new Fragment(metaTagStart("keywords"));
+        endOfTag = new Fragment("\"" + closingSuffix);
+        googleFeatureTags = new Fragment[GoogleFeature.values().length];
+        for (GoogleFeature feature : GoogleFeature.values())
+            googleFeatureTags[feature.ordinal()] = new Fragment(metaTagStart("google")
+                + feature.getLabelForDisabling() + endOfTag.chars);
+    }
+
+    private static String metaTagStart(String name) {
+        return "<meta name=\"" + name + "\" content=\"";
+    }
+
+    /**
+     * Returns the complete robots tag for a list of built-in advices.
+     * @param advices the advices.
+     * @return the robots tag or {@code null} if the list contains a
+     * custom advice or is too long.
+     */
+    Fragment robotsTag(List<WebCrawlerAdvice> advices) {
+        long sequenceKey = WebCrawlerAdviceSet.sequenceKeyOf(advices);
+        return sequenceKey < 0 ? null : robotsTag(sequenceKey);
+    }
+
+    /**
+     * Returns the robots meta tag for the advices that are represented
+     * by a sequence key.
+     * @param sequenceKey a key of
+     * {@link WebCrawlerAdviceSet#sequenceKeyOf(List)}.
+     * @return the complete tag.
+     */
+    Fragment robotsTag(long sequenceKey) {
+        if (sequenceKey < NUMBER_OF_SHORT_SEQUENCE_KEYS)
+            return robotsTagForShortSequence((int) sequenceKey);
+        else
+            return robotsTagForLongSequence(sequenceKey);
+    }
+
+    private Fragment robotsTagForShortSequence(int sequenceKey) {
+        //Fragments are immutable and can be published without synchronization.
+        Fragment tag = robotsTagsForShortSequences[sequenceKey];
+        if (tag == null) {
+            tag = buildRobotsTag(WebCrawlerAdviceSet.advicesOfSequenceKey(sequenceKey));
+            robotsTagsForShortSequences[sequenceKey] = tag;
+        }
+        return tag;
+    }
+
+    private Fragment robotsTagForLongSequence(long sequenceKey) {
+        Fragment tag = robotsTagsForLongSequences.get(sequenceKey);
+        if (tag == null) {
+            tag = buildRobotsTag(WebCrawlerAdviceSet.advicesOfSequenceKey(sequenceKey));
+            robotsTagsForLongSequences.put(sequenceKey, tag);
+        }
+        return tag;
+    }
+
+    private Fragment buildRobotsTag(List<WebCrawlerAdvice> advices) {
+        StringBuilder sb = new StringBuilder(robotsStart.chars);
+        for (int i = 0; i < advices.size(); ++i) {
+            if (i > 0)
+                sb.append(adviceSeparator.chars);
+            sb.append(advices.get(i).getLabel());
+        }
+        return new Fragment(sb.append(endOfTag.chars).toString());
+    }
+
+    /**
+     * Returns the link tags of an {@link AlternateSet}.
+     * @param alternates the alternates.
+     * @return the link tags or {@code null} if they have not been
+     * stored yet.
+     */
+    Fragment alternateTags(AlternateSet alternates) {
+        return alternateTags.get(alternates);
+    }
+
+    void storeAlternateTags(AlternateSet alternates, Fragment tags) {
+        alternateTags.put(alternates, tags);
+    }
+
+    /**
+     * Returns the tags of a parent {@link WebCrawlerInfo} per section.
+     * A section without tags is {@code null}.
+     * @param parent the parent.
+     * @return the tags or {@code null} if they have not been stored
+     * yet.
+     */
+    Fragment[] parentSections(WebCrawlerInfo parent) {
+        return parentSections.get(parent);
+    }
+
+    void storeParentSections(WebCrawlerInfo parent, Fragment[] sections) {
+        parentSections.put(parent, sections);
+    }
+
+    /**
+     * Returns the complete tag for disabling a Google feature.
+     */
+    Fragment googleFeatureTag(GoogleFeature feature) {
+        return googleFeatureTags[feature.ordinal()];
+    }
+}
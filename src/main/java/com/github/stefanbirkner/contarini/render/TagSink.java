@@ -0,0 +1,39 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.IOException;
+
+/**
+ * The target of the renderer. It hides whether the tags are written as
+ * characters or as bytes.
+ */
+abstract class TagSink {
+    static final int CANONICAL_TAGS = 0;
+    static final int ROBOTS_TAGS = 1;
+    static final int ALTERNATE_TAGS = 2;
+    static final int META_TAGS = 3;
+    static final int NUMBER_OF_KINDS_OF_TAGS = 4;
+
+    /**
+     * Writes a constant part of the output.
+     * @param fragment the constant part.
+     * @throws IOException If an I/O error occurs.
+     */
+    abstract void write(Fragment fragment) throws IOException;
+
+    /**
+     * Writes a variable part of the output. The text is escaped by
+     * the sink.
+     * @param text the text that has to be escaped.
+     * @throws IOException If an I/O error occurs.
+     */
+    abstract void writeEscaped(String text) throws IOException;
+
+    /**
+     * Is called after tags have been written. Only a sink that reports
+     * the output to a {@link RenderListener} counts them.
+     * @param kind the kind of the tags, e.g. {@link #CANONICAL_TAGS}.
+     * @param numberOfTags the number of tags.
+     */
+    void tagsWritten(int kind, int numberOfTags) {
+    }
+}
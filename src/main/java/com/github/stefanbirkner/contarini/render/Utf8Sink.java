@@ -0,0 +1,90 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link TagSink} that encodes the output as UTF-8 and puts the bytes
+ * into a {@link ByteBuffer}. Subclasses decide what happens to the
+ * bytes when the buffer is full. Fragments are already encoded and
+ * variable texts are escaped and encoded in a single pass without
+ * creating intermediate objects.
+ */
+abstract class Utf8Sink extends TagSink {
+    private static final int MAX_BYTES_PER_CHAR = 4;
+    private static final byte REPLACEMENT_FOR_MALFORMED_INPUT = '?';
+    final ByteBuffer buffer;
+
+    Utf8Sink(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Transfers the bytes out of the full buffer so that it can be
+     * filled again.
+     * @throws IOException If an I/O error occurs.
+     */
+    abstract void drain() throws IOException;
+
+    @Override
+    void write(Fragment fragment) throws IOException {
+        writeBytes(fragment.utf8);
+    }
+
+    void writeBytes(byte[] bytes) throws IOException {
+        int offset = 0;
+        int length = bytes.length;
+        while (length > buffer.remaining()) {
+            int lengthOfPart = buffer.remaining();
+            buffer.put(bytes, offset, lengthOfPart);
+            offset += lengthOfPart;
+            length -= lengthOfPart;
+            drain();
+        }
+        buffer.put(bytes, offset, length);
+    }
+
+    @Override
+    void writeEscaped(String text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; ++i) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                byte[] escapeSequence = HtmlEscaper.utf8EscapeSequenceFor(c);
+                if (escapeSequence == null)
+                    putAsciiByte(c);
+                else
+                    writeBytes(escapeSequence);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                putCodePoint(Character.toCodePoint(c, text.charAt(++i)));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                putAsciiByte(REPLACEMENT_FOR_MALFORMED_INPUT);
+            } else {
+                putCodePoint(c);
+            }
+        }
+    }
+
+    private void putAsciiByte(int c) throws IOException {
+        if (!buffer.hasRemaining())
+            drain();
+        buffer.put((byte) c);
+    }
+
+    private void putCodePoint(int codePoint) throws IOException {
+        if (buffer.remaining() < MAX_BYTES_PER_CHAR)
+            drain();
+        if (codePoint < 0x800) {
+            buffer.put((byte) (0xc0 | (codePoint >> 6)));
+        } else if (codePoint < 0x10000) {
+            buffer.put((byte) (0xe0 | (codePoint >> 12)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+        } else {
+            buffer.put((byte) (0xf0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3f)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3f)));
+        }
+        buffer.put((byte) (0x80 | (codePoint & 0x3f)));
+    }
+}
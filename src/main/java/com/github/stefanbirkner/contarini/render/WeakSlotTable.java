@@ -0,0 +1,57 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A cache whose keys are referenced weakly and that is read and written
+ * without a lock. Each key has a single slot that is chosen by its hash
+ * code. A key that shares the slot with another key replaces the other
+ * key's value, which has to be computed again when it is needed. Hence
+ * the keys should have a cheap {@code hashCode()}.
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+class WeakSlotTable<K, V> {
+    private final AtomicReferenceArray<Entry<K, V>> slots;
+
+    /**
+     * @param numberOfSlots a power of two.
+     */
+    WeakSlotTable(int numberOfSlots) {
+        slots = new AtomicReferenceArray<Entry<K, V>>(numberOfSlots);
+    }
+
+    /**
+     * Returns the value of a key.
+     * @return the value or {@code null} if it is not stored.
+     */
+    V get(K key) {
+        Entry<K, V> entry = slots.get(slotOf(key));
+        if (entry == null)
+            return null;
+        K storedKey = entry.get();
+        if (storedKey == key || key.equals(storedKey))
+            return entry.value;
+        else
+            return null;
+    }
+
+    void put(K key, V value) {
+        slots.set(slotOf(key), new Entry<K, V>(key, value));
+    }
+
+    private int slotOf(K key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (slots.length() - 1);
+    }
+
+    private static class Entry<K, V> extends WeakReference<K> {
+        final V value;
+
+        Entry(K key, V value) {
+            super(key);
+            this.value = value;
+        }
+    }
+}
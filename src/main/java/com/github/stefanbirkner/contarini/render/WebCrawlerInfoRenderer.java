@@ -1,15 +1,21 @@
 package com.github.stefanbirkner.contarini.render;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.List;
 
-import static java.util.Arrays.asList;
-
 import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.AlternateSet;
 import com.github.stefanbirkner.contarini.GoogleFeature;
+import com.github.stefanbirkner.contarini.LayeredWebCrawlerInfo;
+import com.github.stefanbirkner.contarini.LazyWebCrawlerInfo;
 import com.github.stefanbirkner.contarini.WebCrawlerAdvice;
 import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import com.github.stefanbirkner.contarini.WebCrawlerInfoTable;
 
 /**
  * Renders the HTML tags for a {@link com.github.stefanbirkner.contarini.WebCrawlerInfo} object.
@@ -55,10 +61,29 @@ import com.github.stefanbirkner.contarini.WebCrawlerInfo;
  * <p>The renderer escapes the provided texts.
  * <p>An {@link Style} can be used to control the style of the generated
  * HTML.
+ *
+ * <h2>Output</h2>
+ * <p>The tags can be written as characters to a {@link Writer} or as
+ * UTF-8 encoded bytes to an {@link OutputStream}, a {@link ByteBuffer}
+ * or a {@link WritableByteChannel}. The exact length of the tags can be
+ * calculated in advance, e.g. for sizing a buffer.
+ * <p>The link tags of an {@link AlternateSet} are rendered only once
+ * for each {@code Style} and written by a single bulk write.
+ * <p>The tags of the parent of a {@link LayeredWebCrawlerInfo} are
+ * rendered only once for each {@code Style}, too. Only the tags of the
+ * override are rendered for each page.
  */
 public class WebCrawlerInfoRenderer {
     private static final Style DEFAULT_STYLE = new Style();
-    private final Style style;
+    private static final int CANONICAL_SECTION = 0;
+    private static final int ROBOTS_SECTION = 1;
+    private static final int ALTERNATES_SECTION = 2;
+    private static final int DESCRIPTION_SECTION = 3;
+    private static final int KEYWORDS_SECTION = 4;
+    private static final int GOOGLE_SECTION = 5;
+    private static final int NUMBER_OF_SECTIONS = 6;
+    private final TagFragments fragments;
+    private final RenderListener listener;
 
     /**
      * Creates a {@code WebCrawlerInfoRenderer} that renders HTML tags
@@ -70,12 +95,30 @@ public class WebCrawlerInfoRenderer {
 
     /**
      * Creates a {@code WebCrawlerInfoRenderer} that renders HTML tags
-     * with the specified {@link Style}.
+     * with the specified {@link Style}. The constant parts of the tags
+     * are built only once for each {@code Style}.
      * @param style the {@link Style} that specifies the format of the
      *              generated HTML.
      */
     public WebCrawlerInfoRenderer(Style style) {
-        this.style = style;
+        this(style, null);
+    }
+
+    /**
+     * Creates a {@code WebCrawlerInfoRenderer} that renders HTML tags
+     * with the specified {@link Style} and reports each rendering to a
+     * {@link RenderListener} (e.g. {@link RenderMetrics}). Only the
+     * methods that write or render the tags are reported, the length
+     * methods are not.
+     * @param style the {@link Style} that specifies the format of the
+     *              generated HTML.
+     * @param listener the listener or {@code null} if rendering should
+     *                 not be reported.
+     * @since 1.3.0
+     */
+    public WebCrawlerInfoRenderer(Style style, RenderListener listener) {
+        this.fragments = TagFragments.forStyle(style);
+        this.listener = listener;
     }
 
     /**
@@ -85,123 +128,599 @@ public class WebCrawlerInfoRenderer {
      * @throws IOException If an I/O error occurs.
      */
     public void writeTagsForInfoToWriter(WebCrawlerInfo info, Writer w) throws IOException {
-        TagWriter tagWriter = new TagWriter(w, style);
-        writeTagsForInfoToTagWriter(info, tagWriter);
+        renderTagsForInfoToSink(info, new WriterSink(w));
     }
 
-    private void writeTagsForInfoToTagWriter(WebCrawlerInfo info, TagWriter w) throws IOException {
-        if (info.getCanonical() != null)
-            writeCanonicalToWriter(info.getCanonical(), w);
-        if (!info.getAdvices().isEmpty())
-            writeAdvicesToWriter(info.getAdvices(), w);
-        writeAlternatesToWriter(info.getAlternates(), w);
-        writeMetaTagToWriterIfContentExists("description", info.getDescription(), w);
-        writeMetaTagToWriterIfContentExists("keywords", info.getKeywords(), w);
-        writeMetaTagsForDisabledGoogleFeatures(info.getDisabledGoogleFeatures(), w);
+    /**
+     * Writes the UTF-8 encoded HTML tags to the stream according to
+     * the provided {@link WebCrawlerInfo}. The constant parts of the
+     * tags are already encoded and the values are encoded directly.
+     * The stream is neither flushed nor closed.
+     * @param info the {@link com.github.stefanbirkner.contarini.WebCrawlerInfo} that defines the tags.
+     * @param os the {@link OutputStream}.
+     * @throws IOException If an I/O error occurs.
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToStream(WebCrawlerInfo info, OutputStream os) throws IOException {
+        OutputStreamSink sink = new OutputStreamSink(os);
+        renderTagsForInfoToSink(info, sink);
+        sink.flush();
     }
 
-    private void writeCanonicalToWriter(String canonical, TagWriter w) throws IOException {
-        w.startTag("link");
-        w.writeAttribute("rel", "canonical");
-        w.writeAttribute("href", canonical);
-        w.closeTag();
+    /**
+     * Puts the UTF-8 encoded HTML tags into the buffer according to
+     * the provided {@link WebCrawlerInfo}. The tags are written at the
+     * buffer's current position. The buffer may be a heap or a direct
+     * buffer.
+     * @param info the {@link com.github.stefanbirkner.contarini.WebCrawlerInfo} that defines the tags.
+     * @param buffer the {@link ByteBuffer}.
+     * @throws java.nio.BufferOverflowException If there is insufficient
+     * space in the buffer. The buffer's position is undefined in this
+     * case.
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToBuffer(WebCrawlerInfo info, ByteBuffer buffer) {
+        writeTagsForInfoToSinkWithoutIOException(info, new ByteBufferSink(buffer));
     }
 
-    private void writeAdvicesToWriter(List<WebCrawlerAdvice> advices, TagWriter w) throws IOException {
-        w.writeMetaTag("robots", join(advices));
+    /**
+     * Writes the UTF-8 encoded HTML tags to the channel according to
+     * the provided {@link WebCrawlerInfo}. The channel has to be in
+     * blocking mode. Use {@link #writeTagsForInfoToBuffer(WebCrawlerInfo, ByteBuffer)}
+     * if you are working with non-blocking channels.
+     * @param info the {@link com.github.stefanbirkner.contarini.WebCrawlerInfo} that defines the tags.
+     * @param channel the {@link WritableByteChannel}.
+     * @throws IOException If an I/O error occurs.
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToChannel(WebCrawlerInfo info, WritableByteChannel channel) throws IOException {
+        ChannelSink sink = new ChannelSink(channel);
+        renderTagsForInfoToSink(info, sink);
+        sink.flush();
     }
 
-    private String join(List<WebCrawlerAdvice> advices) {
-        StringBuilder sb = new StringBuilder();
-        boolean first = true;
-        for (WebCrawlerAdvice advice : advices) {
-            if (!first)
-                sb.append(", ");
-            sb.append(advice.getLabel());
-            first = false;
-        }
-        return sb.toString();
+    /**
+     * Writes HTML tags to the writer according to the provided
+     * {@link LayeredWebCrawlerInfo}. The output is the same as the
+     * output for its effective {@code WebCrawlerInfo}. The tags of the
+     * parent are rendered only once for each {@link Style} and written
+     * by bulk writes, hence only the override's tags are rendered again.
+     * @param info the {@link LayeredWebCrawlerInfo} that defines the tags.
+     * @param w the {@link Writer}.
+     * @throws IOException If an I/O error occurs.
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToWriter(LayeredWebCrawlerInfo info, Writer w) throws IOException {
+        renderTagsForLayeredInfoToSink(info, new WriterSink(w));
     }
 
-    private void writeAlternatesToWriter(List<Alternate> alternates, TagWriter w) throws IOException {
-        for (Alternate alternate : alternates)
-            writeAlternateToWriter(alternate, w);
+    /**
+     * Writes the UTF-8 encoded HTML tags to the stream according to
+     * the provided {@link LayeredWebCrawlerInfo}. The stream is neither
+     * flushed nor closed.
+     * @param info the {@link LayeredWebCrawlerInfo} that defines the tags.
+     * @param os the {@link OutputStream}.
+     * @throws IOException If an I/O error occurs.
+     * @see #writeTagsForInfoToWriter(LayeredWebCrawlerInfo, Writer)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToStream(LayeredWebCrawlerInfo info, OutputStream os) throws IOException {
+        OutputStreamSink sink = new OutputStreamSink(os);
+        renderTagsForLayeredInfoToSink(info, sink);
+        sink.flush();
     }
 
-    private void writeAlternateToWriter(Alternate alternate, TagWriter w) throws IOException {
-        w.startTag("link");
-        w.writeAttribute("rel", "alternate");
-        w.writeAttributeIfValueExists("hreflang", alternate.language);
-        w.writeAttributeIfValueExists("media", alternate.media);
-        w.writeAttribute("href", alternate.href);
-        w.closeTag();
+    /**
+     * Puts the UTF-8 encoded HTML tags into the buffer according to
+     * the provided {@link LayeredWebCrawlerInfo}. The tags are written
+     * at the buffer's current position.
+     * @param info the {@link LayeredWebCrawlerInfo} that defines the tags.
+     * @param buffer the {@link ByteBuffer}.
+     * @throws java.nio.BufferOverflowException If there is insufficient
+     * space in the buffer. The buffer's position is undefined in this
+     * case.
+     * @see #writeTagsForInfoToWriter(LayeredWebCrawlerInfo, Writer)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToBuffer(LayeredWebCrawlerInfo info, ByteBuffer buffer) {
+        writeTagsForInfoToSinkWithoutIOException(info, new ByteBufferSink(buffer));
     }
 
-    private void writeMetaTagToWriterIfContentExists(String name, String content, TagWriter w) throws IOException {
-        if (content != null)
-            w.writeMetaTag(name, content);
+    /**
+     * Writes the UTF-8 encoded HTML tags to the channel according to
+     * the provided {@link LayeredWebCrawlerInfo}. The channel has to be
+     * in blocking mode.
+     * @param info the {@link LayeredWebCrawlerInfo} that defines the tags.
+     * @param channel the {@link WritableByteChannel}.
+     * @throws IOException If an I/O error occurs.
+     * @see #writeTagsForInfoToWriter(LayeredWebCrawlerInfo, Writer)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToChannel(LayeredWebCrawlerInfo info, WritableByteChannel channel)
+            throws IOException {
+        ChannelSink sink = new ChannelSink(channel);
+        renderTagsForLayeredInfoToSink(info, sink);
+        sink.flush();
     }
 
-    private void writeMetaTagsForDisabledGoogleFeatures(List<GoogleFeature> disabledFeatures, TagWriter w)
+    /**
+     * Writes HTML tags to the writer according to the provided
+     * {@link LazyWebCrawlerInfo}. The suppliers of its values are called
+     * before the first tag is written.
+     * @param info the {@link LazyWebCrawlerInfo} that defines the tags.
+     * @param w the {@link Writer}.
+     * @throws IOException If an I/O error occurs.
+     * @see #writeTagsForInfoToWriter(WebCrawlerInfo, Writer)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToWriter(LazyWebCrawlerInfo info, Writer w) throws IOException {
+        writeTagsForInfoToWriter(info.toWebCrawlerInfo(), w);
+    }
+
+    /**
+     * Writes the UTF-8 encoded HTML tags to the stream according to
+     * the provided {@link LazyWebCrawlerInfo}.
+     * @param info the {@link LazyWebCrawlerInfo} that defines the tags.
+     * @param os the {@link OutputStream}.
+     * @throws IOException If an I/O error occurs.
+     * @see #writeTagsForInfoToStream(WebCrawlerInfo, OutputStream)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToStream(LazyWebCrawlerInfo info, OutputStream os) throws IOException {
+        writeTagsForInfoToStream(info.toWebCrawlerInfo(), os);
+    }
+
+    /**
+     * Puts the UTF-8 encoded HTML tags into the buffer according to
+     * the provided {@link LazyWebCrawlerInfo}.
+     * @param info the {@link LazyWebCrawlerInfo} that defines the tags.
+     * @param buffer the {@link ByteBuffer}.
+     * @see #writeTagsForInfoToBuffer(WebCrawlerInfo, ByteBuffer)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToBuffer(LazyWebCrawlerInfo info, ByteBuffer buffer) {
+        writeTagsForInfoToBuffer(info.toWebCrawlerInfo(), buffer);
+    }
+
+    /**
+     * Writes the UTF-8 encoded HTML tags to the channel according to
+     * the provided {@link LazyWebCrawlerInfo}.
+     * @param info the {@link LazyWebCrawlerInfo} that defines the tags.
+     * @param channel the {@link WritableByteChannel}.
+     * @throws IOException If an I/O error occurs.
+     * @see #writeTagsForInfoToChannel(WebCrawlerInfo, WritableByteChannel)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToChannel(LazyWebCrawlerInfo info, WritableByteChannel channel)
             throws IOException {
-        for (GoogleFeature feature : disabledFeatures)
-            w.writeMetaTag("google", feature.getLabelForDisabling());
+        writeTagsForInfoToChannel(info.toWebCrawlerInfo(), channel);
+    }
+
+    /**
+     * Writes HTML tags to the writer according to a row of a
+     * {@link WebCrawlerInfoTable}. The tags are rendered directly from
+     * the columns of the table and are the same as the tags for
+     * {@link WebCrawlerInfoTable.Row#toWebCrawlerInfo()}.
+     * @param row the {@link WebCrawlerInfoTable.Row} that defines the tags.
+     * @param w the {@link Writer}.
+     * @throws IOException If an I/O error occurs.
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToWriter(WebCrawlerInfoTable.Row row, Writer w) throws IOException {
+        renderTagsForRowToSink(row, new WriterSink(w));
+    }
+
+    /**
+     * Writes the UTF-8 encoded HTML tags to the stream according to a
+     * row of a {@link WebCrawlerInfoTable}. The stream is neither
+     * flushed nor closed.
+     * @param row the {@link WebCrawlerInfoTable.Row} that defines the tags.
+     * @param os the {@link OutputStream}.
+     * @throws IOException If an I/O error occurs.
+     * @see #writeTagsForInfoToWriter(WebCrawlerInfoTable.Row, Writer)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToStream(WebCrawlerInfoTable.Row row, OutputStream os) throws IOException {
+        OutputStreamSink sink = new OutputStreamSink(os);
+        renderTagsForRowToSink(row, sink);
+        sink.flush();
+    }
+
+    /**
+     * Puts the UTF-8 encoded HTML tags into the buffer according to a
+     * row of a {@link WebCrawlerInfoTable}. The tags are written at the
+     * buffer's current position.
+     * @param row the {@link WebCrawlerInfoTable.Row} that defines the tags.
+     * @param buffer the {@link ByteBuffer}.
+     * @throws java.nio.BufferOverflowException If there is insufficient
+     * space in the buffer. The buffer's position is undefined in this
+     * case.
+     * @see #writeTagsForInfoToWriter(WebCrawlerInfoTable.Row, Writer)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToBuffer(WebCrawlerInfoTable.Row row, ByteBuffer buffer) {
+        writeTagsForInfoToSinkWithoutIOException(row, new ByteBufferSink(buffer));
     }
 
-    private static class TagWriter {
-        static final List<Replacement> REPLACEMENTS = asList(new Replacement("&", "&amp;"), new Replacement("<",
-            "&lt;"), new Replacement(">", "&gt;"), new Replacement("\"", "&quot;"), new Replacement("'", "&apos;"));
-        final Writer w;
-        final Style style;
+    /**
+     * Writes the UTF-8 encoded HTML tags to the channel according to a
+     * row of a {@link WebCrawlerInfoTable}. The channel has to be in
+     * blocking mode.
+     * @param row the {@link WebCrawlerInfoTable.Row} that defines the tags.
+     * @param channel the {@link WritableByteChannel}.
+     * @throws IOException If an I/O error occurs.
+     * @see #writeTagsForInfoToWriter(WebCrawlerInfoTable.Row, Writer)
+     * @since 1.3.0
+     */
+    public void writeTagsForInfoToChannel(WebCrawlerInfoTable.Row row, WritableByteChannel channel)
+            throws IOException {
+        ChannelSink sink = new ChannelSink(channel);
+        renderTagsForRowToSink(row, sink);
+        sink.flush();
+    }
+
+    /**
+     * Returns the exact number of characters of the HTML tags for the
+     * provided {@link WebCrawlerInfo}. It includes the expansion by
+     * escape sequences.
+     * @param info the {@link com.github.stefanbirkner.contarini.WebCrawlerInfo} that defines the tags.
+     * @return the number of characters that are written by
+     * {@link #writeTagsForInfoToWriter(WebCrawlerInfo, Writer)}.
+     * @since 1.3.0
+     */
+    public int lengthOfTagsForInfo(WebCrawlerInfo info) {
+        return measureTagsForInfo(info).chars;
+    }
 
-        TagWriter(Writer w, Style style) {
-            this.w = w;
-            this.style = style;
+    /**
+     * Returns the exact number of bytes of the UTF-8 encoded HTML tags
+     * for the provided {@link WebCrawlerInfo}. It includes the
+     * expansion by escape sequences.
+     * @param info the {@link com.github.stefanbirkner.contarini.WebCrawlerInfo} that defines the tags.
+     * @return the number of bytes that are written by
+     * {@link #writeTagsForInfoToStream(WebCrawlerInfo, OutputStream)}.
+     * @since 1.3.0
+     */
+    public int utf8LengthOfTagsForInfo(WebCrawlerInfo info) {
+        return measureTagsForInfo(info).utf8Bytes;
+    }
+
+    /**
+     * Renders the HTML tags for the provided {@link WebCrawlerInfo}.
+     * The tags are written to an array with the exact length of the
+     * tags, so that there is no copying due to a growing buffer.
+     * @param info the {@link com.github.stefanbirkner.contarini.WebCrawlerInfo} that defines the tags.
+     * @return the HTML tags.
+     * @since 1.3.0
+     */
+    public String renderTagsForInfoToString(WebCrawlerInfo info) {
+        CharArraySink sink = new CharArraySink(measureTagsForInfo(info).chars);
+        writeTagsForInfoToSinkWithoutIOException(info, sink);
+        return new String(sink.chars);
+    }
+
+    /**
+     * Renders the UTF-8 encoded HTML tags for the provided
+     * {@link WebCrawlerInfo}. The tags are written to an array with
+     * the exact length of the tags.
+     * @param info the {@link com.github.stefanbirkner.contarini.WebCrawlerInfo} that defines the tags.
+     * @return the UTF-8 encoded HTML tags.
+     * @since 1.3.0
+     */
+    public byte[] renderTagsForInfoToBytes(WebCrawlerInfo info) {
+        byte[] bytes = new byte[measureTagsForInfo(info).utf8Bytes];
+        writeTagsForInfoToSinkWithoutIOException(info, new ByteBufferSink(ByteBuffer.wrap(bytes)));
+        return bytes;
+    }
+
+    private LengthSink measureTagsForInfo(WebCrawlerInfo info) {
+        LengthSink sink = new LengthSink();
+        try {
+            writeTagsForInfoToSink(info, sink);
+        } catch (IOException e) {
+            throw new IllegalStateException("Measuring the tags must not fail with an IOException.", e);
+        }
+        return sink;
+    }
+
+    private void writeTagsForInfoToSinkWithoutIOException(WebCrawlerInfo info, TagSink sink) {
+        try {
+            renderTagsForInfoToSink(info, sink);
+        } catch (IOException e) {
+            throw writingToMemoryFailed(e);
+        }
+    }
+
+    private void writeTagsForInfoToSinkWithoutIOException(LayeredWebCrawlerInfo info, TagSink sink) {
+        try {
+            renderTagsForLayeredInfoToSink(info, sink);
+        } catch (IOException e) {
+            throw writingToMemoryFailed(e);
+        }
+    }
+
+    private void writeTagsForInfoToSinkWithoutIOException(WebCrawlerInfoTable.Row row, TagSink sink) {
+        try {
+            renderTagsForRowToSink(row, sink);
+        } catch (IOException e) {
+            throw writingToMemoryFailed(e);
+        }
+    }
+
+    private static IllegalStateException writingToMemoryFailed(IOException e) {
+        return new IllegalStateException("Writing to memory must not fail with an IOException.", e);
+    }
+
+    /**
+     * Writes the tags and reports them to the listener. The output is
+     * only counted if there is a listener.
+     */
+    private void renderTagsForInfoToSink(WebCrawlerInfo info, TagSink sink) throws IOException {
+        if (listener == null) {
+            writeTagsForInfoToSink(info, sink);
+        } else {
+            CountingSink countingSink = new CountingSink(sink);
+            long start = System.nanoTime();
+            writeTagsForInfoToSink(info, countingSink);
+            notifyListener(countingSink, start);
+        }
+    }
+
+    private void renderTagsForLayeredInfoToSink(LayeredWebCrawlerInfo info, TagSink sink) throws IOException {
+        if (listener == null) {
+            writeTagsForLayeredInfoToSink(info, sink);
+        } else {
+            CountingSink countingSink = new CountingSink(sink);
+            long start = System.nanoTime();
+            writeTagsForLayeredInfoToSink(info, countingSink);
+            notifyListener(countingSink, start);
+        }
+    }
+
+    private void renderTagsForRowToSink(WebCrawlerInfoTable.Row row, TagSink sink) throws IOException {
+        if (listener == null) {
+            writeTagsForRowToSink(row, sink);
+        } else {
+            CountingSink countingSink = new CountingSink(sink);
+            long start = System.nanoTime();
+            writeTagsForRowToSink(row, countingSink);
+            notifyListener(countingSink, start);
+        }
+    }
+
+    /**
+     * Writes the tags of a row in the same order as
+     * {@link #writeTagsForInfoToSink(WebCrawlerInfo, TagSink)} without
+     * creating the lists of a {@code WebCrawlerInfo}.
+     */
+    private void writeTagsForRowToSink(WebCrawlerInfoTable.Row row, TagSink sink) throws IOException {
+        String canonical = row.getCanonical();
+        if (canonical != null)
+            writeCanonicalToSink(canonical, sink);
+        long advicesSequenceKey = row.getAdvicesSequenceKey();
+        if (advicesSequenceKey > 0) {
+            sink.write(fragments.robotsTag(advicesSequenceKey));
+            sink.tagsWritten(TagSink.ROBOTS_TAGS, 1);
+        } else if (advicesSequenceKey < 0 && !row.getAdvices().isEmpty())
+            writeAdvicesToSink(row.getAdvices(), sink);
+        for (int i = 0; i < row.getNumberOfAlternates(); ++i)
+            writeAlternateToSink(row.getAlternateLanguage(i), row.getAlternateMedia(i), row.getAlternateHref(i), sink);
+        writeMetaTagToSinkIfContentExists(fragments.descriptionStart, row.getDescription(), sink);
+        writeMetaTagToSinkIfContentExists(fragments.keywordsStart, row.getKeywords(), sink);
+        int numberOfFeatures = row.getNumberOfDisabledGoogleFeatures();
+        for (int i = 0; i < numberOfFeatures; ++i)
+            sink.write(fragments.googleFeatureTag(row.getDisabledGoogleFeature(i)));
+        if (numberOfFeatures != 0)
+            sink.tagsWritten(TagSink.META_TAGS, numberOfFeatures);
+    }
+
+    private void notifyListener(CountingSink sink, long start) {
+        long nanos = System.nanoTime() - start;
+        listener.tagsRendered(sink, nanos);
+    }
+
+    /**
+     * Writes the override's tags and the parent's pre-rendered tags for
+     * the properties that are not overridden. The sections have the same
+     * order as the tags of {@link #writeTagsForInfoToSink(WebCrawlerInfo, TagSink)}.
+     */
+    private void writeTagsForLayeredInfoToSink(LayeredWebCrawlerInfo info, TagSink sink) throws IOException {
+        Fragment[] sectionsOfParent = sectionsOfParent(info.getParent());
+        WebCrawlerInfo override = info.getOverride();
+        for (int section = 0; section < NUMBER_OF_SECTIONS; ++section) {
+            if (isOverridden(section, override))
+                writeSectionToSink(section, override, sink);
+            else if (sectionsOfParent[section] != null)
+                writeParentSectionToSink(section, sectionsOfParent[section], info.getParent(), sink);
         }
+    }
 
-        void startTag(String name) throws IOException {
-            w.write("<");
-            w.write(name);
+    private static void writeParentSectionToSink(int section, Fragment tags, WebCrawlerInfo parent, TagSink sink)
+            throws IOException {
+        sink.write(tags);
+        switch (section) {
+            case CANONICAL_SECTION:
+                sink.tagsWritten(TagSink.CANONICAL_TAGS, 1);
+                break;
+            case ROBOTS_SECTION:
+                sink.tagsWritten(TagSink.ROBOTS_TAGS, 1);
+                break;
+            case ALTERNATES_SECTION:
+                sink.tagsWritten(TagSink.ALTERNATE_TAGS, parent.getAlternates().size());
+                break;
+            case GOOGLE_SECTION:
+                sink.tagsWritten(TagSink.META_TAGS, parent.getDisabledGoogleFeatures().size());
+                break;
+            default:
+                sink.tagsWritten(TagSink.META_TAGS, 1);
         }
+    }
 
-        void writeAttribute(String name, String value) throws IOException {
-            w.write(" ");
-            w.write(name);
-            w.write("=\"");
-            w.write(value);
-            w.write("\"");
+    private Fragment[] sectionsOfParent(WebCrawlerInfo parent) throws IOException {
+        Fragment[] sections = fragments.parentSections(parent);
+        if (sections == null) {
+            sections = new Fragment[NUMBER_OF_SECTIONS];
+            for (int section = 0; section < NUMBER_OF_SECTIONS; ++section) {
+                StringWriter w = new StringWriter();
+                writeSectionToSink(section, parent, new WriterSink(w));
+                if (w.getBuffer().length() > 0)
+                    sections[section] = new Fragment(w.toString());
+            }
+            fragments.storeParentSections(parent, sections);
         }
+        return sections;
+    }
 
-        void writeAttributeIfValueExists(String name, String value) throws IOException {
-            if (value != null)
-                writeAttribute(name, value);
+    private static boolean isOverridden(int section, WebCrawlerInfo override) {
+        switch (section) {
+            case CANONICAL_SECTION:
+                return override.getCanonical() != null;
+            case ROBOTS_SECTION:
+                return !override.getAdvices().isEmpty();
+            case ALTERNATES_SECTION:
+                return !override.getAlternates().isEmpty();
+            case DESCRIPTION_SECTION:
+                return override.getDescription() != null;
+            case KEYWORDS_SECTION:
+                return override.getKeywords() != null;
+            default:
+                return !override.getDisabledGoogleFeatures().isEmpty();
         }
+    }
+
+    private void writeSectionToSink(int section, WebCrawlerInfo info, TagSink sink) throws IOException {
+        switch (section) {
+            case CANONICAL_SECTION:
+                if (info.getCanonical() != null)
+                    writeCanonicalToSink(info.getCanonical(), sink);
+                break;
+            case ROBOTS_SECTION:
+                if (!info.getAdvices().isEmpty())
+                    writeAdvicesToSink(info.getAdvices(), sink);
+                break;
+            case ALTERNATES_SECTION:
+                writeAlternatesToSink(info.getAlternates(), sink);
+                break;
+            case DESCRIPTION_SECTION:
+                writeMetaTagToSinkIfContentExists(fragments.descriptionStart, info.getDescription(), sink);
+                break;
+            case KEYWORDS_SECTION:
+                writeMetaTagToSinkIfContentExists(fragments.keywordsStart, info.getKeywords(), sink);
+                break;
+            case GOOGLE_SECTION:
+                writeMetaTagsForDisabledGoogleFeatures(info.getDisabledGoogleFeatures(), sink);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown section " + section + ".");
+        }
+    }
+
+    private void writeTagsForInfoToSink(WebCrawlerInfo info, TagSink sink) throws IOException {
+        if (info.getCanonical() != null)
+            writeCanonicalToSink(info.getCanonical(), sink);
+        if (!info.getAdvices().isEmpty())
+            writeAdvicesToSink(info.getAdvices(), sink);
+        writeAlternatesToSink(info.getAlternates(), sink);
+        writeMetaTagToSinkIfContentExists(fragments.descriptionStart, info.getDescription(), sink);
+        writeMetaTagToSinkIfContentExists(fragments.keywordsStart, info.getKeywords(), sink);
+        writeMetaTagsForDisabledGoogleFeatures(info.getDisabledGoogleFeatures(), sink);
+    }
+
+    private void writeCanonicalToSink(String canonical, TagSink sink) throws IOException {
+        sink.write(fragments.canonicalStart);
+        sink.writeEscaped(canonical);
+        sink.write(fragments.endOfTag);
+        sink.tagsWritten(TagSink.CANONICAL_TAGS, 1);
+    }
+
+    private void writeAdvicesToSink(List<WebCrawlerAdvice> advices, TagSink sink) throws IOException {
+        Fragment robotsTag = fragments.robotsTag(advices);
+        if (robotsTag == null)
+            writeRobotsTagWithCustomAdvicesToSink(advices, sink);
+        else
+            sink.write(robotsTag);
+        sink.tagsWritten(TagSink.ROBOTS_TAGS, 1);
+    }
 
-        void writeMetaTag(String name, String content) throws IOException {
-            startTag("meta");
-            writeAttribute("name", name);
-            writeAttribute("content", escape(content));
-            closeTag();
+    private void writeRobotsTagWithCustomAdvicesToSink(List<WebCrawlerAdvice> advices, TagSink sink)
+            throws IOException {
+        sink.write(fragments.robotsStart);
+        boolean first = true;
+        for (WebCrawlerAdvice advice : advices) {
+            if (!first)
+                sink.write(fragments.adviceSeparator);
+            sink.writeEscaped(advice.getLabel());
+            first = false;
         }
+        sink.write(fragments.endOfTag);
+    }
 
-        void closeTag() throws IOException {
-            w.write(style.getVoidElementStyle().closingSuffix);
+    private void writeAlternatesToSink(List<Alternate> alternates, TagSink sink) throws IOException {
+        if (alternates instanceof AlternateSet) {
+            sink.write(tagsForAlternateSet((AlternateSet) alternates));
+            sink.tagsWritten(TagSink.ALTERNATE_TAGS, alternates.size());
+        } else {
+            writeEachAlternateToSink(alternates, sink);
         }
+    }
 
-        String escape(String content) {
-            for (Replacement replacement : REPLACEMENTS)
-                content = content.replace(replacement.character, replacement.escapeSequence);
-            return content;
+    private Fragment tagsForAlternateSet(AlternateSet alternates) throws IOException {
+        Fragment tags = fragments.alternateTags(alternates);
+        if (tags == null) {
+            StringWriter w = new StringWriter();
+            writeEachAlternateToSink(alternates, new WriterSink(w));
+            tags = new Fragment(w.toString());
+            fragments.storeAlternateTags(alternates, tags);
         }
+        return tags;
     }
 
-    private static class Replacement {
-        final String character;
-        final String escapeSequence;
+    private void writeEachAlternateToSink(List<Alternate> alternates, TagSink sink) throws IOException {
+        for (Alternate alternate : alternates)
+            writeAlternateToSink(alternate, sink);
+    }
 
-        Replacement(String character, String escapeSequence) {
-            this.character = character;
-            this.escapeSequence = escapeSequence;
+    private void writeAlternateToSink(Alternate alternate, TagSink sink) throws IOException {
+        writeAlternateToSink(alternate.language, alternate.media, alternate.href, sink);
+    }
+
+    private void writeAlternateToSink(String language, String media, String href, TagSink sink)
+            throws IOException {
+        if (language != null) {
+            sink.write(fragments.alternateWithLanguageStart);
+            sink.writeEscaped(language);
+            if (media != null) {
+                sink.write(fragments.mediaAfterLanguage);
+                sink.writeEscaped(media);
+            }
+            sink.write(fragments.hrefAfterLanguageOrMedia);
+        } else if (media != null) {
+            sink.write(fragments.alternateWithMediaStart);
+            sink.writeEscaped(media);
+            sink.write(fragments.hrefAfterLanguageOrMedia);
+        } else {
+            sink.write(fragments.alternateWithHrefOnlyStart);
+        }
+        sink.writeEscaped(href);
+        sink.write(fragments.endOfTag);
+        sink.tagsWritten(TagSink.ALTERNATE_TAGS, 1);
+    }
+
+    private void writeMetaTagToSinkIfContentExists(Fragment start, String content, TagSink sink)
+            throws IOException {
+        if (content != null) {
+            sink.write(start);
+            sink.writeEscaped(content);
+            sink.write(fragments.endOfTag);
+            sink.tagsWritten(TagSink.META_TAGS, 1);
         }
     }
+
+    private void writeMetaTagsForDisabledGoogleFeatures(List<GoogleFeature> disabledFeatures, TagSink sink)
+            throws IOException {
+        for (GoogleFeature feature : disabledFeatures)
+            sink.write(fragments.googleFeatureTag(feature));
+        if (!disabledFeatures.isEmpty())
+            sink.tagsWritten(TagSink.META_TAGS, disabledFeatures.size());
+    }
 }
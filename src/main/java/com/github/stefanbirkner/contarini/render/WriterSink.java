@@ -0,0 +1,25 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A {@link TagSink} that writes the characters to a {@link Writer}.
+ */
+class WriterSink extends TagSink {
+    private final Writer w;
+
+    WriterSink(Writer w) {
+        this.w = w;
+    }
+
+    @Override
+    void write(Fragment fragment) throws IOException {
+        w.write(fragment.chars);
+    }
+
+    @Override
+    void writeEscaped(String text) throws IOException {
+        HtmlEscaper.escape(text, w);
+    }
+}
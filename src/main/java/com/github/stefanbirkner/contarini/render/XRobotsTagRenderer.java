@@ -0,0 +1,172 @@
+package com.github.stefanbirkner.contarini.render;
+
+import java.util.List;
+
+import com.github.stefanbirkner.contarini.GoogleFeature;
+import com.github.stefanbirkner.contarini.WebCrawlerAdvice;
+import com.github.stefanbirkner.contarini.WebCrawlerAdviceSet;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+/**
+ * Creates the value of an {@code X-Robots-Tag} HTTP header for a
+ * {@link WebCrawlerInfo}. The header is the counterpart of the robots
+ * and google meta tags for documents that are not HTML (e.g. PDFs or
+ * images).
+ * <pre>
+ * XRobotsTagRenderer renderer = new XRobotsTagRenderer();
+ * String value = renderer.headerValueForInfo(info);
+ * if (value != null)
+ *     response.setHeader(XRobotsTagRenderer.HEADER_NAME, value);
+ * </pre>
+ * <p>The value contains the advices followed by the labels of the
+ * disabled Google features (e.g. {@code noindex, notranslate}). It can
+ * be restricted to a single web crawler by a user agent prefix (e.g.
+ * {@code googlebot: noindex}).
+ * <p>The values for built-in advices and Google features are built once
+ * and interned. They are looked up by a primitive key, therefore
+ * rendering the header for them allocates nothing once the value has
+ * been built. Only a limited number of combinations with many advices
+ * or features is kept, which is plenty for the few combinations of a
+ * site. A {@code XRobotsTagRenderer} can be shared by multiple
+ * threads.
+ * @since 1.3.0
+ */
+public class XRobotsTagRenderer {
+    /**
+     * The name of the HTTP header.
+     */
+    public static final String HEADER_NAME = "X-Robots-Tag";
+    private static final String SEPARATOR = ", ";
+    private static final GoogleFeature[] GOOGLE_FEATURES = GoogleFeature.values();
+    private static final int BITS_PER_FEATURE = 32 - Integer.numberOfLeadingZeros(GOOGLE_FEATURES.length);
+    private static final int MAX_NUMBER_OF_FEATURES = 4;
+    private static final int BITS_OF_FEATURE_KEY = MAX_NUMBER_OF_FEATURES * BITS_PER_FEATURE;
+    private static final int NUMBER_OF_SHORT_ADVICE_KEYS = 1 << 8;
+    private static final int NUMBER_OF_SHORT_FEATURE_KEYS = 1 << (2 * BITS_PER_FEATURE);
+    private static final int NUMBER_OF_LONG_KEY_SLOTS = 1 << 11;
+    private final String prefix;
+    private final String[] valuesForShortKeys = new String[NUMBER_OF_SHORT_ADVICE_KEYS * NUMBER_OF_SHORT_FEATURE_KEYS];
+    private final LongKeyCache<String> valuesForLongKeys = new LongKeyCache<String>(NUMBER_OF_LONG_KEY_SLOTS);
+
+    /**
+     * Creates a renderer for headers that apply to all web crawlers.
+     */
+    public XRobotsTagRenderer() {
+        this.prefix = "";
+    }
+
+    /**
+     * Creates a renderer for headers that apply to a single web crawler.
+     * @param userAgent the user agent of the web crawler (e.g.
+     *                  {@code googlebot}).
+     */
+    public XRobotsTagRenderer(String userAgent) {
+        if (userAgent == null)
+            throw new NullPointerException("The user agent is missing.");
+        checkHeaderText(userAgent);
+        this.prefix = userAgent + ": ";
+    }
+
+    /**
+     * Returns the value of the {@code X-Robots-Tag} header for a
+     * {@link WebCrawlerInfo}. Only the advices and the disabled Google
+     * features are used.
+     * @param info the info.
+     * @return the value of the header or {@code null} if the info has
+     * neither advices nor disabled Google features.
+     * @throws IllegalArgumentException if the label of an advice
+     * contains a control character.
+     */
+    public String headerValueForInfo(WebCrawlerInfo info) {
+        return headerValue(info.getAdvices(), info.getDisabledGoogleFeatures());
+    }
+
+    /**
+     * Returns the value of the {@code X-Robots-Tag} header for advices
+     * and disabled Google features.
+     * @param advices the advices.
+     * @param disabledGoogleFeatures the disabled Google features.
+     * @return the value of the header or {@code null} if there are
+     * neither advices nor disabled Google features.
+     * @throws IllegalArgumentException if the label of an advice
+     * contains a control character.
+     */
+    public String headerValue(List<WebCrawlerAdvice> advices, List<GoogleFeature> disabledGoogleFeatures) {
+        if (advices.isEmpty() && disabledGoogleFeatures.isEmpty())
+            return null;
+        long adviceKey = WebCrawlerAdviceSet.sequenceKeyOf(advices);
+        long featureKey = featureKeyOf(disabledGoogleFeatures);
+        if (adviceKey < 0 || featureKey < 0)
+            return buildValue(advices, disabledGoogleFeatures);
+        else if (adviceKey < NUMBER_OF_SHORT_ADVICE_KEYS && featureKey < NUMBER_OF_SHORT_FEATURE_KEYS)
+            return valueForShortKey((int) (adviceKey * NUMBER_OF_SHORT_FEATURE_KEYS + featureKey),
+                advices, disabledGoogleFeatures);
+        else if (adviceKey >>> (63 - BITS_OF_FEATURE_KEY) == 0)
+            return valueForLongKey((adviceKey << BITS_OF_FEATURE_KEY) | featureKey,
+                advices, disabledGoogleFeatures);
+        else
+            return buildValue(advices, disabledGoogleFeatures);
+    }
+
+    /**
+     * Returns a key that identifies a sequence of features. Each feature
+     * is stored as its ordinal + 1 in {@code BITS_PER_FEATURE} bits.
+     * @return the key or {@code -1} if there are too many features.
+     */
+    private static long featureKeyOf(List<GoogleFeature> features) {
+        if (features.size() > MAX_NUMBER_OF_FEATURES)
+            return -1;
+        long key = 0;
+        for (int i = features.size() - 1; i >= 0; --i)
+            key = (key << BITS_PER_FEATURE) | (features.get(i).ordinal() + 1);
+        return key;
+    }
+
+    private String valueForShortKey(int key, List<WebCrawlerAdvice> advices, List<GoogleFeature> features) {
+        //Strings are immutable and can be published without synchronization.
+        String value = valuesForShortKeys[key];
+        if (value == null) {
+            value = buildValue(advices, features).intern();
+            valuesForShortKeys[key] = value;
+        }
+        return value;
+    }
+
+    private String valueForLongKey(long key, List<WebCrawlerAdvice> advices, List<GoogleFeature> features) {
+        String value = valuesForLongKeys.get(key);
+        if (value == null) {
+            value = buildValue(advices, features).intern();
+            valuesForLongKeys.put(key, value);
+        }
+        return value;
+    }
+
+    private String buildValue(List<WebCrawlerAdvice> advices, List<GoogleFeature> features) {
+        StringBuilder sb = new StringBuilder(prefix);
+        for (int i = 0; i < advices.size(); ++i) {
+            if (i > 0)
+                sb.append(SEPARATOR);
+            String label = advices.get(i).getLabel();
+            checkHeaderText(label);
+            sb.append(label);
+        }
+        for (int i = 0; i < features.size(); ++i) {
+            if (i > 0 || !advices.isEmpty())
+                sb.append(SEPARATOR);
+            sb.append(features.get(i).getLabelForDisabling());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Prevents header injection by texts with line breaks.
+     */
+    private static void checkHeaderText(String text) {
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            if (c < ' ' || c == 0x7f)
+                throw new IllegalArgumentException("The text \"" + text
+                    + "\" contains a control character and cannot be used in an HTTP header.");
+        }
+    }
+}
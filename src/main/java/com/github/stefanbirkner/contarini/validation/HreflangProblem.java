@@ -0,0 +1,85 @@
+package com.github.stefanbirkner.contarini.validation;
+
+/**
+ * A problem of the hreflang links of a page.
+ * @since 1.3.0
+ */
+public class HreflangProblem {
+    private final HreflangProblemType type;
+    private final String url;
+    private final String otherUrl;
+    private final String language;
+
+    public HreflangProblem(HreflangProblemType type, String url, String otherUrl, String language) {
+        this.type = type;
+        this.url = url;
+        this.otherUrl = otherUrl;
+        this.language = language;
+    }
+
+    /**
+     * Returns the kind of the problem.
+     * @return the kind of the problem.
+     */
+    public HreflangProblemType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the URL of the page that has the problem.
+     * @return the URL of the page.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the other URL that is involved in the problem. This is the
+     * alternate page of a {@link HreflangProblemType#MISSING_RETURN_LINK}
+     * and the canonical URL or the non-canonical alternate page of a
+     * {@link HreflangProblemType#CANONICAL_CONFLICT}.
+     * @return the other URL or {@code null} if there is none.
+     */
+    public String getOtherUrl() {
+        return otherUrl;
+    }
+
+    /**
+     * Returns the language of the hreflang link that has the problem.
+     * @return the language or {@code null} if the problem is not
+     * related to a single language.
+     */
+    public String getLanguage() {
+        return language;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = type.hashCode();
+        result = 31 * result + url.hashCode();
+        result = 31 * result + (otherUrl == null ? 0 : otherUrl.hashCode());
+        result = 31 * result + (language == null ? 0 : language.hashCode());
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        HreflangProblem other = (HreflangProblem) obj;
+        return type == other.type
+            && url.equals(other.url)
+            && (otherUrl == null ? other.otherUrl == null : otherUrl.equals(other.otherUrl))
+            && (language == null ? other.language == null : language.equals(other.language));
+    }
+
+    @Override
+    public String toString() {
+        return "HreflangProblem [type=" + type + ", url=" + url
+            + ", otherUrl=" + otherUrl + ", language=" + language + "]";
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.stefanbirkner.contarini.validation;
+
+/**
+ * Receives the problems that are found by the {@link HreflangValidator}.
+ * @since 1.3.0
+ */
+public interface HreflangProblemListener {
+    /**
+     * Receives a single problem.
+     * @param problem the problem.
+     */
+    void problemFound(HreflangProblem problem);
+}
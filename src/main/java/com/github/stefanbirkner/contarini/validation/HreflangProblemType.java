@@ -0,0 +1,28 @@
+package com.github.stefanbirkner.contarini.validation;
+
+/**
+ * The kinds of problems that are found by the {@link HreflangValidator}.
+ * @since 1.3.0
+ */
+public enum HreflangProblemType {
+    /**
+     * A page links to an alternate page, but the alternate page does not
+     * link back. Search engines ignore such links.
+     */
+    MISSING_RETURN_LINK,
+    /**
+     * A page has hreflang links, but none of them links to the page
+     * itself.
+     */
+    MISSING_SELF_REFERENCE,
+    /**
+     * A page has hreflang links although it is not canonical, or it has
+     * a hreflang link to a page that is not canonical.
+     */
+    CANONICAL_CONFLICT,
+    /**
+     * A page has hreflang links to different pages for the same
+     * language.
+     */
+    DUPLICATE_LANGUAGE
+}
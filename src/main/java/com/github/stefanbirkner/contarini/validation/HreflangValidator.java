@@ -0,0 +1,162 @@
+package com.github.stefanbirkner.contarini.validation;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+
+import static com.github.stefanbirkner.contarini.validation.HreflangProblemType.CANONICAL_CONFLICT;
+import static com.github.stefanbirkner.contarini.validation.HreflangProblemType.DUPLICATE_LANGUAGE;
+import static com.github.stefanbirkner.contarini.validation.HreflangProblemType.MISSING_RETURN_LINK;
+import static com.github.stefanbirkner.contarini.validation.HreflangProblemType.MISSING_SELF_REFERENCE;
+
+/**
+ * Checks the hreflang links of a whole site. Search engines ignore
+ * hreflang links that are not reciprocal, i.e. the alternate page must
+ * link back to the page.
+ * <pre>
+ * HreflangValidator validator = new HreflangValidator();
+ * for (Page page : pages)
+ *     validator.add(page.getUrl(), page.getWebCrawlerInfo());
+ * validator.validate(listener);
+ * </pre>
+ * <p>The validator only stores ids. URLs and languages are mapped to
+ * consecutive {@code int} ids and the links of all pages are stored in
+ * a few {@code int} arrays. {@link #validate(HreflangProblemListener)}
+ * sorts the link targets of each page once, therefore checking a return
+ * link needs a binary search within the links of a single page. Adding
+ * the pages and validating them is linear in the number of links (apart
+ * from the logarithmic factor of the binary search).
+ * <p>Only alternates with a language are hreflang links. URLs are
+ * compared exactly. Return links are only checked if the alternate page
+ * has been added, too. A {@code HreflangValidator} must not be used by
+ * multiple threads.
+ * @since 1.3.0
+ */
+public class HreflangValidator {
+    private static final int NONE = -1;
+    private final StringDictionary urls = new StringDictionary();
+    private final StringDictionary languages = new StringDictionary();
+    /** The page of each URL id or {@code NONE}. */
+    private final IntArray pageOfUrl = new IntArray();
+    private final IntArray urlOfPage = new IntArray();
+    private final IntArray canonicalOfPage = new IntArray();
+    /** The index of the first link of each page. */
+    private final IntArray firstLinkOfPage = new IntArray();
+    private final IntArray targetOfLink = new IntArray();
+    private final IntArray languageOfLink = new IntArray();
+
+    /**
+     * Adds a page.
+     * @param url the URL of the page.
+     * @param info the {@link WebCrawlerInfo} of the page.
+     * @throws IllegalArgumentException if a page with the same URL has
+     * already been added.
+     */
+    public void add(String url, WebCrawlerInfo info) {
+        int urlId = urls.idOf(url);
+        pageOfUrl.fill(urls.size(), NONE);
+        if (pageOfUrl.get(urlId) != NONE)
+            throw new IllegalArgumentException("The page " + url + " has already been added.");
+        int page = urlOfPage.size();
+        pageOfUrl.set(urlId, page);
+        urlOfPage.add(urlId);
+        canonicalOfPage.add(info.getCanonical() == null ? NONE : urls.idOf(info.getCanonical()));
+        firstLinkOfPage.add(targetOfLink.size());
+        List<Alternate> alternates = info.getAlternates();
+        for (int i = 0; i < alternates.size(); ++i) {
+            Alternate alternate = alternates.get(i);
+            if (alternate.language != null && alternate.href != null) {
+                targetOfLink.add(urls.idOf(alternate.href));
+                languageOfLink.add(languages.idOf(alternate.language));
+            }
+        }
+        pageOfUrl.fill(urls.size(), NONE);
+    }
+
+    /**
+     * Returns the number of pages that have been added.
+     * @return the number of pages.
+     */
+    public int getNumberOfPages() {
+        return urlOfPage.size();
+    }
+
+    /**
+     * Checks the hreflang links of all pages that have been added.
+     * @param listener receives the problems.
+     */
+    public void validate(HreflangProblemListener listener) {
+        int numberOfPages = urlOfPage.size();
+        int[] firstLinks = Arrays.copyOf(firstLinkOfPage.toArray(), numberOfPages + 1);
+        firstLinks[numberOfPages] = targetOfLink.size();
+        int[] targets = targetOfLink.toArray();
+        int[] sortedTargets = targets.clone();
+        for (int page = 0; page < numberOfPages; ++page)
+            Arrays.sort(sortedTargets, firstLinks[page], firstLinks[page + 1]);
+        long[] languagesAndTargets = new long[0];
+        for (int page = 0; page < numberOfPages; ++page) {
+            int start = firstLinks[page];
+            int end = firstLinks[page + 1];
+            if (start == end)
+                continue;
+            int url = urlOfPage.get(page);
+            int canonical = canonicalOfPage.get(page);
+            if (canonical != NONE && canonical != url)
+                report(listener, CANONICAL_CONFLICT, url, canonical, NONE);
+            boolean hasSelfReference = false;
+            for (int link = start; link < end; ++link) {
+                int target = targets[link];
+                if (target == url) {
+                    hasSelfReference = true;
+                    continue;
+                }
+                int targetPage = pageOfUrl.get(target);
+                if (targetPage == NONE)
+                    continue;
+                int targetStart = firstLinks[targetPage];
+                int targetEnd = firstLinks[targetPage + 1];
+                if (Arrays.binarySearch(sortedTargets, targetStart, targetEnd, url) < 0)
+                    report(listener, MISSING_RETURN_LINK, url, target, languageOfLink.get(link));
+                int canonicalOfTarget = canonicalOfPage.get(targetPage);
+                if (canonicalOfTarget != NONE && canonicalOfTarget != target)
+                    report(listener, CANONICAL_CONFLICT, url, target, languageOfLink.get(link));
+            }
+            if (!hasSelfReference)
+                report(listener, MISSING_SELF_REFERENCE, url, NONE, NONE);
+            if (languagesAndTargets.length < end - start)
+                languagesAndTargets = new long[2 * (end - start)];
+            reportDuplicateLanguages(listener, url, start, end, targets, languagesAndTargets);
+        }
+    }
+
+    /**
+     * Sorts the links of a page by language and target so that links
+     * with the same language are neighbours.
+     */
+    private void reportDuplicateLanguages(HreflangProblemListener listener, int url, int start, int end,
+            int[] targets, long[] languagesAndTargets) {
+        int numberOfLinks = end - start;
+        for (int i = 0; i < numberOfLinks; ++i)
+            languagesAndTargets[i] = ((long) languageOfLink.get(start + i) << 32) | targets[start + i];
+        Arrays.sort(languagesAndTargets, 0, numberOfLinks);
+        int reportedLanguage = NONE;
+        for (int i = 1; i < numberOfLinks; ++i) {
+            int language = (int) (languagesAndTargets[i] >>> 32);
+            int previousLanguage = (int) (languagesAndTargets[i - 1] >>> 32);
+            if (language == previousLanguage && language != reportedLanguage
+                    && languagesAndTargets[i] != languagesAndTargets[i - 1]) {
+                report(listener, DUPLICATE_LANGUAGE, url, NONE, language);
+                reportedLanguage = language;
+            }
+        }
+    }
+
+    private void report(HreflangProblemListener listener, HreflangProblemType type,
+            int url, int otherUrl, int language) {
+        listener.problemFound(new HreflangProblem(type, urls.stringOf(url),
+            otherUrl == NONE ? null : urls.stringOf(otherUrl),
+            language == NONE ? null : languages.stringOf(language)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.stefanbirkner.contarini.validation;
+
+import java.util.Arrays;
+
+/**
+ * A growable array of {@code int}s. It avoids the boxing of a
+ * {@code List<Integer>}.
+ */
+class IntArray {
+    private int[] values = new int[16];
+    private int size = 0;
+
+    void add(int value) {
+        if (size == values.length)
+            values = Arrays.copyOf(values, 2 * size);
+        values[size++] = value;
+    }
+
+    int get(int index) {
+        return values[index];
+    }
+
+    void set(int index, int value) {
+        values[index] = value;
+    }
+
+    /**
+     * Appends {@code value} until the array has {@code newSize} elements.
+     */
+    void fill(int newSize, int value) {
+        while (size < newSize)
+            add(value);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.stefanbirkner.contarini.validation;
+
+import java.util.Arrays;
+
+/**
+ * Assigns consecutive ids to strings. It is an open addressing hash
+ * table with linear probing whose slots store ids only, therefore each
+ * distinct string costs two array elements besides the string itself.
+ * <p>It is a copy of the dictionary of the {@code WebCrawlerInfoTable}
+ * without {@code trimToSize()}, because that one is package-private.
+ */
+class StringDictionary {
+    private static final int INITIAL_CAPACITY = 16;
+    //a slot contains id + 1 or 0 if it is empty
+    private int[] slots = new int[2 * INITIAL_CAPACITY];
+    private String[] strings = new String[INITIAL_CAPACITY];
+    private int size = 0;
+
+    /**
+     * Returns the id of a string. The string is added if it is not
+     * present.
+     */
+    int idOf(String string) {
+        int slot = slotOf(string);
+        if (slots[slot] != 0)
+            return slots[slot] - 1;
+        if (size == strings.length)
+            strings = Arrays.copyOf(strings, 2 * size);
+        strings[size] = string;
+        slots[slot] = ++size;
+        if (2 * size > slots.length)
+            resize();
+        return size - 1;
+    }
+
+    String stringOf(int id) {
+        return strings[id];
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slotOf(String string) {
+        int mask = slots.length - 1;
+        int slot = spread(string.hashCode()) & mask;
+        while (slots[slot] != 0 && !strings[slots[slot] - 1].equals(string))
+            slot = (slot + 1) & mask;
+        return slot;
+    }
+
+    private void resize() {
+        slots = new int[2 * slots.length];
+        for (int id = 0; id < size; ++id)
+            slots[slotOf(strings[id])] = id + 1;
+    }
+
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.stefanbirkner.contarini;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class AlternateSetTest {
+    private static final Alternate GERMAN = alternateLanguage("de", "http://dummy.domain/de");
+    private static final Alternate ENGLISH = alternateLanguage("en", "http://dummy.domain/en");
+
+    @Rule
+    public final ExpectedException thrown = none();
+
+    @Test
+    public void isEqualToListWithSameAlternates() {
+        AlternateSet set = AlternateSet.of(GERMAN, ENGLISH);
+        assertThat(set).isEqualTo(asList(GERMAN, ENGLISH));
+        assertThat(set.hashCode()).isEqualTo(asList(GERMAN, ENGLISH).hashCode());
+    }
+
+    @Test
+    public void isNotAffectedByModificationsOfTheOriginalList() {
+        List<Alternate> alternates = new ArrayList<Alternate>();
+        alternates.add(GERMAN);
+        AlternateSet set = AlternateSet.of(alternates);
+        alternates.add(ENGLISH);
+        assertThat(set).containsExactly(GERMAN);
+    }
+
+    @Test
+    public void isUnmodifiable() {
+        thrown.expect(UnsupportedOperationException.class);
+        AlternateSet.of(GERMAN).add(ENGLISH);
+    }
+
+    @Test
+    public void isSharedByInfos() {
+        AlternateSet set = AlternateSet.of(GERMAN, ENGLISH);
+        WebCrawlerInfo info = new WebCrawlerInfo().withAlternates(set);
+        assertThat(info.getAlternates()).isSameAs(set);
+    }
+
+    @Test
+    public void isSharedByInfosCreatedByBuilder() {
+        AlternateSet set = AlternateSet.of(GERMAN, ENGLISH);
+        WebCrawlerInfo info = new WebCrawlerInfo.Builder().withAlternates(set).build();
+        assertThat(info.getAlternates()).isSameAs(set);
+    }
+
+    @Test
+    public void isNotUsedByBuilderAfterAddingAnotherAlternate() {
+        AlternateSet set = AlternateSet.of(GERMAN);
+        WebCrawlerInfo info = new WebCrawlerInfo.Builder().withAlternates(set).addAlternate(ENGLISH).build();
+        assertThat(info.getAlternates()).containsExactly(GERMAN, ENGLISH);
+        assertThat(set).containsExactly(GERMAN);
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.stefanbirkner.contarini;
+
+import org.junit.Test;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.Alternate.alternateMedia;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AlternateTest {
+    @Test
+    public void isEqualToAlternateWithSameValues() {
+        Alternate firstAlternate = alternateLanguage("de", "http://dummy.domain/de");
+        Alternate secondAlternate = alternateLanguage("de", "http://dummy.domain/de");
+        assertThat(firstAlternate).isEqualTo(secondAlternate);
+        assertThat(firstAlternate.hashCode()).isEqualTo(secondAlternate.hashCode());
+    }
+
+    @Test
+    public void isDifferentFromAlternateWithOtherMedia() {
+        Alternate firstAlternate = alternateMedia("screen", "http://dummy.domain/");
+        Alternate secondAlternate = alternateMedia("print", "http://dummy.domain/");
+        assertThat(firstAlternate).isNotEqualTo(secondAlternate);
+    }
+
+    @Test
+    public void internsEqualAlternatesToSameInstance() {
+        Alternate firstAlternate = alternateLanguage("de", "http://dummy.domain/de").intern();
+        Alternate secondAlternate = alternateLanguage("de", "http://dummy.domain/de").intern();
+        assertThat(secondAlternate).isSameAs(firstAlternate);
+    }
+
+    @Test
+    public void internsDifferentAlternatesToDifferentInstances() {
+        Alternate firstAlternate = alternateLanguage("de", "http://dummy.domain/de").intern();
+        Alternate secondAlternate = alternateLanguage("en", "http://dummy.domain/en").intern();
+        assertThat(secondAlternate).isNotSameAs(firstAlternate);
+    }
+}
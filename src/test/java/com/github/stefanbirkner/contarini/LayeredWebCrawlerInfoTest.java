@@ -0,0 +1,93 @@
+package com.github.stefanbirkner.contarini;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.SITELINKS_SEARCH_BOX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class LayeredWebCrawlerInfoTest {
+    private static final WebCrawlerInfo PARENT = new WebCrawlerInfo()
+        .withCanonical("http://dummy.parent")
+        .withAdvices(NO_ARCHIVE)
+        .withAlternates(alternateLanguage("de", "http://dummy.parent/de"))
+        .withDescription("parent description")
+        .withKeywords("parent, keywords")
+        .disableGoogleFeatures(TRANSLATION);
+
+    @Rule
+    public final ExpectedException thrown = none();
+
+    @Test
+    public void inheritsAllPropertiesOfParentForEmptyOverride() {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, new WebCrawlerInfo());
+        assertThat(info.getEffectiveInfo()).isEqualTo(PARENT);
+    }
+
+    @Test
+    public void usesPropertiesOfOverride() {
+        WebCrawlerInfo override = new WebCrawlerInfo()
+            .withCanonical("http://dummy.override")
+            .withAdvices(NO_INDEX)
+            .withAlternates(alternateLanguage("en", "http://dummy.override/en"))
+            .withDescription("override description")
+            .withKeywords("override")
+            .disableGoogleFeatures(SITELINKS_SEARCH_BOX);
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, override);
+        assertThat(info.getEffectiveInfo()).isEqualTo(override);
+    }
+
+    @Test
+    public void doesNotMergeLists() {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, new WebCrawlerInfo().withAdvices(NO_INDEX));
+        assertThat(info.getEffectiveInfo().getAdvices()).containsExactly(NO_INDEX);
+    }
+
+    @Test
+    public void combinesParentAndOverride() {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT,
+            new WebCrawlerInfo().withCanonical("http://dummy.override").withDescription("override description"));
+        assertThat(info.getEffectiveInfo()).isEqualTo(new WebCrawlerInfo()
+            .withCanonical("http://dummy.override")
+            .withAdvices(NO_ARCHIVE)
+            .withAlternates(alternateLanguage("de", "http://dummy.parent/de"))
+            .withDescription("override description")
+            .withKeywords("parent, keywords")
+            .disableGoogleFeatures(TRANSLATION));
+    }
+
+    @Test
+    public void keepsParentForNewOverride() {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, new WebCrawlerInfo())
+            .withOverride(new WebCrawlerInfo().withKeywords("override"));
+        assertThat(info.getParent()).isSameAs(PARENT);
+        assertThat(info.getEffectiveInfo().getKeywords()).isEqualTo("override");
+    }
+
+    @Test
+    public void isEqualToInfoWithEqualParentAndOverride() {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, new WebCrawlerInfo().withKeywords("a"));
+        LayeredWebCrawlerInfo otherInfo = new LayeredWebCrawlerInfo(PARENT, new WebCrawlerInfo().withKeywords("a"));
+        assertThat(info).isEqualTo(otherInfo);
+        assertThat(info.hashCode()).isEqualTo(otherInfo.hashCode());
+    }
+
+    @Test
+    public void isNotEqualToInfoWithDifferentOverride() {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, new WebCrawlerInfo().withKeywords("a"));
+        LayeredWebCrawlerInfo otherInfo = new LayeredWebCrawlerInfo(PARENT, new WebCrawlerInfo().withKeywords("b"));
+        assertThat(info).isNotEqualTo(otherInfo);
+    }
+
+    @Test
+    public void cannotBeCreatedWithoutParent() {
+        thrown.expect(NullPointerException.class);
+        new LayeredWebCrawlerInfo(null, new WebCrawlerInfo());
+    }
+}
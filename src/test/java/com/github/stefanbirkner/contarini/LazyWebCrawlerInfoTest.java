@@ -0,0 +1,150 @@
+package com.github.stefanbirkner.contarini;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyWebCrawlerInfoTest {
+    private static final WebCrawlerInfo INFO = new WebCrawlerInfo()
+        .withCanonical("http://dummy.canonical")
+        .withAdvices(NO_ARCHIVE)
+        .withKeywords("dummy, keywords");
+
+    private final CountingSupplier description = new CountingSupplier("dummy description");
+
+    @Test
+    public void doesNotCallSupplierBeforeValueIsNeeded() {
+        LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(INFO).withDescription(description);
+        info.getCanonical();
+        info.getKeywords();
+        assertThat(description.calls.get()).isZero();
+        assertThat(info.isEvaluated()).isFalse();
+    }
+
+    @Test
+    public void callsSupplierOnlyOnce() {
+        LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(INFO).withDescription(description);
+        assertThat(info.getDescription()).isEqualTo("dummy description");
+        assertThat(info.getDescription()).isEqualTo("dummy description");
+        info.toWebCrawlerInfo();
+        assertThat(description.calls.get()).isEqualTo(1);
+        assertThat(info.isEvaluated()).isTrue();
+    }
+
+    @Test
+    public void callsSupplierOnlyOnceForConcurrentAccess() throws Exception {
+        final LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(INFO).withDescription(description);
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; ++i) {
+            Thread thread = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    info.getDescription();
+                }
+            };
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        assertThat(description.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void remembersNullValue() {
+        CountingSupplier nullSupplier = new CountingSupplier(null);
+        LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(INFO).withKeywords(nullSupplier);
+        assertThat(info.getKeywords()).isNull();
+        assertThat(info.getKeywords()).isNull();
+        assertThat(nullSupplier.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void callsSupplierAgainAfterException() {
+        final AtomicInteger calls = new AtomicInteger();
+        LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(INFO).withDescription(new ValueSupplier<String>() {
+            @Override
+            public String get() {
+                if (calls.incrementAndGet() == 1)
+                    throw new IllegalStateException("dummy failure");
+                return "dummy description";
+            }
+        });
+        try {
+            info.getDescription();
+        } catch (IllegalStateException expected) {
+        }
+        assertThat(info.getDescription()).isEqualTo("dummy description");
+    }
+
+    @Test
+    public void createsWebCrawlerInfoWithEvaluatedValues() {
+        LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(INFO)
+            .withDescription(description)
+            .withAlternates(new ValueSupplier<List<Alternate>>() {
+                @Override
+                public List<Alternate> get() {
+                    return asList(alternateLanguage("de", "http://dummy.canonical/de"));
+                }
+            });
+        assertThat(info.toWebCrawlerInfo()).isEqualTo(INFO
+            .withDescription("dummy description")
+            .withAlternates(alternateLanguage("de", "http://dummy.canonical/de")));
+    }
+
+    @Test
+    public void treatsSuppliedNullListAsEmptyList() {
+        LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(INFO).withAlternates(new ValueSupplier<List<Alternate>>() {
+            @Override
+            public List<Alternate> get() {
+                return null;
+            }
+        });
+        assertThat(info.getAlternates()).isEmpty();
+    }
+
+    @Test
+    public void isEqualToInfoWithEqualEvaluatedValues() {
+        LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(INFO).withDescription(description);
+        LazyWebCrawlerInfo otherInfo = new LazyWebCrawlerInfo(INFO.withDescription("dummy description"));
+        assertThat(info).isEqualTo(otherInfo);
+        assertThat(info.hashCode()).isEqualTo(otherInfo.hashCode());
+    }
+
+    @Test
+    public void doesNotCallSupplierForToString() {
+        LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(INFO).withDescription(description);
+        assertThat(info.toString()).contains("description=<not evaluated>");
+        assertThat(description.calls.get()).isZero();
+    }
+
+    private static class CountingSupplier implements ValueSupplier<String> {
+        final AtomicInteger calls = new AtomicInteger();
+        final String value;
+
+        CountingSupplier(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String get() {
+            calls.incrementAndGet();
+            return value;
+        }
+    }
+}
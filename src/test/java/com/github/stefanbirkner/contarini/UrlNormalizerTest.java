@@ -0,0 +1,155 @@
+package com.github.stefanbirkner.contarini;
+
+import org.junit.Test;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UrlNormalizerTest {
+    private final UrlNormalizer normalizer = new UrlNormalizer();
+
+    @Test
+    public void convertsSchemeAndHostToLowerCase() {
+        assertThat(normalizer.normalize("HTTP://Dummy.Domain.COM/Help"))
+            .isEqualTo("http://dummy.domain.com/Help");
+    }
+
+    @Test
+    public void removesDefaultPortOfHttp() {
+        assertThat(normalizer.normalize("http://dummy.domain:80/help")).isEqualTo("http://dummy.domain/help");
+    }
+
+    @Test
+    public void removesDefaultPortOfHttps() {
+        assertThat(normalizer.normalize("https://dummy.domain:443/help")).isEqualTo("https://dummy.domain/help");
+    }
+
+    @Test
+    public void keepsOtherPort() {
+        assertThat(normalizer.normalize("http://dummy.domain:8080/help")).isEqualTo("http://dummy.domain:8080/help");
+    }
+
+    @Test
+    public void keepsUserInfo() {
+        assertThat(normalizer.normalize("http://User@Dummy.Domain/")).isEqualTo("http://User@dummy.domain/");
+    }
+
+    @Test
+    public void handlesIpv6Address() {
+        assertThat(normalizer.normalize("http://[::1]:80/")).isEqualTo("http://[::1]/");
+    }
+
+    @Test
+    public void replacesEmptyPathWithSlash() {
+        assertThat(normalizer.normalize("http://dummy.domain?a=1")).isEqualTo("http://dummy.domain/?a=1");
+    }
+
+    @Test
+    public void removesFragment() {
+        assertThat(normalizer.normalize("http://dummy.domain/help#top")).isEqualTo("http://dummy.domain/help");
+    }
+
+    @Test
+    public void removesEmptyQuery() {
+        assertThat(normalizer.normalize("http://dummy.domain/help?&")).isEqualTo("http://dummy.domain/help");
+    }
+
+    @Test
+    public void removesDeniedQueryParameters() {
+        UrlNormalizer normalizer = this.normalizer.withDeniedQueryParameters("sessionid", "utm_*");
+        assertThat(normalizer.normalize("http://dummy.domain/?utm_source=mail&page=2&sessionid=abc&utm_medium"))
+            .isEqualTo("http://dummy.domain/?page=2");
+    }
+
+    @Test
+    public void keepsParameterThatStartsWithDeniedName() {
+        UrlNormalizer normalizer = this.normalizer.withDeniedQueryParameters("id");
+        assertThat(normalizer.normalize("http://dummy.domain/?identifier=1&id=2"))
+            .isEqualTo("http://dummy.domain/?identifier=1");
+    }
+
+    @Test
+    public void keepsTrailingSlashByDefault() {
+        assertThat(normalizer.normalize("http://dummy.domain/help/")).isEqualTo("http://dummy.domain/help/");
+    }
+
+    @Test
+    public void removesTrailingSlashOfPathOtherThanRoot() {
+        UrlNormalizer normalizer = this.normalizer.withTrailingSlashRemoval(true);
+        assertThat(normalizer.normalize("http://dummy.domain/help/?a=1")).isEqualTo("http://dummy.domain/help?a=1");
+        assertThat(normalizer.normalize("http://dummy.domain/")).isEqualTo("http://dummy.domain/");
+    }
+
+    @Test
+    public void normalizesRelativeUrl() {
+        assertThat(normalizer.normalize("/help?a=1#top")).isEqualTo("/help?a=1");
+    }
+
+    @Test
+    public void normalizesProtocolRelativeUrl() {
+        assertThat(normalizer.normalize("//Dummy.Domain")).isEqualTo("//dummy.domain/");
+    }
+
+    @Test
+    public void doesNotModifyUrlWithoutAuthority() {
+        assertThat(normalizer.normalize("mailto:Dummy@Domain")).isEqualTo("mailto:Dummy@Domain");
+    }
+
+    @Test
+    public void returnsSameStringForNormalizedUrl() {
+        String url = "http://dummy.domain/help";
+        assertThat(normalizer.normalize(url)).isSameAs(url);
+        assertThat(normalizer.normalize(new String(url))).isEqualTo(url);
+    }
+
+    @Test
+    public void returnsSameResultForCachedUrl() {
+        String first = normalizer.normalize("HTTP://DUMMY.DOMAIN/help");
+        assertThat(normalizer.normalize("HTTP://DUMMY.DOMAIN/help")).isSameAs(first);
+    }
+
+    @Test
+    public void normalizesWithoutCache() {
+        UrlNormalizer normalizer = this.normalizer.withCacheSize(0);
+        assertThat(normalizer.normalize("HTTP://DUMMY.DOMAIN")).isEqualTo("http://dummy.domain/");
+    }
+
+    @Test
+    public void returnsNullForNull() {
+        assertThat(normalizer.normalize((String) null)).isNull();
+    }
+
+    @Test
+    public void normalizesUrlOfAlternate() {
+        Alternate alternate = normalizer.normalize(alternateLanguage("de", "HTTP://DUMMY.DOMAIN/de"));
+        assertThat(alternate).isEqualTo(alternateLanguage("de", "http://dummy.domain/de"));
+    }
+
+    @Test
+    public void createsAlternateWithNormalizedUrl() {
+        assertThat(normalizer.alternateLanguage("de", "HTTP://DUMMY.DOMAIN/de"))
+            .isEqualTo(alternateLanguage("de", "http://dummy.domain/de"));
+    }
+
+    @Test
+    public void normalizesUrlsOfWebCrawlerInfo() {
+        WebCrawlerInfo info = new WebCrawlerInfo()
+            .withCanonical("HTTP://DUMMY.DOMAIN:80")
+            .withAlternates(alternateLanguage("de", "http://dummy.domain/de"),
+                alternateLanguage("en", "http://dummy.domain/en#top"))
+            .withDescription("dummy description");
+        assertThat(normalizer.normalize(info)).isEqualTo(new WebCrawlerInfo()
+            .withCanonical("http://dummy.domain/")
+            .withAlternates(alternateLanguage("de", "http://dummy.domain/de"),
+                alternateLanguage("en", "http://dummy.domain/en"))
+            .withDescription("dummy description"));
+    }
+
+    @Test
+    public void returnsSameWebCrawlerInfoIfUrlsAreNormalized() {
+        WebCrawlerInfo info = new WebCrawlerInfo()
+            .withCanonical("http://dummy.domain/")
+            .withAlternates(alternateLanguage("de", "http://dummy.domain/de"));
+        assertThat(normalizer.normalize(info)).isSameAs(info);
+    }
+}
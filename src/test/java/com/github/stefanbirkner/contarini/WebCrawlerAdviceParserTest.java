@@ -0,0 +1,106 @@
+package com.github.stefanbirkner.contarini;
+
+import com.github.stefanbirkner.contarini.render.XRobotsTagRenderer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NONE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_FOLLOW;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.ImplicitWebCrawlerAdvice.FOLLOW;
+import static com.github.stefanbirkner.contarini.ImplicitWebCrawlerAdvice.INDEX;
+import static com.github.stefanbirkner.contarini.WebCrawlerAdviceParser.indexOfLabel;
+import static com.github.stefanbirkner.contarini.WebCrawlerAdviceParser.parseAdviceSet;
+import static com.github.stefanbirkner.contarini.WebCrawlerAdviceParser.parseAdvices;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class WebCrawlerAdviceParserTest {
+    @Rule
+    public final ExpectedException thrown = none();
+
+    @Test
+    public void findsIndexOfEveryBuiltInAdvice() {
+        for (int i = 0; i < WebCrawlerAdviceSet.NUMBER_OF_BUILT_IN_ADVICES; ++i) {
+            String label = WebCrawlerAdviceSet.builtInAdvice(i).getLabel();
+            assertThat(indexOfLabel(label, 0, label.length())).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void findsIndexOfLabelWithinText() {
+        assertThat(indexOfLabel("a,NoArchive,b", 2, 11)).isEqualTo(NO_ARCHIVE.ordinal());
+    }
+
+    @Test
+    public void rejectsLabelWhoseStartIsAfterItsEnd() {
+        thrown.expect(IllegalArgumentException.class);
+        indexOfLabel("noindex", 5, 2);
+    }
+
+    @Test
+    public void doesNotFindIndexOfUnknownLabel() {
+        assertThat(indexOfLabel("noindexx", 0, 8)).isEqualTo(-1);
+        assertThat(indexOfLabel("noindex", 0, 6)).isEqualTo(-1);
+        assertThat(indexOfLabel("max-snippet:20", 0, 14)).isEqualTo(-1);
+    }
+
+    @Test
+    public void parsesAdvicesInOrderOfText() {
+        assertThat(parseAdvices("NOINDEX, nofollow,noarchive , index,follow"))
+            .containsExactly(NO_INDEX, NO_FOLLOW, NO_ARCHIVE, INDEX, FOLLOW);
+    }
+
+    @Test
+    public void keepsUnknownAdvicesAsCustomAdvices() {
+        assertThat(parseAdvices("noindex, Max-Snippet:20"))
+            .containsExactly(NO_INDEX, new CustomWebCrawlerAdvice("Max-Snippet:20"));
+    }
+
+    @Test
+    public void skipsUserAgentPrefix() {
+        assertThat(parseAdvices("googlebot: noindex, nofollow")).containsExactly(NO_INDEX, NO_FOLLOW);
+        assertThat(parseAdviceSet(" otherbot:noarchive")).isEqualTo(WebCrawlerAdviceSet.of(NO_ARCHIVE));
+    }
+
+    @Test
+    public void keepsAdviceWithValueAsFirstAdvice() {
+        assertThat(parseAdvices("max-snippet: 20, noindex"))
+            .containsExactly(new CustomWebCrawlerAdvice("max-snippet: 20"), NO_INDEX);
+        assertThat(parseAdvices("Unavailable_After: 25 Jun 2010 15:00:00 PST"))
+            .containsExactly(new CustomWebCrawlerAdvice("Unavailable_After: 25 Jun 2010 15:00:00 PST"));
+    }
+
+    @Test
+    public void readsHeaderOfXRobotsTagRendererWithUserAgent() {
+        String header = new XRobotsTagRenderer("googlebot").headerValueForInfo(
+            new WebCrawlerInfo().withAdvices(NO_INDEX, NO_ARCHIVE, NO_FOLLOW));
+        assertThat(parseAdvices(header)).containsExactly(NO_INDEX, NO_ARCHIVE, NO_FOLLOW);
+    }
+
+    @Test
+    public void ignoresEmptyAdvices() {
+        assertThat(parseAdvices(" , none,, ")).containsExactly(NONE);
+        assertThat(parseAdvices("")).isEmpty();
+    }
+
+    @Test
+    public void parsesAdviceSet() {
+        WebCrawlerAdviceSet set = parseAdviceSet("nofollow, NOINDEX, nofollow, max-snippet:20, max-snippet:20");
+        assertThat(set).isEqualTo(WebCrawlerAdviceSet.of(
+            NO_INDEX, NO_FOLLOW, new CustomWebCrawlerAdvice("max-snippet:20")));
+    }
+
+    @Test
+    public void parsesAdviceSetWithinText() {
+        WebCrawlerAdviceSet set = parseAdviceSet("googlebot: noindex, nofollow", 10, 28);
+        assertThat(set).isEqualTo(WebCrawlerAdviceSet.of(NO_INDEX, NO_FOLLOW));
+    }
+
+    @Test
+    public void returnsEmptySetForTextWithoutAdvices() {
+        assertThat(parseAdviceSet(" ")).isSameAs(WebCrawlerAdviceSet.EMPTY);
+    }
+}
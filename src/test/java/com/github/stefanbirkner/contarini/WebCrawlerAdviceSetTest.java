@@ -0,0 +1,109 @@
+package com.github.stefanbirkner.contarini;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NONE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_FOLLOW;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.ImplicitWebCrawlerAdvice.FOLLOW;
+import static com.github.stefanbirkner.contarini.ImplicitWebCrawlerAdvice.INDEX;
+import static com.github.stefanbirkner.contarini.ImplicitWebCrawlerAdvice.implicitAdvicesAnd;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebCrawlerAdviceSetTest {
+    private static final WebCrawlerAdvice CUSTOM_ADVICE = new WebCrawlerAdvice() {
+        @Override
+        public String getLabel() {
+            return "max-snippet:20";
+        }
+    };
+    private static final WebCrawlerAdvice CUSTOM_ADVICE_WITH_BUILT_IN_LABEL = new WebCrawlerAdvice() {
+        @Override
+        public String getLabel() {
+            return "nofollow";
+        }
+    };
+
+    @Test
+    public void containsBuiltInAndCustomAdvices() {
+        WebCrawlerAdviceSet set = WebCrawlerAdviceSet.of(NO_ARCHIVE, CUSTOM_ADVICE);
+        assertThat(set.contains(NO_ARCHIVE)).isTrue();
+        assertThat(set.contains(CUSTOM_ADVICE)).isTrue();
+        assertThat(set.contains(NO_INDEX)).isFalse();
+        assertThat(set.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void ignoresDuplicates() {
+        WebCrawlerAdviceSet set = WebCrawlerAdviceSet.of(NO_ARCHIVE, NO_ARCHIVE, CUSTOM_ADVICE, CUSTOM_ADVICE);
+        assertThat(set.toList()).containsExactly(NO_ARCHIVE, CUSTOM_ADVICE);
+    }
+
+    @Test
+    public void returnsSameSetIfAdviceIsAlreadyPresent() {
+        WebCrawlerAdviceSet set = WebCrawlerAdviceSet.of(NO_ARCHIVE);
+        assertThat(set.with(NO_ARCHIVE)).isSameAs(set);
+    }
+
+    @Test
+    public void treatsCustomAdviceWithLabelOfBuiltInAdviceAsBuiltInAdvice() {
+        WebCrawlerAdviceSet set = WebCrawlerAdviceSet.of(CUSTOM_ADVICE_WITH_BUILT_IN_LABEL);
+        assertThat(set.contains(NO_FOLLOW)).isTrue();
+        assertThat(set.getCustomAdvices()).isEmpty();
+    }
+
+    @Test
+    public void addsAllImplicitAdvicesToNeutralAdvice() {
+        WebCrawlerAdviceSet set = WebCrawlerAdviceSet.of(NO_ARCHIVE).withImplicitAdvices();
+        assertThat(set.toList()).containsExactly(NO_ARCHIVE, INDEX, FOLLOW);
+    }
+
+    @Test
+    public void doesNotAddImplicitAdvicesThatAreCancelledByNone() {
+        WebCrawlerAdviceSet set = WebCrawlerAdviceSet.of(NONE).withImplicitAdvices();
+        assertThat(set.toList()).containsExactly(NONE);
+    }
+
+    @Test
+    public void doesNotAddImplicitAdviceThatIsCancelledByCustomAdviceWithSameLabel() {
+        List<WebCrawlerAdvice> advices = implicitAdvicesAnd(asList(CUSTOM_ADVICE_WITH_BUILT_IN_LABEL));
+        assertThat(advices).containsExactly(CUSTOM_ADVICE_WITH_BUILT_IN_LABEL, INDEX);
+    }
+
+    @Test
+    public void hasBitOfBuiltInAdvicesIndex() {
+        WebCrawlerAdviceSet set = WebCrawlerAdviceSet.of(FOLLOW);
+        assertThat(set.getBits()).isEqualTo(1L << WebCrawlerAdviceSet.indexOf(FOLLOW));
+        assertThat(WebCrawlerAdviceSet.builtInAdvice(WebCrawlerAdviceSet.indexOf(FOLLOW))).isSameAs(FOLLOW);
+    }
+
+    @Test
+    public void returnsMinusOneAsIndexOfCustomAdvice() {
+        assertThat(WebCrawlerAdviceSet.indexOf(CUSTOM_ADVICE)).isEqualTo(-1);
+    }
+
+    @Test
+    public void restoresAdvicesFromSequenceKey() {
+        List<WebCrawlerAdvice> advices = asList(NO_ARCHIVE, FOLLOW, NO_ARCHIVE, (WebCrawlerAdvice) NONE);
+        long sequenceKey = WebCrawlerAdviceSet.sequenceKeyOf(advices);
+        assertThat(WebCrawlerAdviceSet.advicesOfSequenceKey(sequenceKey)).isEqualTo(advices);
+    }
+
+    @Test
+    public void hasNoSequenceKeyForListWithCustomAdvice() {
+        List<WebCrawlerAdvice> advices = asList(NO_ARCHIVE, CUSTOM_ADVICE);
+        assertThat(WebCrawlerAdviceSet.sequenceKeyOf(advices)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void isEqualToSetWithSameAdvicesInOtherOrder() {
+        WebCrawlerAdviceSet firstSet = WebCrawlerAdviceSet.of(NO_ARCHIVE, CUSTOM_ADVICE, NO_INDEX);
+        WebCrawlerAdviceSet secondSet = WebCrawlerAdviceSet.of(asList(CUSTOM_ADVICE, NO_INDEX, NO_ARCHIVE));
+        assertThat(firstSet).isEqualTo(secondSet);
+        assertThat(firstSet.hashCode()).isEqualTo(secondSet.hashCode());
+    }
+}
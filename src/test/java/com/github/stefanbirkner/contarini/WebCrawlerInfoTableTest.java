@@ -0,0 +1,127 @@
+package com.github.stefanbirkner.contarini;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.Alternate.alternateMedia;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.SITELINKS_SEARCH_BOX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class WebCrawlerInfoTableTest {
+    private static final WebCrawlerInfo INFO = new WebCrawlerInfo()
+        .withCanonical("http://dummy.domain/en")
+        .withAdvices(NO_INDEX, NO_ARCHIVE)
+        .withAlternates(alternateLanguage("de", "http://dummy.domain/de"),
+            new Alternate("http://dummy.domain/m", "en", "only screen"),
+            alternateMedia("print", "http://dummy.domain/print"))
+        .withDescription("dummy description")
+        .withKeywords("dummy, keywords")
+        .disableGoogleFeatures(TRANSLATION, SITELINKS_SEARCH_BOX);
+
+    private final WebCrawlerInfoTable table = new WebCrawlerInfoTable();
+
+    @Rule
+    public final ExpectedException thrown = none();
+
+    @Test
+    public void returnsEqualWebCrawlerInfo() {
+        int index = table.add(INFO);
+        assertThat(table.get(index)).isEqualTo(INFO);
+    }
+
+    @Test
+    public void returnsEqualEmptyWebCrawlerInfo() {
+        int index = table.add(new WebCrawlerInfo());
+        assertThat(table.get(index)).isEqualTo(new WebCrawlerInfo());
+    }
+
+    @Test
+    public void returnsEqualWebCrawlerInfoWithCustomAdvice() {
+        WebCrawlerInfo info = new WebCrawlerInfo().withAdvices(NO_INDEX, new CustomWebCrawlerAdvice("max-snippet:20"))
+            .disableGoogleFeatures(TRANSLATION);
+        int index = table.add(info);
+        assertThat(table.row(index).getAdvicesSequenceKey()).isEqualTo(-1L);
+        assertThat(table.get(index)).isEqualTo(info);
+    }
+
+    @Test
+    public void returnsEqualWebCrawlerInfoWithRepeatedFeature() {
+        WebCrawlerInfo info = new WebCrawlerInfo().disableGoogleFeatures(TRANSLATION, TRANSLATION, TRANSLATION);
+        int index = table.add(info);
+        assertThat(table.get(index)).isEqualTo(info);
+    }
+
+    @Test
+    public void keepsOrderOfAdvicesAndFeatures() {
+        WebCrawlerInfo info = new WebCrawlerInfo().withAdvices(NO_ARCHIVE, NO_INDEX)
+            .disableGoogleFeatures(SITELINKS_SEARCH_BOX, TRANSLATION);
+        WebCrawlerInfoTable.Row row = table.row(table.add(info));
+        assertThat(row.getAdvices()).containsExactly(NO_ARCHIVE, NO_INDEX);
+        assertThat(row.getDisabledGoogleFeatures()).containsExactly(SITELINKS_SEARCH_BOX, TRANSLATION);
+    }
+
+    @Test
+    public void providesAlternatesWithoutList() {
+        WebCrawlerInfoTable.Row row = table.row(table.add(INFO));
+        assertThat(row.getNumberOfAlternates()).isEqualTo(3);
+        assertThat(row.getAlternateLanguage(1)).isEqualTo("en");
+        assertThat(row.getAlternateMedia(1)).isEqualTo("only screen");
+        assertThat(row.getAlternateHref(1)).isEqualTo("http://dummy.domain/m");
+    }
+
+    @Test
+    public void doesNotShareAlternatesWithRowBeforeRowWithoutAlternates() {
+        WebCrawlerInfo english = new WebCrawlerInfo().withAlternates(alternateLanguage("en", "http://dummy.domain/en"));
+        WebCrawlerInfo french = new WebCrawlerInfo().withAlternates(alternateLanguage("fr", "http://dummy.domain/fr"));
+        table.add(english);
+        table.add(french);
+        table.add(new WebCrawlerInfo());
+        int index = table.add(french);
+        assertThat(table.get(index)).isEqualTo(french);
+    }
+
+    @Test
+    public void storesEachTextOnlyOnce() {
+        for (int i = 0; i < 100; ++i)
+            table.add(INFO.withCanonical("http://dummy.domain/de"));
+        assertThat(table.getNumberOfDistinctTexts()).isEqualTo(9);
+    }
+
+    @Test
+    public void storesManyRows() {
+        AlternateSet alternates = AlternateSet.of(alternateLanguage("de", "http://dummy.domain/de"));
+        for (int i = 0; i < 1000; ++i)
+            table.add(new WebCrawlerInfo().withCanonical("http://dummy.domain/" + i).withAlternates(alternates));
+        table.trimToSize();
+        assertThat(table.size()).isEqualTo(1000);
+        assertThat(table.get(567)).isEqualTo(
+            new WebCrawlerInfo().withCanonical("http://dummy.domain/567").withAlternates(alternates));
+    }
+
+    @Test
+    public void addsRowAfterEmptyTableHasBeenTrimmed() {
+        table.trimToSize();
+        int index = table.add(INFO);
+        assertThat(table.get(index)).isEqualTo(INFO);
+    }
+
+    @Test
+    public void addsRowWithAlternatesAfterTableWithoutAlternatesHasBeenTrimmed() {
+        table.add(new WebCrawlerInfo().withCanonical("http://dummy.domain/en"));
+        table.trimToSize();
+        int index = table.add(INFO);
+        assertThat(table.get(index)).isEqualTo(INFO);
+    }
+
+    @Test
+    public void failsForMissingRow() {
+        thrown.expect(IndexOutOfBoundsException.class);
+        table.row(0);
+    }
+}
@@ -111,6 +111,96 @@ public class WebCrawlerInfoTest {
         assertThat(firstInfo).isNotEqualTo(secondInfo);
     }
 
+    @Test
+    public void isEqualToInfoWithSameValues() {
+        WebCrawlerInfo firstInfo = fullInfo();
+        WebCrawlerInfo secondInfo = fullInfo();
+        assertThat(firstInfo).isEqualTo(secondInfo);
+        assertThat(firstInfo.hashCode()).isEqualTo(secondInfo.hashCode());
+    }
+
+    @Test
+    public void isNotAffectedByModificationsOfTheOriginalList() {
+        List<WebCrawlerAdvice> advices = modifiableList(DUMMY_ADVICE);
+        WebCrawlerInfo info = new WebCrawlerInfo().withAdvices(advices);
+        int hashCode = info.hashCode();
+        advices.add(OTHER_DUMMY_ADVICE);
+        assertThat(info.getAdvices()).containsExactly(DUMMY_ADVICE);
+        assertThat(info.hashCode()).isEqualTo(hashCode);
+    }
+
+    @Test
+    public void internsEqualInfosToSameInstance() {
+        WebCrawlerInfo firstInfo = fullInfo().intern();
+        WebCrawlerInfo secondInfo = fullInfo().intern();
+        assertThat(secondInfo).isSameAs(firstInfo);
+    }
+
+    @Test
+    public void internsDifferentInfosToDifferentInstances() {
+        WebCrawlerInfo firstInfo = fullInfo().intern();
+        WebCrawlerInfo secondInfo = fullInfo().withKeywords("other keywords").intern();
+        assertThat(secondInfo).isNotSameAs(firstInfo);
+    }
+
+    @Test
+    public void isNotAffectedByModificationsOfTheOriginalArray() {
+        WebCrawlerAdvice[] advices = {DUMMY_ADVICE};
+        WebCrawlerInfo info = new WebCrawlerInfo().withAdvices(advices);
+        advices[0] = OTHER_DUMMY_ADVICE;
+        assertThat(info.getAdvices()).containsExactly(DUMMY_ADVICE);
+    }
+
+    @Test
+    public void builderCreatesInfoThatIsEqualToInfoCreatedByWithMethods() {
+        WebCrawlerInfo info = new WebCrawlerInfo.Builder()
+            .withAdvices(DUMMY_ADVICE)
+            .addAlternate(DUMMY_ALTERNATE)
+            .withCanonical("canonical")
+            .withDescription("description")
+            .withKeywords("keywords")
+            .disableGoogleFeatures(TRANSLATION)
+            .build();
+        assertThat(info).isEqualTo(fullInfo());
+    }
+
+    @Test
+    public void builderCreatesInfoWithPropertiesOfExistingInfo() {
+        WebCrawlerInfo info = new WebCrawlerInfo.Builder(fullInfo()).build();
+        assertThat(info).isEqualTo(fullInfo());
+    }
+
+    @Test
+    public void builderCreatesEmptyInfoAfterBeingCleared() {
+        WebCrawlerInfo info = new WebCrawlerInfo.Builder(fullInfo()).clear().build();
+        assertThat(info).isEqualTo(new WebCrawlerInfo());
+    }
+
+    @Test
+    public void infoIsNotAffectedByReusingTheBuilder() {
+        WebCrawlerInfo.Builder builder = new WebCrawlerInfo.Builder().addAdvice(DUMMY_ADVICE);
+        WebCrawlerInfo info = builder.build();
+        builder.addAdvice(OTHER_DUMMY_ADVICE);
+        assertThat(info.getAdvices()).containsExactly(DUMMY_ADVICE);
+    }
+
+    @Test
+    public void builderCreatesInfoWithUnmodifiableListOfAlternates() {
+        thrown.expect(UnsupportedOperationException.class);
+        WebCrawlerInfo info = new WebCrawlerInfo.Builder().addAlternate(DUMMY_ALTERNATE).build();
+        info.getAlternates().add(OTHER_DUMMY_ALTERNATE);
+    }
+
+    private WebCrawlerInfo fullInfo() {
+        return new WebCrawlerInfo()
+            .withAdvices(DUMMY_ADVICE)
+            .withAlternates(DUMMY_ALTERNATE)
+            .withCanonical("canonical")
+            .withDescription("description")
+            .withKeywords("keywords")
+            .disableGoogleFeatures(TRANSLATION);
+    }
+
     private <T> List<T> modifiableList(T item) {
         List<T> list = new ArrayList<T>();
         list.add(item);
@@ -0,0 +1,160 @@
+package com.github.stefanbirkner.contarini.parse;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class CorpusScannerTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int NUMBER_OF_DOCUMENTS = 50;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public final ExpectedException thrown = none();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final CollectingSink sink = new CollectingSink();
+
+    @After
+    public void shutDownExecutor() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void scansEveryFileOfDirectory() throws Exception {
+        File directory = folder.newFolder();
+        File subdirectory = new File(directory, "sub");
+        subdirectory.mkdir();
+        for (int i = 0; i < NUMBER_OF_DOCUMENTS; ++i)
+            write(new File(i % 2 == 0 ? directory : subdirectory, "page" + i + ".html"), document(i));
+        new CorpusScanner(executor, 100, 2).scanDirectory(directory, sink);
+        assertThat(sink.descriptionsByLocation).hasSize(NUMBER_OF_DOCUMENTS);
+        for (Map.Entry<String, String> entry : sink.descriptionsByLocation.entrySet())
+            assertThat(entry.getKey()).endsWith(entry.getValue() + ".html");
+    }
+
+    @Test
+    public void scansEveryResponseOfWarcFile() throws Exception {
+        StringBuilder warc = new StringBuilder();
+        warc.append(record("warcinfo", null, "software: dummy\r\n"));
+        for (int i = 0; i < NUMBER_OF_DOCUMENTS; ++i)
+            warc.append(record("response", "http://dummy/page" + i,
+                "HTTP/1.1 200 OK\r\nLink: <http://dummy>; rel=\"canonical\"\r\n\r\n" + document(i)));
+        File file = folder.newFile("corpus.warc");
+        write(file, warc.toString());
+        new CorpusScanner(executor, 300, 2).scanWarcFile(file, sink);
+        assertThat(sink.descriptionsByLocation).hasSize(NUMBER_OF_DOCUMENTS);
+        for (Map.Entry<String, String> entry : sink.descriptionsByLocation.entrySet())
+            assertThat(entry.getKey()).isEqualTo("http://dummy/" + entry.getValue());
+    }
+
+    @Test
+    public void reportsRecordLocation() throws Exception {
+        String first = record("response", "http://dummy/page0", document(0));
+        String second = record("resource", "http://dummy/page1", document(1));
+        File file = folder.newFile("corpus.warc");
+        write(file, first + second);
+        final DocumentLocation[] locations = new DocumentLocation[2];
+        new CorpusScanner(executor).scanWarcFile(file, new CorpusSink() {
+            @Override
+            public void accept(DocumentLocation location, WebCrawlerInfo info) {
+                locations[location.getOffset() == 0 ? 0 : 1] = location;
+            }
+        });
+        int firstLength = first.getBytes(UTF_8).length - 4;
+        assertThat(locations[0]).isEqualTo(new DocumentLocation(file, 0, firstLength, "http://dummy/page0"));
+        assertThat(locations[1].getOffset()).isEqualTo((long) firstLength + 4);
+    }
+
+    @Test
+    public void scansRecordWithLongHeader() throws Exception {
+        StringBuilder longUri = new StringBuilder("http://dummy/");
+        for (int i = 0; i < 5000; ++i)
+            longUri.append('a');
+        File file = folder.newFile("corpus.warc");
+        write(file, record("response", "http://dummy/page0", document(0))
+            + record("response", longUri.toString(), document(1))
+            + record("response", "http://dummy/page2", document(2)));
+        new CorpusScanner(executor, 1, 2).scanWarcFile(file, sink);
+        assertThat(sink.descriptionsByLocation).hasSize(3);
+        assertThat(sink.descriptionsByLocation.get(longUri.toString())).isEqualTo("page1");
+    }
+
+    @Test
+    public void failsForTruncatedWarcRecord() throws Exception {
+        File file = folder.newFile("corpus.warc");
+        write(file, record("response", "http://dummy/page0", document(0)) + "WARC/1.0\r\nWARC-Type: response\r\n");
+        thrown.expect(IOException.class);
+        new CorpusScanner(executor).scanWarcFile(file, sink);
+    }
+
+    @Test
+    public void failsForFileThatIsNotAWarcFile() throws Exception {
+        File file = folder.newFile("corpus.warc");
+        write(file, document(0));
+        thrown.expect(IOException.class);
+        new CorpusScanner(executor).scanWarcFile(file, sink);
+    }
+
+    @Test
+    public void rethrowsExceptionOfSink() throws Exception {
+        File directory = folder.newFolder();
+        write(new File(directory, "page.html"), document(0));
+        thrown.expect(IllegalStateException.class);
+        new CorpusScanner(executor).scanDirectory(directory, new CorpusSink() {
+            @Override
+            public void accept(DocumentLocation location, WebCrawlerInfo info) {
+                throw new IllegalStateException();
+            }
+        });
+    }
+
+    private String document(int number) {
+        return "<html><head><meta name=\"description\" content=\"page" + number
+            + "\"></head><body>\u00fc</body></html>";
+    }
+
+    private String record(String type, String targetUri, String block) {
+        return "WARC/1.0\r\nWARC-Type: " + type + "\r\n"
+            + (targetUri == null ? "" : "WARC-Target-URI: " + targetUri + "\r\n")
+            + "Content-Length: " + block.getBytes(UTF_8).length + "\r\n\r\n"
+            + block + "\r\n\r\n";
+    }
+
+    private void write(File file, String content) throws IOException {
+        FileOutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(content.getBytes(UTF_8));
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static class CollectingSink implements CorpusSink {
+        final Map<String, String> descriptionsByLocation = new TreeMap<String, String>();
+
+        @Override
+        public synchronized void accept(DocumentLocation location, WebCrawlerInfo info) {
+            String key = location.getTargetUri() == null
+                ? location.getFile().getPath() : location.getTargetUri();
+            descriptionsByLocation.put(key, info.getDescription());
+        }
+    }
+}
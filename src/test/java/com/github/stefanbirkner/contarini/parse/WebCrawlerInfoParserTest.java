@@ -0,0 +1,164 @@
+package com.github.stefanbirkner.contarini.parse;
+
+import com.github.stefanbirkner.contarini.CustomWebCrawlerAdvice;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import com.github.stefanbirkner.contarini.render.WebCrawlerInfoRenderer;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.Alternate.alternateMedia;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_FOLLOW;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.SITELINKS_SEARCH_BOX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebCrawlerInfoParserTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final WebCrawlerInfo INFO = new WebCrawlerInfo.Builder()
+        .withCanonical("http://dummy.canonical?a=1&b=2")
+        .withAdvices(NO_INDEX, NO_FOLLOW, new CustomWebCrawlerAdvice("max-snippet:20"))
+        .withAlternates(alternateLanguage("de", "http://dummy.canonical/de"),
+            alternateMedia("only screen and (max-width: 640px)", "http://m.dummy.canonical"))
+        .withDescription("Gr\u00fc\u00dfe <\"quoted\"> & \ud83d\ude00")
+        .withKeywords("first, second")
+        .disableGoogleFeatures(SITELINKS_SEARCH_BOX, TRANSLATION)
+        .build();
+
+    private final WebCrawlerInfoParser parser = new WebCrawlerInfoParser();
+
+    @Test
+    public void readsTagsWrittenByTheRenderer() throws IOException {
+        WebCrawlerInfo info = parser.parseHead(html(render(INFO)));
+        assertThat(info).isEqualTo(INFO);
+    }
+
+    @Test
+    public void readsUtf8EncodedTagsWrittenByTheRenderer() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(html(render(INFO)).getBytes(UTF_8));
+        WebCrawlerInfo info = parser.parseHead(buffer);
+        assertThat(info).isEqualTo(INFO);
+    }
+
+    @Test
+    public void doesNotModifyTheByteBuffer() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(html(render(INFO)).getBytes(UTF_8));
+        parser.parseHead(buffer);
+        assertThat(buffer.position()).isZero();
+    }
+
+    @Test
+    public void readsDirectByteBuffer() throws IOException {
+        byte[] bytes = html(render(INFO)).getBytes(UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        WebCrawlerInfo info = parser.parseHead(buffer);
+        assertThat(info).isEqualTo(INFO);
+    }
+
+    @Test
+    public void readsCharBuffer() throws IOException {
+        WebCrawlerInfo info = parser.parseHead(CharBuffer.wrap(html(render(INFO))));
+        assertThat(info).isEqualTo(INFO);
+    }
+
+    @Test
+    public void ignoresCaseOfTagsAttributesAndAdvices() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<HEAD><META NAME=Robots CONTENT='NoIndex, NOFOLLOW'><LINK REL=\"Canonical\" HREF=\"http://dummy\"></HEAD>");
+        assertThat(info.getAdvices()).containsExactly(NO_INDEX, NO_FOLLOW);
+        assertThat(info.getCanonical()).isEqualTo("http://dummy");
+    }
+
+    @Test
+    public void ignoresTagsInComments() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<head><!-- <meta name=\"description\" content=\"ignored\"> --></head>");
+        assertThat(info.getDescription()).isNull();
+    }
+
+    @Test
+    public void ignoresTagsInScripts() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<head><script>document.write('<meta name=\"description\" content=\"ignored\">');</SCRIPT>"
+                + "<meta name=\"keywords\" content=\"read\"></head>");
+        assertThat(info.getDescription()).isNull();
+        assertThat(info.getKeywords()).isEqualTo("read");
+    }
+
+    @Test
+    public void stopsAtTheEndOfTheHead() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<head></head><body><meta name=\"description\" content=\"ignored\"></body>");
+        assertThat(info.getDescription()).isNull();
+    }
+
+    @Test
+    public void stopsAtTheBodyIfTheHeadIsNotClosed() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<title>a</title><body><link rel=\"canonical\" href=\"http://ignored\"></body>");
+        assertThat(info.getCanonical()).isNull();
+    }
+
+    @Test
+    public void ignoresAlternateLinksWithType() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<link rel=\"alternate\" type=\"application/rss+xml\" href=\"http://dummy/feed\">");
+        assertThat(info.getAlternates()).isEmpty();
+    }
+
+    @Test
+    public void decodesNumericCharacterReferences() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<meta name=\"description\" content=\"&#60;&#x3E;&#x1F600;\">");
+        assertThat(info.getDescription()).isEqualTo("<>\ud83d\ude00");
+    }
+
+    @Test
+    public void keepsAmpersandWithoutNearbySemicolon() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<meta name=\"description\" content=\"&amp and &lt-no-reference-here; &gt;\">");
+        assertThat(info.getDescription()).isEqualTo("&amp and &lt-no-reference-here; >");
+    }
+
+    @Test
+    public void decodesManyAmpersandsInLinearTime() {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200000; ++i)
+            content.append("&a ");
+        WebCrawlerInfo info = parser.parseHead("<meta name=\"description\" content=\"" + content + "\">");
+        assertThat(info.getDescription()).isEqualTo(content.toString());
+    }
+
+    @Test
+    public void readsDisabledGoogleFeaturesWithWhitespace() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<meta name=\"google\" content=\" NoTranslate ,,nositelinkssearchbox\">");
+        assertThat(info.getDisabledGoogleFeatures()).containsExactly(TRANSLATION, SITELINKS_SEARCH_BOX);
+    }
+
+    @Test
+    public void readsTruncatedDocument() {
+        WebCrawlerInfo info = parser.parseHead(
+            "<meta name=\"keywords\" content=\"read\"><meta name=\"descr");
+        assertThat(info.getKeywords()).isEqualTo("read");
+        assertThat(info.getDescription()).isNull();
+    }
+
+    private String render(WebCrawlerInfo info) throws IOException {
+        StringWriter writer = new StringWriter();
+        new WebCrawlerInfoRenderer().writeTagsForInfoToWriter(info, writer);
+        return writer.toString();
+    }
+
+    private String html(String tags) {
+        return "<!DOCTYPE html>\n<html><head><title>dummy</title>\n" + tags
+            + "</head><body><p>text</p></body></html>";
+    }
+}
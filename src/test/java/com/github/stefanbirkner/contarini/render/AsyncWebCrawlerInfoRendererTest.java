@@ -0,0 +1,123 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class AsyncWebCrawlerInfoRendererTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final WebCrawlerInfo INFO = new WebCrawlerInfo()
+        .withCanonical("http://dummy/").withDescription("\u00fcber");
+    private static final String TAGS = "<link rel=\"canonical\" href=\"http://dummy/\">"
+        + "<meta name=\"description\" content=\"\u00fcber\">";
+
+    @Rule
+    public final ExpectedException thrown = none();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final ByteBufferPool pool = new ByteBufferPool(1024, 2, true);
+    private final AsyncWebCrawlerInfoRenderer renderer
+        = new AsyncWebCrawlerInfoRenderer(new WebCrawlerInfoRenderer(), pool, executor);
+
+    @After
+    public void shutDownExecutor() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void rendersTagsIntoPooledBuffer() {
+        PooledByteBuffer tags = renderer.renderTagsForInfo(INFO);
+        assertThat(decode(tags.buffer())).isEqualTo(TAGS);
+        tags.release();
+        assertThat(pool.getNumberOfFreeBuffers()).isEqualTo(1);
+    }
+
+    @Test
+    public void reusesReleasedBuffer() {
+        PooledByteBuffer tags = renderer.renderTagsForInfo(INFO);
+        ByteBuffer buffer = tags.buffer();
+        tags.release();
+        assertThat(renderer.renderTagsForInfo(INFO).buffer()).isSameAs(buffer);
+    }
+
+    @Test
+    public void releasingTwiceHasNoEffect() {
+        PooledByteBuffer tags = renderer.renderTagsForInfo(INFO);
+        tags.release();
+        tags.release();
+        assertThat(pool.getNumberOfFreeBuffers()).isEqualTo(1);
+    }
+
+    @Test
+    public void keepsAtMostMaximumNumberOfFreeBuffers() {
+        PooledByteBuffer first = pool.acquire();
+        PooledByteBuffer second = pool.acquire();
+        PooledByteBuffer third = pool.acquire();
+        first.release();
+        second.release();
+        third.release();
+        assertThat(pool.getNumberOfFreeBuffers()).isEqualTo(2);
+    }
+
+    @Test
+    public void releasedBufferCannotBeUsed() {
+        PooledByteBuffer tags = renderer.renderTagsForInfo(INFO);
+        tags.release();
+        thrown.expect(IllegalStateException.class);
+        tags.buffer();
+    }
+
+    @Test
+    public void rendersTagsThatAreLargerThanThePoolsBuffers() {
+        AsyncWebCrawlerInfoRenderer smallBufferRenderer = new AsyncWebCrawlerInfoRenderer(
+            new WebCrawlerInfoRenderer(), new ByteBufferPool(16, 2, false), executor);
+        PooledByteBuffer tags = smallBufferRenderer.renderTagsForInfo(INFO);
+        assertThat(decode(tags.buffer())).isEqualTo(TAGS);
+        tags.release();
+    }
+
+    @Test
+    public void rendersTagsAsynchronously() throws Exception {
+        PooledByteBuffer tags = renderer.renderTagsForInfoAsync(INFO).get(10, TimeUnit.SECONDS);
+        assertThat(decode(tags.buffer())).isEqualTo(TAGS);
+        tags.release();
+    }
+
+    @Test
+    public void sendsTagsToCallback() throws Exception {
+        final AtomicReference<String> result = new AtomicReference<String>();
+        final CountDownLatch done = new CountDownLatch(1);
+        renderer.renderTagsForInfo(INFO, new RenderCallback() {
+            @Override
+            public void rendered(PooledByteBuffer tags) {
+                result.set(decode(tags.buffer()));
+                tags.release();
+                done.countDown();
+            }
+
+            @Override
+            public void failed(Throwable cause) {
+                done.countDown();
+            }
+        });
+        done.await(10, TimeUnit.SECONDS);
+        assertThat(result.get()).isEqualTo(TAGS);
+    }
+
+    private String decode(ByteBuffer buffer) {
+        return UTF_8.decode(buffer.duplicate()).toString();
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.render.VoidElementStyle.XML_SELF_CLOSING_WITH_SPACE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingWebCrawlerInfoRendererTest {
+    private static final WebCrawlerInfo DUMMY_INFO = new WebCrawlerInfo()
+        .withCanonical("http://dummy.canonical")
+        .withAdvices(NO_INDEX)
+        .withDescription("Gr\u00fc\u00dfe & more");
+    private static final WebCrawlerInfo OTHER_DUMMY_INFO = new WebCrawlerInfo()
+        .withCanonical("http://other.dummy.canonical");
+    private static final Style XML_STYLE = new Style().withVoidElementStyle(XML_SELF_CLOSING_WITH_SPACE);
+
+    @Test
+    public void writesSameTagsAsRendererWithoutCache() throws Exception {
+        CachingWebCrawlerInfoRenderer renderer = new CachingWebCrawlerInfoRenderer(XML_STYLE, 10, 10000);
+        renderTagsForInfo(DUMMY_INFO, renderer);
+        assertThat(renderTagsForInfo(DUMMY_INFO, renderer))
+            .isEqualTo(renderTagsForInfo(DUMMY_INFO, new WebCrawlerInfoRenderer(XML_STYLE)));
+    }
+
+    @Test
+    public void writesSameBytesAsRendererWithoutCache() throws Exception {
+        CachingWebCrawlerInfoRenderer renderer = new CachingWebCrawlerInfoRenderer(10, 10000);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        renderer.writeTagsForInfoToStream(DUMMY_INFO, os);
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        renderer.writeTagsForInfoToBuffer(DUMMY_INFO, buffer);
+        assertThat(os.toByteArray()).isEqualTo(renderTagsForInfo(DUMMY_INFO).getBytes("UTF-8"));
+        assertThat(buffer.position()).isEqualTo(os.size());
+    }
+
+    @Test
+    public void rendersSameStringAndBytesAsRendererWithoutCache() throws Exception {
+        CachingWebCrawlerInfoRenderer renderer = new CachingWebCrawlerInfoRenderer(10, 10000);
+        WebCrawlerInfoRenderer rendererWithoutCache = new WebCrawlerInfoRenderer();
+        assertThat(renderer.renderTagsForInfoToString(DUMMY_INFO))
+            .isEqualTo(rendererWithoutCache.renderTagsForInfoToString(DUMMY_INFO));
+        assertThat(renderer.renderTagsForInfoToBytes(DUMMY_INFO))
+            .isEqualTo(rendererWithoutCache.renderTagsForInfoToBytes(DUMMY_INFO));
+        assertThat(renderer.utf8LengthOfTagsForInfo(DUMMY_INFO))
+            .isEqualTo(rendererWithoutCache.utf8LengthOfTagsForInfo(DUMMY_INFO));
+    }
+
+    @Test
+    public void countsHitsAndMisses() throws Exception {
+        CachingWebCrawlerInfoRenderer renderer = new CachingWebCrawlerInfoRenderer(10, 10000);
+        renderTagsForInfo(DUMMY_INFO, renderer);
+        renderTagsForInfo(DUMMY_INFO, renderer);
+        renderTagsForInfo(new WebCrawlerInfo().withCanonical("http://dummy.canonical")
+            .withAdvices(NO_INDEX).withDescription("Gr\u00fc\u00dfe & more"), renderer);
+        renderTagsForInfo(OTHER_DUMMY_INFO, renderer);
+        assertThat(renderer.getHitCount()).isEqualTo(2L);
+        assertThat(renderer.getMissCount()).isEqualTo(2L);
+        assertThat(renderer.getEvictionCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedTagsIfMaximumNumberOfEntriesIsExceeded() throws Exception {
+        CachingWebCrawlerInfoRenderer renderer = new CachingWebCrawlerInfoRenderer(1, 10000);
+        renderTagsForInfo(DUMMY_INFO, renderer);
+        renderTagsForInfo(OTHER_DUMMY_INFO, renderer);
+        renderTagsForInfo(DUMMY_INFO, renderer);
+        assertThat(renderer.getEvictionCount()).isEqualTo(2L);
+        assertThat(renderer.getHitCount()).isEqualTo(0L);
+    }
+
+    @Test
+    public void doesNotCacheTagsThatAreLargerThanTheMaximumNumberOfBytes() throws Exception {
+        CachingWebCrawlerInfoRenderer renderer = new CachingWebCrawlerInfoRenderer(10, 10);
+        String tags = renderTagsForInfo(DUMMY_INFO, renderer);
+        assertThat(renderTagsForInfo(DUMMY_INFO, renderer)).isEqualTo(tags);
+        assertThat(renderer.getHitCount()).isEqualTo(0L);
+        assertThat(renderer.getMissCount()).isEqualTo(2L);
+    }
+
+    private String renderTagsForInfo(WebCrawlerInfo info) throws IOException {
+        return renderTagsForInfo(info, new WebCrawlerInfoRenderer());
+    }
+
+    private String renderTagsForInfo(WebCrawlerInfo info, WebCrawlerInfoRenderer renderer) throws IOException {
+        StringWriter w = new StringWriter();
+        renderer.writeTagsForInfoToWriter(info, w);
+        return w.toString();
+    }
+}
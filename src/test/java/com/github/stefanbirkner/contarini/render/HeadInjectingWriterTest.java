@@ -0,0 +1,124 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HeadInjectingWriterTest {
+    private static final WebCrawlerInfo INFO = new WebCrawlerInfo().withCanonical("http://dummy/");
+    private static final String TAGS = "<link rel=\"canonical\" href=\"http://dummy/\">";
+    private static final String DOCUMENT = "<html><head><title>x</title></head><body></head></body></html>";
+    private static final String EXPECTED_DOCUMENT
+        = "<html><head><title>x</title>" + TAGS + "</head><body></head></body></html>";
+
+    private final WebCrawlerInfoRenderer renderer = new WebCrawlerInfoRenderer();
+
+    @Test
+    public void insertsTagsBeforeEndOfHead() throws IOException {
+        assertThat(writeInChunks(DOCUMENT, DOCUMENT.length())).isEqualTo(EXPECTED_DOCUMENT);
+    }
+
+    @Test
+    public void insertsTagsIfEndOfHeadIsSplitAcrossWrites() throws IOException {
+        for (int chunkSize = 1; chunkSize < 10; ++chunkSize)
+            assertThat(writeInChunks(DOCUMENT, chunkSize)).isEqualTo(EXPECTED_DOCUMENT);
+    }
+
+    @Test
+    public void findsEndOfHeadCaseInsensitively() throws IOException {
+        assertThat(writeInChunks("<HEAD></HeAd>", 3)).isEqualTo("<HEAD>" + TAGS + "</HeAd>");
+    }
+
+    @Test
+    public void findsEndOfHeadAfterPartialMatch() throws IOException {
+        assertThat(writeInChunks("</hea</h</head>", 2)).isEqualTo("</hea</h" + TAGS + "</head>");
+    }
+
+    @Test
+    public void findsMarkerThatOverlapsWithItself() throws IOException {
+        StringWriter writer = new StringWriter();
+        Writer injectingWriter = new HeadInjectingWriter(writer, renderer, INFO, "aab");
+        injectingWriter.write("xaaab");
+        injectingWriter.close();
+        assertThat(writer.toString()).isEqualTo("xa" + TAGS + "aab");
+    }
+
+    @Test
+    public void insertsTagsIfDocumentIsWrittenAsSlicesOfLargeString() throws IOException {
+        StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 3000; ++i)
+            padding.append('x');
+        String page = padding + DOCUMENT + padding;
+        StringWriter writer = new StringWriter();
+        Writer injectingWriter = new HeadInjectingWriter(writer, renderer, INFO);
+        for (int start = 0; start < page.length(); start += 700)
+            injectingWriter.write(page, start, Math.min(700, page.length() - start));
+        injectingWriter.close();
+        assertThat(writer.toString()).isEqualTo(padding + EXPECTED_DOCUMENT + padding);
+    }
+
+    @Test
+    public void insertsTagsIfDocumentIsWrittenCharByChar() throws IOException {
+        StringWriter writer = new StringWriter();
+        Writer injectingWriter = new HeadInjectingWriter(writer, renderer, INFO);
+        for (int i = 0; i < DOCUMENT.length(); ++i)
+            injectingWriter.write(DOCUMENT.charAt(i));
+        injectingWriter.close();
+        assertThat(writer.toString()).isEqualTo(EXPECTED_DOCUMENT);
+    }
+
+    @Test
+    public void writesDocumentWithoutMarkerUnchanged() throws IOException {
+        assertThat(writeInChunks("<html><body></hea", 4)).isEqualTo("<html><body></hea");
+    }
+
+    @Test
+    public void writesCharsBeforePossibleMarkerImmediately() throws IOException {
+        StringWriter writer = new StringWriter();
+        Writer injectingWriter = new HeadInjectingWriter(writer, renderer, INFO);
+        injectingWriter.write("<title>x</title></he");
+        assertThat(writer.toString()).isEqualTo("<title>x</title>");
+    }
+
+    @Test
+    public void streamInsertsTagsIfEndOfHeadIsSplitAcrossWrites() throws IOException {
+        for (int chunkSize = 1; chunkSize < 10; ++chunkSize) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            HeadInjectingOutputStream stream = new HeadInjectingOutputStream(bytes, renderer, INFO);
+            writeInChunks(DOCUMENT.getBytes("UTF-8"), chunkSize, stream);
+            assertThat(stream.isInjected()).isTrue();
+            assertThat(bytes.toString("UTF-8")).isEqualTo(EXPECTED_DOCUMENT);
+        }
+    }
+
+    @Test
+    public void streamWritesDocumentWithoutMarkerUnchanged() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HeadInjectingOutputStream stream = new HeadInjectingOutputStream(bytes, renderer, INFO);
+        writeInChunks("<p>\u00fc</h".getBytes("UTF-8"), 2, stream);
+        assertThat(stream.isInjected()).isFalse();
+        assertThat(bytes.toString("UTF-8")).isEqualTo("<p>\u00fc</h");
+    }
+
+    private String writeInChunks(String document, int chunkSize) throws IOException {
+        StringWriter writer = new StringWriter();
+        Writer injectingWriter = new HeadInjectingWriter(writer, renderer, INFO);
+        for (int start = 0; start < document.length(); start += chunkSize)
+            injectingWriter.write(document.toCharArray(), start, Math.min(chunkSize, document.length() - start));
+        injectingWriter.close();
+        return writer.toString();
+    }
+
+    private void writeInChunks(byte[] document, int chunkSize, OutputStream stream) throws IOException {
+        for (int start = 0; start < document.length; start += chunkSize)
+            stream.write(document, start, Math.min(chunkSize, document.length - start));
+        stream.close();
+    }
+}
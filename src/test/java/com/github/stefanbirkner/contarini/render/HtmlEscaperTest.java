@@ -0,0 +1,41 @@
+package com.github.stefanbirkner.contarini.render;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HtmlEscaperTest {
+    @Test
+    public void writesTextWithoutCharactersToEscapeUnchanged() throws Exception {
+        assertThat(escape("dummy text")).isEqualTo("dummy text");
+    }
+
+    @Test
+    public void escapesAllCharactersThatHaveToBeEscaped() throws Exception {
+        assertThat(escape("<>\"&'")).isEqualTo("&lt;&gt;&quot;&amp;&apos;");
+    }
+
+    @Test
+    public void keepsTextBetweenEscapedCharacters() throws Exception {
+        assertThat(escape("a&b<c")).isEqualTo("a&amp;b&lt;c");
+    }
+
+    @Test
+    public void writesNonAsciiCharactersUnchanged() throws Exception {
+        assertThat(escape("Gr\u00fc\u00dfe \u20ac")).isEqualTo("Gr\u00fc\u00dfe \u20ac");
+    }
+
+    @Test
+    public void writesNothingForEmptyText() throws Exception {
+        assertThat(escape("")).isEqualTo("");
+    }
+
+    private String escape(String text) throws IOException {
+        StringWriter w = new StringWriter();
+        HtmlEscaper.escape(text, w);
+        return w.toString();
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.LayeredWebCrawlerInfo;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.SITELINKS_SEARCH_BOX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LayeredRenderingTest {
+    private static final WebCrawlerInfo PARENT = new WebCrawlerInfo()
+        .withCanonical("http://dummy.parent/?a&b")
+        .withAdvices(NO_ARCHIVE)
+        .withAlternates(alternateLanguage("de", "http://dummy.parent/de"))
+        .withDescription("\u00fcber")
+        .withKeywords("parent, keywords")
+        .disableGoogleFeatures(TRANSLATION);
+    private static final WebCrawlerInfo[] OVERRIDES = {
+        new WebCrawlerInfo(),
+        new WebCrawlerInfo().withCanonical("http://dummy.override"),
+        new WebCrawlerInfo().withAdvices(NO_INDEX),
+        new WebCrawlerInfo().withAlternates(alternateLanguage("en", "http://dummy.override/en")),
+        new WebCrawlerInfo().withDescription("<override>"),
+        new WebCrawlerInfo().withKeywords("override"),
+        new WebCrawlerInfo().disableGoogleFeatures(SITELINKS_SEARCH_BOX),
+        new WebCrawlerInfo().withCanonical("http://dummy.override").withDescription("d").withKeywords("k")
+    };
+
+    private final WebCrawlerInfoRenderer renderer = new WebCrawlerInfoRenderer(
+        new Style().withVoidElementStyle(VoidElementStyle.XML_SELF_CLOSING_WITH_SPACE));
+
+    @Test
+    public void writesSameTagsAsForEffectiveInfo() throws IOException {
+        for (WebCrawlerInfo override : OVERRIDES) {
+            LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, override);
+            StringWriter w = new StringWriter();
+            renderer.writeTagsForInfoToWriter(info, w);
+            assertThat(w.toString()).isEqualTo(renderer.renderTagsForInfoToString(info.getEffectiveInfo()));
+        }
+    }
+
+    @Test
+    public void writesSameTagsForParentWithoutProperties() throws IOException {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(new WebCrawlerInfo(), OVERRIDES[7]);
+        StringWriter w = new StringWriter();
+        renderer.writeTagsForInfoToWriter(info, w);
+        assertThat(w.toString()).isEqualTo(renderer.renderTagsForInfoToString(OVERRIDES[7]));
+    }
+
+    @Test
+    public void writesUtf8EncodedTagsToStream() throws IOException {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, OVERRIDES[1]);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        renderer.writeTagsForInfoToStream(info, os);
+        assertThat(os.toByteArray()).isEqualTo(renderer.renderTagsForInfoToBytes(info.getEffectiveInfo()));
+    }
+
+    @Test
+    public void putsUtf8EncodedTagsIntoBuffer() {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, OVERRIDES[2]);
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        renderer.writeTagsForInfoToBuffer(info, buffer);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        assertThat(bytes).isEqualTo(renderer.renderTagsForInfoToBytes(info.getEffectiveInfo()));
+    }
+
+    @Test
+    public void writesUtf8EncodedTagsToChannel() throws IOException {
+        LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, OVERRIDES[3]);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        renderer.writeTagsForInfoToChannel(info, Channels.newChannel(os));
+        assertThat(os.toByteArray()).isEqualTo(renderer.renderTagsForInfoToBytes(info.getEffectiveInfo()));
+    }
+
+    @Test
+    public void reportsSameTagsAsForEffectiveInfo() throws IOException {
+        for (WebCrawlerInfo override : OVERRIDES) {
+            LayeredWebCrawlerInfo info = new LayeredWebCrawlerInfo(PARENT, override);
+            RenderMetrics metricsOfLayeredInfo = new RenderMetrics();
+            new WebCrawlerInfoRenderer(new Style(), metricsOfLayeredInfo)
+                .writeTagsForInfoToWriter(info, new StringWriter());
+            RenderMetrics metricsOfEffectiveInfo = new RenderMetrics();
+            new WebCrawlerInfoRenderer(new Style(), metricsOfEffectiveInfo)
+                .writeTagsForInfoToWriter(info.getEffectiveInfo(), new StringWriter());
+            assertSameTags(metricsOfLayeredInfo, metricsOfEffectiveInfo);
+        }
+    }
+
+    private void assertSameTags(RenderMetrics actual, RenderMetrics expected) {
+        assertThat(actual.getCanonicalTags()).isEqualTo(expected.getCanonicalTags());
+        assertThat(actual.getRobotsTags()).isEqualTo(expected.getRobotsTags());
+        assertThat(actual.getAlternateTags()).isEqualTo(expected.getAlternateTags());
+        assertThat(actual.getMetaTags()).isEqualTo(expected.getMetaTags());
+        assertThat(actual.getChars()).isEqualTo(expected.getChars());
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.Alternate.alternateMedia;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class LinkHeaderRendererTest {
+    @Rule
+    public final ExpectedException thrown = none();
+
+    private final LinkHeaderRenderer renderer = new LinkHeaderRenderer();
+
+    @Test
+    public void rendersCanonicalAndAlternates() {
+        WebCrawlerInfo info = new WebCrawlerInfo()
+            .withCanonical("http://dummy/")
+            .withAlternates(alternateLanguage("de", "http://dummy/de"),
+                alternateMedia("only screen and (max-width: 640px)", "http://m.dummy/"),
+                new Alternate("http://dummy/x"));
+        assertThat(renderer.headerValueForInfo(info)).isEqualTo("<http://dummy/>; rel=\"canonical\", "
+            + "<http://dummy/de>; rel=\"alternate\"; hreflang=\"de\", "
+            + "<http://m.dummy/>; rel=\"alternate\"; media=\"only screen and (max-width: 640px)\", "
+            + "<http://dummy/x>; rel=\"alternate\"");
+    }
+
+    @Test
+    public void rendersAlternatesWithoutCanonical() {
+        WebCrawlerInfo info = new WebCrawlerInfo().withAlternates(alternateLanguage("de", "http://dummy/de"));
+        assertThat(renderer.headerValueForInfo(info))
+            .isEqualTo("<http://dummy/de>; rel=\"alternate\"; hreflang=\"de\"");
+    }
+
+    @Test
+    public void returnsNullForInfoWithoutCanonicalAndAlternates() {
+        assertThat(renderer.headerValueForInfo(new WebCrawlerInfo().withDescription("dummy"))).isNull();
+    }
+
+    @Test
+    public void percentEncodesCharactersThatAreNotAllowedInHeader() {
+        WebCrawlerInfo info = new WebCrawlerInfo().withCanonical("http://dummy/a b<>\u00fc\ud83d\ude00");
+        assertThat(renderer.headerValueForInfo(info))
+            .isEqualTo("<http://dummy/a%20b%3C%3E%C3%BC%F0%9F%98%80>; rel=\"canonical\"");
+    }
+
+    @Test
+    public void escapesQuotesOfParameters() {
+        WebCrawlerInfo info = new WebCrawlerInfo()
+            .withAlternates(alternateMedia("a\"b\\c", "http://dummy/"));
+        assertThat(renderer.headerValueForInfo(info))
+            .isEqualTo("<http://dummy/>; rel=\"alternate\"; media=\"a\\\"b\\\\c\"");
+    }
+
+    @Test
+    public void rejectsParameterWithLineBreak() {
+        WebCrawlerInfo info = new WebCrawlerInfo()
+            .withAlternates(alternateLanguage("de\r\nSet-Cookie: a=b", "http://dummy/"));
+        thrown.expect(IllegalArgumentException.class);
+        renderer.headerValueForInfo(info);
+    }
+
+    @Test
+    public void cachingRendererReturnsSameValueForEqualInfo() {
+        LinkHeaderRenderer cachingRenderer = new LinkHeaderRenderer(10, 10000);
+        String value = cachingRenderer.headerValueForInfo(new WebCrawlerInfo().withCanonical("http://dummy/"));
+        assertThat(cachingRenderer.headerValueForInfo(new WebCrawlerInfo().withCanonical("http://dummy/")))
+            .isSameAs(value);
+    }
+}
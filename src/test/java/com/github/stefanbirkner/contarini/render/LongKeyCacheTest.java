@@ -0,0 +1,43 @@
+package com.github.stefanbirkner.contarini.render;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LongKeyCacheTest {
+    private final LongKeyCache<String> cache = new LongKeyCache<String>(16);
+
+    @Test
+    public void returnsStoredValue() {
+        cache.put(1L << 40, "value");
+        assertThat(cache.get(1L << 40)).isEqualTo("value");
+    }
+
+    @Test
+    public void returnsNullForMissingKey() {
+        cache.put(1L, "value");
+        assertThat(cache.get(2L)).isNull();
+    }
+
+    @Test
+    public void keepsFirstValueOfKey() {
+        cache.put(1L, "first value");
+        cache.put(1L, "second value");
+        assertThat(cache.get(1L)).isEqualTo("first value");
+    }
+
+    @Test
+    public void storesNoMoreValuesThanSlots() {
+        for (long key = 0; key < 100; ++key)
+            cache.put(key, "value " + key);
+        int numberOfStoredValues = 0;
+        for (long key = 0; key < 100; ++key) {
+            String value = cache.get(key);
+            if (value != null) {
+                assertThat(value).isEqualTo("value " + key);
+                ++numberOfStoredValues;
+            }
+        }
+        assertThat(numberOfStoredValues).isEqualTo(16);
+    }
+}
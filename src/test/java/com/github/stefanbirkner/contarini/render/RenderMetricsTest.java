@@ -0,0 +1,99 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RenderMetricsTest {
+    private static final WebCrawlerInfo INFO = new WebCrawlerInfo()
+        .withCanonical("http://dummy/?a&b")
+        .withAdvices(NO_INDEX)
+        .withAlternates(alternateLanguage("de", "http://dummy/de"), alternateLanguage("en", "http://dummy/en"))
+        .withDescription("\u00fcber")
+        .disableGoogleFeatures(TRANSLATION);
+
+    private final RenderMetrics metrics = new RenderMetrics();
+    private final WebCrawlerInfoRenderer renderer = new WebCrawlerInfoRenderer(new Style(), metrics);
+
+    @Test
+    public void countsRenderingsAndTags() throws IOException {
+        renderer.writeTagsForInfoToWriter(INFO, new StringWriter());
+        renderer.renderTagsForInfoToBytes(INFO);
+        assertThat(metrics.getRenderCount()).isEqualTo(2L);
+        assertThat(metrics.getCanonicalTags()).isEqualTo(2L);
+        assertThat(metrics.getRobotsTags()).isEqualTo(2L);
+        assertThat(metrics.getAlternateTags()).isEqualTo(4L);
+        assertThat(metrics.getMetaTags()).isEqualTo(4L);
+    }
+
+    @Test
+    public void countsOutput() throws IOException {
+        StringWriter writer = new StringWriter();
+        renderer.writeTagsForInfoToWriter(INFO, writer);
+        assertThat(metrics.getChars()).isEqualTo((long) writer.toString().length());
+        assertThat(metrics.getUtf8Bytes()).isEqualTo((long) writer.toString().getBytes("UTF-8").length);
+        assertThat(metrics.getEscapedChars()).isEqualTo(1L);
+    }
+
+    @Test
+    public void doesNotCountLengthCalculation() {
+        renderer.lengthOfTagsForInfo(INFO);
+        renderer.utf8LengthOfTagsForInfo(INFO);
+        assertThat(metrics.getRenderCount()).isZero();
+    }
+
+    @Test
+    public void recordsLatency() throws IOException {
+        for (int i = 0; i < 100; ++i)
+            renderer.writeTagsForInfoToWriter(INFO, new StringWriter());
+        long sumOfHistogram = 0;
+        for (long count : metrics.getLatencyHistogram())
+            sumOfHistogram += count;
+        assertThat(sumOfHistogram).isEqualTo(100L);
+        assertThat(metrics.getTotalNanos()).isGreaterThan(0);
+        assertThat(metrics.getLatencyPercentileNanos(100.0)).isGreaterThan(0);
+        assertThat(metrics.getLatencyPercentileNanos(50.0))
+            .isLessThanOrEqualTo(metrics.getLatencyPercentileNanos(100.0));
+    }
+
+    @Test
+    public void countsRenderingsOfManyThreads() throws Exception {
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 1000; ++j)
+                        renderer.renderTagsForInfoToString(INFO);
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+            thread.join();
+        assertThat(metrics.getRenderCount()).isEqualTo(4000L);
+    }
+
+    @Test
+    public void canBeRegisteredAsMBean() throws Exception {
+        renderer.renderTagsForInfoToString(INFO);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("com.github.stefanbirkner.contarini:type=RenderMetrics,name=test");
+        server.registerMBean(metrics, name);
+        try {
+            assertThat(server.getAttribute(name, "RenderCount")).isEqualTo(1L);
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.Alternate.alternateMedia;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class SitemapWriterTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public final ExpectedException thrown = none();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @After
+    public void shutDownExecutor() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void writesUrlWithAlternates() throws Exception {
+        File directory = folder.newFolder();
+        SitemapWriter writer = new SitemapWriter(directory, "sitemap", "http://dummy/", executor);
+        writer.write(new WebCrawlerInfo()
+            .withCanonical("http://dummy/?a=1&b=2")
+            .withAlternates(alternateLanguage("de", "http://dummy/de"),
+                alternateMedia("only screen and (max-width: 640px)", "http://m.dummy/")));
+        writer.close();
+        assertThat(read(new File(directory, "sitemap-1.xml.gz"))).isEqualTo(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\""
+                + " xmlns:xhtml=\"http://www.w3.org/1999/xhtml\">\n"
+                + "<url><loc>http://dummy/?a=1&amp;b=2</loc>"
+                + "<xhtml:link rel=\"alternate\" hreflang=\"de\" href=\"http://dummy/de\"/>"
+                + "<xhtml:link rel=\"alternate\" media=\"only screen and (max-width: 640px)\""
+                + " href=\"http://m.dummy/\"/></url>\n"
+                + "</urlset>\n");
+    }
+
+    @Test
+    public void startsNewShardWhenMaximumNumberOfUrlsIsReached() throws Exception {
+        File directory = folder.newFolder();
+        SitemapWriter writer = new SitemapWriter(directory, "sitemap", "http://dummy/", executor, 3, 1000000);
+        for (int i = 0; i < 10; ++i)
+            writer.write(new WebCrawlerInfo().withCanonical("http://dummy/" + i));
+        writer.close();
+        assertThat(writer.getNumberOfShards()).isEqualTo(4);
+        assertThat(numberOfUrls(new File(directory, "sitemap-1.xml.gz"))).isEqualTo(3);
+        assertThat(numberOfUrls(new File(directory, "sitemap-4.xml.gz"))).isEqualTo(1);
+    }
+
+    @Test
+    public void startsNewShardWhenMaximumNumberOfBytesIsReached() throws Exception {
+        File directory = folder.newFolder();
+        SitemapWriter writer = new SitemapWriter(directory, "sitemap", "http://dummy/", executor, 1000, 400);
+        for (int i = 0; i < 10; ++i)
+            writer.write(new WebCrawlerInfo().withCanonical("http://dummy/" + i));
+        writer.close();
+        for (int i = 1; i <= writer.getNumberOfShards(); ++i)
+            assertThat(read(new File(directory, "sitemap-" + i + ".xml.gz")).length()).isLessThanOrEqualTo(400);
+        assertThat(writer.getNumberOfShards()).isGreaterThan(1);
+    }
+
+    @Test
+    public void writesIndexOfShards() throws Exception {
+        File directory = folder.newFolder();
+        SitemapWriter writer = new SitemapWriter(directory, "sitemap", "http://dummy/", executor, 1, 1000000);
+        writer.write(new WebCrawlerInfo().withCanonical("http://dummy/1"));
+        writer.write(new WebCrawlerInfo().withCanonical("http://dummy/2"));
+        writer.close();
+        assertThat(readUncompressed(new File(directory, "sitemap-index.xml"))).isEqualTo(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n"
+                + "<sitemap><loc>http://dummy/sitemap-1.xml.gz</loc></sitemap>\n"
+                + "<sitemap><loc>http://dummy/sitemap-2.xml.gz</loc></sitemap>\n"
+                + "</sitemapindex>\n");
+    }
+
+    @Test
+    public void deletesUncompressedShards() throws Exception {
+        File directory = folder.newFolder();
+        SitemapWriter writer = new SitemapWriter(directory, "sitemap", "http://dummy/", executor, 1, 1000000);
+        writer.write(new WebCrawlerInfo().withCanonical("http://dummy/1"));
+        writer.write(new WebCrawlerInfo().withCanonical("http://dummy/2"));
+        writer.close();
+        assertThat(directory.list()).containsOnly("sitemap-1.xml.gz", "sitemap-2.xml.gz", "sitemap-index.xml");
+    }
+
+    @Test
+    public void deletesUncompressedShardIfCompressionFails() throws Exception {
+        File directory = folder.newFolder();
+        //the compressed shard cannot be written
+        new File(directory, "sitemap-1.xml.gz").mkdir();
+        SitemapWriter writer = new SitemapWriter(directory, "sitemap", "http://dummy/", executor);
+        writer.write(new WebCrawlerInfo().withCanonical("http://dummy/1"));
+        try {
+            writer.close();
+        } catch (IOException expected) {
+            assertThat(directory.list()).isEmpty();
+            return;
+        }
+        throw new AssertionError("close() did not fail.");
+    }
+
+    @Test
+    public void writesEntryThatIsLargerThanTheInitialBuffer() throws Exception {
+        StringBuilder longUrl = new StringBuilder("http://dummy/");
+        for (int i = 0; i < 10000; ++i)
+            longUrl.append('a');
+        File directory = folder.newFolder();
+        SitemapWriter writer = new SitemapWriter(directory, "sitemap", "http://dummy/", executor);
+        writer.write(new WebCrawlerInfo().withCanonical(longUrl.toString()));
+        writer.close();
+        assertThat(read(new File(directory, "sitemap-1.xml.gz"))).contains(longUrl.toString());
+    }
+
+    @Test
+    public void rejectsInfoWithoutCanonical() throws Exception {
+        SitemapWriter writer = new SitemapWriter(folder.newFolder(), "sitemap", "http://dummy/", executor);
+        thrown.expect(IllegalArgumentException.class);
+        writer.write(new WebCrawlerInfo().withDescription("dummy"));
+    }
+
+    private int numberOfUrls(File shard) throws IOException {
+        return read(shard).split("<url>", -1).length - 1;
+    }
+
+    private String read(File file) throws IOException {
+        return read(new GZIPInputStream(new FileInputStream(file)));
+    }
+
+    private String readUncompressed(File file) throws IOException {
+        return read(new FileInputStream(file));
+    }
+
+    private String read(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int length;
+            while ((length = in.read(buffer)) >= 0)
+                out.write(buffer, 0, length);
+            return out.toString("UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+}
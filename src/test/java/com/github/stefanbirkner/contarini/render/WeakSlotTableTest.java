@@ -0,0 +1,29 @@
+package com.github.stefanbirkner.contarini.render;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WeakSlotTableTest {
+    private final WeakSlotTable<String, String> table = new WeakSlotTable<String, String>(16);
+
+    @Test
+    public void returnsValueOfEqualKey() {
+        table.put("key", "value");
+        assertThat(table.get(new String("key"))).isEqualTo("value");
+    }
+
+    @Test
+    public void returnsNullForMissingKey() {
+        assertThat(table.get("key")).isNull();
+    }
+
+    @Test
+    public void returnsNullForKeyWhoseValueHasBeenReplaced() {
+        //"Aa" and "BB" have the same hash code
+        table.put("Aa", "first value");
+        table.put("BB", "second value");
+        assertThat(table.get("Aa")).isNull();
+        assertThat(table.get("BB")).isEqualTo("second value");
+    }
+}
@@ -1,24 +1,39 @@
 package com.github.stefanbirkner.contarini.render;
 
 import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.AlternateSet;
+import com.github.stefanbirkner.contarini.LazyWebCrawlerInfo;
+import com.github.stefanbirkner.contarini.ValueSupplier;
+import com.github.stefanbirkner.contarini.WebCrawlerAdvice;
 import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
 
 import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
 import static com.github.stefanbirkner.contarini.Alternate.alternateMedia;
 import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
 import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_FOLLOW;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_SNIPPET;
 import static com.github.stefanbirkner.contarini.GoogleFeature.SITELINKS_SEARCH_BOX;
 import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
 import static com.github.stefanbirkner.contarini.render.VoidElementStyle.XML_SELF_CLOSING_WITHOUT_SPACE;
+import static com.github.stefanbirkner.contarini.render.VoidElementStyle.XML_SELF_CLOSING_WITH_SPACE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
 
 public class WebCrawlerInfoRendererTest extends WebCrawlerInfoRenderer {
     private static final String CHARACTERS_TO_ESCAPE = "<>\"&'";
     private static final String ESCAPED_CHARACTERS_TO_ESCAPE = "&lt;&gt;&quot;&amp;&apos;";
+    private static final String NON_ASCII_TEXT = "Gr\u00fc\u00dfe \u20ac \ud83d\ude00";
     private static final String DUMMY_CANONICAL = "http://dummy.canonical";
     private static final String DUMMY_TEXT = "dummy text";
     private static final String FIRST_DUMMY_LANGUAGE = "de";
@@ -26,6 +41,9 @@ public class WebCrawlerInfoRendererTest extends WebCrawlerInfoRenderer {
     private static final String SECOND_DUMMY_LANGUAGE = "en";
     private static final String SECOND_DUMMY_HREF = DUMMY_CANONICAL + ".en";
 
+    @Rule
+    public final ExpectedException thrown = none();
+
     @Test
     public void writesCanonical() throws Exception {
         WebCrawlerInfo info = new WebCrawlerInfo().withCanonical(DUMMY_CANONICAL);
@@ -33,6 +51,13 @@ public class WebCrawlerInfoRendererTest extends WebCrawlerInfoRenderer {
         assertThat(tags).isEqualTo("<link rel=\"canonical\" href=\"" + DUMMY_CANONICAL + "\">");
     }
 
+    @Test
+    public void escapesCharactersInCanonical() throws Exception {
+        WebCrawlerInfo info = new WebCrawlerInfo().withCanonical(CHARACTERS_TO_ESCAPE);
+        String tags = renderTagsForInfo(info);
+        assertThat(tags).isEqualTo("<link rel=\"canonical\" href=\"" + ESCAPED_CHARACTERS_TO_ESCAPE + "\">");
+    }
+
     @Test
     public void writesDescription() throws Exception {
         WebCrawlerInfo info = new WebCrawlerInfo().withDescription(DUMMY_TEXT);
@@ -75,6 +100,26 @@ public class WebCrawlerInfoRendererTest extends WebCrawlerInfoRenderer {
         assertThat(tags).isEqualTo("<meta name=\"robots\" content=\"noarchive, nofollow\">");
     }
 
+    @Test
+    public void writesManyAdvicesSeparatedByComma() throws Exception {
+        WebCrawlerInfo info = new WebCrawlerInfo().withAdvices(NO_ARCHIVE, NO_FOLLOW, NO_SNIPPET, NO_FOLLOW);
+        String tags = renderTagsForInfo(info);
+        assertThat(tags).isEqualTo("<meta name=\"robots\" content=\"noarchive, nofollow, nosnippet, nofollow\">");
+    }
+
+    @Test
+    public void writesCustomAdviceTogetherWithBuiltInAdvice() throws Exception {
+        WebCrawlerAdvice customAdvice = new WebCrawlerAdvice() {
+            @Override
+            public String getLabel() {
+                return "unavailable_after: <date>";
+            }
+        };
+        WebCrawlerInfo info = new WebCrawlerInfo().withAdvices(NO_ARCHIVE, customAdvice);
+        String tags = renderTagsForInfo(info);
+        assertThat(tags).isEqualTo("<meta name=\"robots\" content=\"noarchive, unavailable_after: &lt;date&gt;\">");
+    }
+
     @Test
     public void writesAlternateLanguage() throws Exception {
         Alternate alternate = alternateLanguage("dummy language", "http://dummy.domain/path");
@@ -93,6 +138,24 @@ public class WebCrawlerInfoRendererTest extends WebCrawlerInfoRenderer {
             "<link rel=\"alternate\" media=\"dummy media\" href=\"http://dummy.domain/path\">");
     }
 
+    @Test
+    public void escapesCharactersInAlternate() throws Exception {
+        Alternate alternate = new Alternate(CHARACTERS_TO_ESCAPE, CHARACTERS_TO_ESCAPE, CHARACTERS_TO_ESCAPE);
+        WebCrawlerInfo info = new WebCrawlerInfo().withAlternates(alternate);
+        String tags = renderTagsForInfo(info);
+        assertThat(tags).isEqualTo("<link rel=\"alternate\" hreflang=\"" + ESCAPED_CHARACTERS_TO_ESCAPE
+                + "\" media=\"" + ESCAPED_CHARACTERS_TO_ESCAPE + "\" href=\"" + ESCAPED_CHARACTERS_TO_ESCAPE + "\">");
+    }
+
+    @Test
+    public void writesAlternateWithLanguageAndMedia() throws Exception {
+        Alternate alternate = new Alternate("http://dummy.domain/path", "dummy language", "dummy media");
+        WebCrawlerInfo info = new WebCrawlerInfo().withAlternates(alternate);
+        String tags = renderTagsForInfo(info);
+        assertThat(tags).isEqualTo("<link rel=\"alternate\" hreflang=\"dummy language\" media=\"dummy media\""
+                + " href=\"http://dummy.domain/path\">");
+    }
+
     @Test
     public void writesTwoAlternates() throws Exception {
         Alternate firstAlternate = alternateLanguage(FIRST_DUMMY_LANGUAGE, FIRST_DUMMY_HREF);
@@ -104,6 +167,28 @@ public class WebCrawlerInfoRendererTest extends WebCrawlerInfoRenderer {
                 + SECOND_DUMMY_HREF + "\">");
     }
 
+    @Test
+    public void writesAlternateSetLikeListOfAlternates() throws Exception {
+        AlternateSet alternates = AlternateSet.of(
+            alternateLanguage(FIRST_DUMMY_LANGUAGE, FIRST_DUMMY_HREF),
+            alternateMedia("dummy media", SECOND_DUMMY_HREF));
+        WebCrawlerInfo info = new WebCrawlerInfo().withAlternates(alternates);
+        renderTagsForInfo(info);
+        String tags = renderTagsForInfo(info);
+        assertThat(tags).isEqualTo(renderTagsForInfo(
+            new WebCrawlerInfo().withAlternates(new ArrayList<Alternate>(alternates))));
+    }
+
+    @Test
+    public void writesAlternateSetWithStyleOfRenderer() throws Exception {
+        AlternateSet alternates = AlternateSet.of(new Alternate(FIRST_DUMMY_HREF));
+        WebCrawlerInfo info = new WebCrawlerInfo().withAlternates(alternates);
+        renderTagsForInfo(info);
+        Style format = new Style().withVoidElementStyle(XML_SELF_CLOSING_WITHOUT_SPACE);
+        String tags = renderTagsForInfo(info, format);
+        assertThat(tags).isEqualTo("<link rel=\"alternate\" href=\"" + FIRST_DUMMY_HREF + "\"/>");
+    }
+
     @Test
     public void writesAlternateWithHrefOnly() throws Exception {
         Alternate alternate = new Alternate(FIRST_DUMMY_HREF);
@@ -135,6 +220,132 @@ public class WebCrawlerInfoRendererTest extends WebCrawlerInfoRenderer {
         assertThat(tags).isEqualTo("<link rel=\"canonical\" href=\"" + DUMMY_CANONICAL + "\"/>");
     }
 
+    @Test
+    public void writesEveryTagWithXmlStyleIfSpecified() throws Exception {
+        WebCrawlerInfo info = new WebCrawlerInfo()
+            .withAdvices(NO_ARCHIVE)
+            .withAlternates(alternateLanguage(FIRST_DUMMY_LANGUAGE, FIRST_DUMMY_HREF))
+            .withDescription(DUMMY_TEXT)
+            .disableGoogleFeatures(TRANSLATION);
+        Style format = new Style().withVoidElementStyle(XML_SELF_CLOSING_WITH_SPACE);
+        String tags = renderTagsForInfo(info, format);
+        assertThat(tags).isEqualTo("<meta name=\"robots\" content=\"noarchive\" />"
+                + "<link rel=\"alternate\" hreflang=\"" + FIRST_DUMMY_LANGUAGE + "\" href=\"" + FIRST_DUMMY_HREF + "\" />"
+                + "<meta name=\"description\" content=\"" + DUMMY_TEXT + "\" />"
+                + "<meta name=\"google\" content=\"notranslate\" />");
+    }
+
+    @Test
+    public void writesUtf8EncodedTagsToStream() throws Exception {
+        WebCrawlerInfo info = infoWithNonAsciiCharacters();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new WebCrawlerInfoRenderer().writeTagsForInfoToStream(info, os);
+        assertThat(os.toByteArray()).isEqualTo(utf8BytesOfTagsForInfo(info));
+    }
+
+    @Test
+    public void writesUtf8EncodedTagsToStreamThatAreLongerThanTheInternalBuffer() throws Exception {
+        WebCrawlerInfo info = new WebCrawlerInfo().withDescription(repeat(NON_ASCII_TEXT, 500));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new WebCrawlerInfoRenderer().writeTagsForInfoToStream(info, os);
+        assertThat(os.toByteArray()).isEqualTo(utf8BytesOfTagsForInfo(info));
+    }
+
+    @Test
+    public void putsUtf8EncodedTagsIntoDirectBuffer() throws Exception {
+        WebCrawlerInfo info = infoWithNonAsciiCharacters();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        new WebCrawlerInfoRenderer().writeTagsForInfoToBuffer(info, buffer);
+        buffer.flip();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        assertThat(bytes).isEqualTo(utf8BytesOfTagsForInfo(info));
+    }
+
+    @Test
+    public void failsToPutTagsIntoBufferThatIsTooSmall() throws Exception {
+        thrown.expect(BufferOverflowException.class);
+        WebCrawlerInfo info = new WebCrawlerInfo().withCanonical(DUMMY_CANONICAL);
+        new WebCrawlerInfoRenderer().writeTagsForInfoToBuffer(info, ByteBuffer.allocate(10));
+    }
+
+    @Test
+    public void writesUtf8EncodedTagsToChannel() throws Exception {
+        WebCrawlerInfo info = new WebCrawlerInfo().withDescription(repeat(NON_ASCII_TEXT, 500));
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new WebCrawlerInfoRenderer().writeTagsForInfoToChannel(info, Channels.newChannel(os));
+        assertThat(os.toByteArray()).isEqualTo(utf8BytesOfTagsForInfo(info));
+    }
+
+    @Test
+    public void calculatesExactNumberOfCharacters() throws Exception {
+        WebCrawlerInfo info = infoWithNonAsciiCharacters();
+        int length = new WebCrawlerInfoRenderer().lengthOfTagsForInfo(info);
+        assertThat(length).isEqualTo(renderTagsForInfo(info).length());
+    }
+
+    @Test
+    public void calculatesExactNumberOfUtf8Bytes() throws Exception {
+        WebCrawlerInfo info = infoWithNonAsciiCharacters();
+        int length = new WebCrawlerInfoRenderer().utf8LengthOfTagsForInfo(info);
+        assertThat(length).isEqualTo(utf8BytesOfTagsForInfo(info).length);
+    }
+
+    @Test
+    public void countsUnpairedSurrogateAsSingleByte() throws Exception {
+        WebCrawlerInfo info = new WebCrawlerInfo().withDescription("a\ud83d");
+        int length = new WebCrawlerInfoRenderer().utf8LengthOfTagsForInfo(info);
+        assertThat(length).isEqualTo(utf8BytesOfTagsForInfo(info).length);
+    }
+
+    @Test
+    public void rendersTagsToString() throws Exception {
+        WebCrawlerInfo info = infoWithNonAsciiCharacters();
+        String tags = new WebCrawlerInfoRenderer().renderTagsForInfoToString(info);
+        assertThat(tags).isEqualTo(renderTagsForInfo(info));
+    }
+
+    @Test
+    public void rendersTagsToBytes() throws Exception {
+        WebCrawlerInfo info = infoWithNonAsciiCharacters();
+        byte[] tags = new WebCrawlerInfoRenderer().renderTagsForInfoToBytes(info);
+        assertThat(tags).isEqualTo(utf8BytesOfTagsForInfo(info));
+    }
+
+    private WebCrawlerInfo infoWithNonAsciiCharacters() {
+        return new WebCrawlerInfo()
+            .withCanonical(DUMMY_CANONICAL)
+            .withAlternates(alternateLanguage(FIRST_DUMMY_LANGUAGE, FIRST_DUMMY_HREF))
+            .withDescription(NON_ASCII_TEXT + CHARACTERS_TO_ESCAPE)
+            .disableGoogleFeatures(TRANSLATION);
+    }
+
+    private byte[] utf8BytesOfTagsForInfo(WebCrawlerInfo info) throws IOException {
+        return renderTagsForInfo(info).getBytes("UTF-8");
+    }
+
+    private String repeat(String text, int times) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < times; ++i)
+            sb.append(text);
+        return sb.toString();
+    }
+
+    @Test
+    public void rendersTagsForLazyInfo() throws Exception {
+        LazyWebCrawlerInfo info = new LazyWebCrawlerInfo(new WebCrawlerInfo().withCanonical(DUMMY_CANONICAL))
+            .withDescription(new ValueSupplier<String>() {
+                @Override
+                public String get() {
+                    return DUMMY_TEXT;
+                }
+            });
+        StringWriter w = new StringWriter();
+        new WebCrawlerInfoRenderer().writeTagsForInfoToWriter(info, w);
+        assertThat(w.toString()).isEqualTo(renderTagsForInfo(
+            new WebCrawlerInfo().withCanonical(DUMMY_CANONICAL).withDescription(DUMMY_TEXT)));
+    }
+
     private String renderTagsForInfo(WebCrawlerInfo info) throws IOException {
         WebCrawlerInfoRenderer renderer = new WebCrawlerInfoRenderer();
         return renderTagsForInfo(info, renderer);
@@ -0,0 +1,90 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.Alternate;
+import com.github.stefanbirkner.contarini.CustomWebCrawlerAdvice;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import com.github.stefanbirkner.contarini.WebCrawlerInfoTable;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.Alternate.alternateMedia;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.SITELINKS_SEARCH_BOX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WebCrawlerInfoTableRenderingTest {
+    private static final WebCrawlerInfo[] INFOS = {
+        new WebCrawlerInfo(),
+        new WebCrawlerInfo()
+            .withCanonical("http://dummy.domain/?a&b")
+            .withAdvices(NO_INDEX, NO_ARCHIVE)
+            .withAlternates(alternateLanguage("de", "http://dummy.domain/de"),
+                new Alternate("http://dummy.domain/m", "en", "only screen"),
+                alternateMedia("print", "http://dummy.domain/print"),
+                new Alternate("http://dummy.domain/other"))
+            .withDescription("\u00fcber <dummy>")
+            .withKeywords("dummy, keywords")
+            .disableGoogleFeatures(TRANSLATION, SITELINKS_SEARCH_BOX),
+        new WebCrawlerInfo().withAdvices(NO_ARCHIVE, new CustomWebCrawlerAdvice("max-snippet:20")),
+        new WebCrawlerInfo().withKeywords("dummy").disableGoogleFeatures(TRANSLATION, TRANSLATION, TRANSLATION)
+    };
+
+    private final WebCrawlerInfoRenderer renderer = new WebCrawlerInfoRenderer();
+    private final WebCrawlerInfoTable table = new WebCrawlerInfoTable();
+
+    @Test
+    public void writesSameTagsAsForWebCrawlerInfo() throws IOException {
+        for (WebCrawlerInfo info : INFOS) {
+            StringWriter w = new StringWriter();
+            renderer.writeTagsForInfoToWriter(table.row(table.add(info)), w);
+            assertThat(w.toString()).isEqualTo(renderer.renderTagsForInfoToString(info));
+        }
+    }
+
+    @Test
+    public void writesUtf8EncodedTagsToStream() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        renderer.writeTagsForInfoToStream(table.row(table.add(INFOS[1])), os);
+        assertThat(os.toByteArray()).isEqualTo(renderer.renderTagsForInfoToBytes(INFOS[1]));
+    }
+
+    @Test
+    public void putsUtf8EncodedTagsIntoBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        renderer.writeTagsForInfoToBuffer(table.row(table.add(INFOS[1])), buffer);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        assertThat(bytes).isEqualTo(renderer.renderTagsForInfoToBytes(INFOS[1]));
+    }
+
+    @Test
+    public void writesUtf8EncodedTagsToChannel() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        renderer.writeTagsForInfoToChannel(table.row(table.add(INFOS[1])), Channels.newChannel(os));
+        assertThat(os.toByteArray()).isEqualTo(renderer.renderTagsForInfoToBytes(INFOS[1]));
+    }
+
+    @Test
+    public void reportsSameTagsAsForWebCrawlerInfo() throws IOException {
+        for (WebCrawlerInfo info : INFOS) {
+            RenderMetrics metricsOfRow = new RenderMetrics();
+            new WebCrawlerInfoRenderer(new Style(), metricsOfRow)
+                .writeTagsForInfoToWriter(table.row(table.add(info)), new StringWriter());
+            RenderMetrics metricsOfInfo = new RenderMetrics();
+            new WebCrawlerInfoRenderer(new Style(), metricsOfInfo).writeTagsForInfoToWriter(info, new StringWriter());
+            assertThat(metricsOfRow.getCanonicalTags()).isEqualTo(metricsOfInfo.getCanonicalTags());
+            assertThat(metricsOfRow.getRobotsTags()).isEqualTo(metricsOfInfo.getRobotsTags());
+            assertThat(metricsOfRow.getAlternateTags()).isEqualTo(metricsOfInfo.getAlternateTags());
+            assertThat(metricsOfRow.getMetaTags()).isEqualTo(metricsOfInfo.getMetaTags());
+        }
+    }
+}
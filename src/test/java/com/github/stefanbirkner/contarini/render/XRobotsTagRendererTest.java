@@ -0,0 +1,82 @@
+package com.github.stefanbirkner.contarini.render;
+
+import com.github.stefanbirkner.contarini.CustomWebCrawlerAdvice;
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NONE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_ARCHIVE;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_FOLLOW;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_INDEX;
+import static com.github.stefanbirkner.contarini.CommonWebCrawlerAdvice.NO_SNIPPET;
+import static com.github.stefanbirkner.contarini.GoogleFeature.SITELINKS_SEARCH_BOX;
+import static com.github.stefanbirkner.contarini.GoogleFeature.TRANSLATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class XRobotsTagRendererTest {
+    @Rule
+    public final ExpectedException thrown = none();
+
+    private final XRobotsTagRenderer renderer = new XRobotsTagRenderer();
+
+    @Test
+    public void rendersAdvicesAndDisabledGoogleFeatures() {
+        WebCrawlerInfo info = new WebCrawlerInfo()
+            .withAdvices(NO_INDEX, NO_FOLLOW)
+            .disableGoogleFeatures(TRANSLATION, SITELINKS_SEARCH_BOX);
+        assertThat(renderer.headerValueForInfo(info))
+            .isEqualTo("noindex, nofollow, notranslate, nositelinkssearchbox");
+    }
+
+    @Test
+    public void rendersDisabledGoogleFeaturesWithoutAdvices() {
+        WebCrawlerInfo info = new WebCrawlerInfo().disableGoogleFeatures(TRANSLATION);
+        assertThat(renderer.headerValueForInfo(info)).isEqualTo("notranslate");
+    }
+
+    @Test
+    public void rendersUserAgentPrefix() {
+        WebCrawlerInfo info = new WebCrawlerInfo().withAdvices(NONE);
+        assertThat(new XRobotsTagRenderer("googlebot").headerValueForInfo(info))
+            .isEqualTo("googlebot: none");
+    }
+
+    @Test
+    public void returnsNullForInfoWithoutAdvicesAndGoogleFeatures() {
+        assertThat(renderer.headerValueForInfo(new WebCrawlerInfo())).isNull();
+    }
+
+    @Test
+    public void returnsSameValueForSameBuiltInAdvices() {
+        WebCrawlerInfo info = new WebCrawlerInfo().withAdvices(NO_INDEX).disableGoogleFeatures(TRANSLATION);
+        WebCrawlerInfo otherInfo = new WebCrawlerInfo().withAdvices(NO_INDEX).disableGoogleFeatures(TRANSLATION);
+        assertThat(renderer.headerValueForInfo(info)).isSameAs(renderer.headerValueForInfo(otherInfo));
+    }
+
+    @Test
+    public void returnsSameValueForManyBuiltInAdvices() {
+        WebCrawlerInfo info = new WebCrawlerInfo().withAdvices(NO_INDEX, NO_FOLLOW, NO_ARCHIVE, NO_SNIPPET);
+        WebCrawlerInfo otherInfo = new WebCrawlerInfo().withAdvices(NO_INDEX, NO_FOLLOW, NO_ARCHIVE, NO_SNIPPET);
+        String value = renderer.headerValueForInfo(info);
+        assertThat(value).isEqualTo("noindex, nofollow, noarchive, nosnippet");
+        assertThat(renderer.headerValueForInfo(otherInfo)).isSameAs(value);
+    }
+
+    @Test
+    public void rendersCustomAdvices() {
+        WebCrawlerInfo info = new WebCrawlerInfo()
+            .withAdvices(NO_INDEX, new CustomWebCrawlerAdvice("max-snippet:20"));
+        assertThat(renderer.headerValueForInfo(info)).isEqualTo("noindex, max-snippet:20");
+    }
+
+    @Test
+    public void rejectsAdviceWithLineBreak() {
+        WebCrawlerInfo info = new WebCrawlerInfo()
+            .withAdvices(new CustomWebCrawlerAdvice("noindex\r\nSet-Cookie: a=b"));
+        thrown.expect(IllegalArgumentException.class);
+        renderer.headerValueForInfo(info);
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.stefanbirkner.contarini.validation;
+
+import com.github.stefanbirkner.contarini.WebCrawlerInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.stefanbirkner.contarini.Alternate.alternateLanguage;
+import static com.github.stefanbirkner.contarini.Alternate.alternateMedia;
+import static com.github.stefanbirkner.contarini.validation.HreflangProblemType.CANONICAL_CONFLICT;
+import static com.github.stefanbirkner.contarini.validation.HreflangProblemType.DUPLICATE_LANGUAGE;
+import static com.github.stefanbirkner.contarini.validation.HreflangProblemType.MISSING_RETURN_LINK;
+import static com.github.stefanbirkner.contarini.validation.HreflangProblemType.MISSING_SELF_REFERENCE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class HreflangValidatorTest {
+    private static final String DE = "http://dummy/de";
+    private static final String EN = "http://dummy/en";
+    private static final String FR = "http://dummy/fr";
+
+    @Rule
+    public final ExpectedException thrown = none();
+
+    private final HreflangValidator validator = new HreflangValidator();
+    private final List<HreflangProblem> problems = new ArrayList<HreflangProblem>();
+    private final HreflangProblemListener listener = new HreflangProblemListener() {
+        @Override
+        public void problemFound(HreflangProblem problem) {
+            problems.add(problem);
+        }
+    };
+
+    @Test
+    public void findsNoProblemsOfReciprocalLinks() {
+        validator.add(DE, pageWithAlternates(DE, DE, EN));
+        validator.add(EN, pageWithAlternates(EN, DE, EN));
+        validator.validate(listener);
+        assertThat(problems).isEmpty();
+    }
+
+    @Test
+    public void findsMissingReturnLink() {
+        validator.add(DE, pageWithAlternates(DE, DE, EN));
+        validator.add(EN, pageWithAlternates(EN, EN));
+        validator.validate(listener);
+        assertThat(problems).containsExactly(
+            new HreflangProblem(MISSING_RETURN_LINK, DE, EN, "en"));
+    }
+
+    @Test
+    public void doesNotCheckReturnLinkOfUnknownPage() {
+        validator.add(DE, pageWithAlternates(DE, DE, EN));
+        validator.validate(listener);
+        assertThat(problems).isEmpty();
+    }
+
+    @Test
+    public void findsMissingSelfReference() {
+        validator.add(DE, pageWithAlternates(DE, EN));
+        validator.add(EN, pageWithAlternates(EN, DE, EN));
+        validator.validate(listener);
+        assertThat(problems).containsExactly(new HreflangProblem(MISSING_SELF_REFERENCE, DE, null, null));
+    }
+
+    @Test
+    public void findsNonCanonicalPageWithHreflangLinks() {
+        validator.add(DE, pageWithAlternates(FR, DE));
+        validator.validate(listener);
+        assertThat(problems).containsExactly(new HreflangProblem(CANONICAL_CONFLICT, DE, FR, null));
+    }
+
+    @Test
+    public void findsHreflangLinkToNonCanonicalPage() {
+        validator.add(DE, pageWithAlternates(DE, DE, EN));
+        validator.add(EN, new WebCrawlerInfo().withCanonical(FR)
+            .withAlternates(alternateLanguage("de", DE)));
+        validator.validate(listener);
+        assertThat(problems).contains(new HreflangProblem(CANONICAL_CONFLICT, DE, EN, "en"));
+    }
+
+    @Test
+    public void findsDuplicateLanguage() {
+        validator.add(DE, new WebCrawlerInfo().withAlternates(alternateLanguage("de", DE),
+            alternateLanguage("en", EN), alternateLanguage("en", FR), alternateLanguage("en", "http://dummy/x")));
+        validator.validate(listener);
+        assertThat(problems).containsExactly(new HreflangProblem(DUPLICATE_LANGUAGE, DE, null, "en"));
+    }
+
+    @Test
+    public void ignoresAlternatesWithoutLanguage() {
+        validator.add(DE, new WebCrawlerInfo().withAlternates(alternateMedia("print", EN)));
+        validator.add(EN, new WebCrawlerInfo());
+        validator.validate(listener);
+        assertThat(problems).isEmpty();
+    }
+
+    @Test
+    public void validatesManyPages() {
+        for (int i = 0; i < 1000; ++i)
+            validator.add("http://dummy/" + i, new WebCrawlerInfo().withAlternates(
+                alternateLanguage("a", "http://dummy/" + i),
+                alternateLanguage("b", "http://dummy/" + (i ^ 1))));
+        validator.validate(listener);
+        assertThat(validator.getNumberOfPages()).isEqualTo(1000);
+        assertThat(problems).isEmpty();
+    }
+
+    @Test
+    public void rejectsPageThatIsAddedTwice() {
+        validator.add(DE, new WebCrawlerInfo());
+        thrown.expect(IllegalArgumentException.class);
+        validator.add(DE, new WebCrawlerInfo());
+    }
+
+    private WebCrawlerInfo pageWithAlternates(String canonical, String... hrefs) {
+        WebCrawlerInfo.Builder builder = new WebCrawlerInfo.Builder().withCanonical(canonical);
+        for (String href : hrefs)
+            builder.addAlternate(alternateLanguage(href.substring(href.length() - 2), href));
+        return builder.build();
+    }
+}